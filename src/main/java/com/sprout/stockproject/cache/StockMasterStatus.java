@@ -0,0 +1,44 @@
+package com.sprout.stockproject.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 종목 마스터(KRX) 적재 상태.
+ * 백그라운드 로더가 단계별로 통째로 교체(set)하므로 읽는 쪽은 항상 일관된 값을 본다.
+ */
+@Component
+public class StockMasterStatus {
+
+    public enum Phase {
+        STARTING,   // 아직 아무 데이터도 반영 안 됨
+        SNAPSHOT,   // 로컬 스냅샷 반영 완료, KRX 갱신 대기/진행 중
+        READY,      // KRX 최신 데이터 반영 완료
+        DEGRADED,   // 스냅샷은 있으나 KRX 갱신 실패
+        FAILED      // 스냅샷도 없고 KRX 갱신도 실패
+    }
+
+    public record State(Phase phase, String source, int stockCount, Instant dataAsOf,
+                        Instant updatedAt, String lastError) {
+        public boolean ready() { return phase == Phase.SNAPSHOT || phase == Phase.READY || phase == Phase.DEGRADED; }
+    }
+
+    private final AtomicReference<State> state =
+            new AtomicReference<>(new State(Phase.STARTING, null, 0, null, Instant.now(), null));
+
+    public State current() {
+        return state.get();
+    }
+
+    public void loaded(Phase phase, String source, int stockCount, Instant dataAsOf) {
+        state.set(new State(phase, source, stockCount, dataAsOf, Instant.now(), null));
+    }
+
+    public void failed(String error) {
+        state.updateAndGet(prev -> new State(
+                prev.ready() ? Phase.DEGRADED : Phase.FAILED,
+                prev.source(), prev.stockCount(), prev.dataAsOf(), Instant.now(), error));
+    }
+}
@@ -12,16 +12,33 @@ import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * 공용 커넥션 풀. 가상 스레드 모드에서는 수천 개 요청이 동시에 block() 으로 기다릴 수 있으므로
+     * 커넥션 대기열을 기본값(최대 커넥션 x2)보다 넉넉히 두고, 대기 시간으로만 제한한다.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(
+            @Value("${http.client.max-connections:500}") int maxConnections,
+            @Value("${http.client.pending-acquire-max:10000}") int pendingAcquireMax,
+            @Value("${http.client.pending-acquire-timeout-ms:45000}") long pendingAcquireTimeoutMs) {
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .build();
+    }
+
     /** 공용 Builder (타임아웃/메모리/커넥터만 공통 적용) */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient http = HttpClient.create()
+    public WebClient.Builder webClientBuilder(ConnectionProvider upstreamConnectionProvider) {
+        HttpClient http = HttpClient.create(upstreamConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
                 .responseTimeout(Duration.ofSeconds(30))
                 .doOnConnected(conn -> conn
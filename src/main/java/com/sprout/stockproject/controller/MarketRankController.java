@@ -0,0 +1,29 @@
+package com.sprout.stockproject.controller;
+
+import com.sprout.stockproject.api.ApiResponse;
+import com.sprout.stockproject.service.market.MarketRankingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/market/rank")
+public class MarketRankController {
+
+    private final MarketRankingService rankingService;
+
+    public MarketRankController(MarketRankingService rankingService) {
+        this.rankingService = rankingService;
+    }
+
+    /** 상위 종목 순위 (메모리 시세표 기준). metric: gainers|losers|volume|value|market_cap */
+    @GetMapping("/{metric}")
+    public ResponseEntity<ApiResponse<MarketRankingService.Ranking>> rank(@PathVariable String metric,
+                                                                         @RequestParam(defaultValue = "ALL") String market,
+                                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.ok(rankingService.rank(metric, market, limit)));
+    }
+}
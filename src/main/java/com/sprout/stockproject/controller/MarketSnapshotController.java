@@ -0,0 +1,52 @@
+package com.sprout.stockproject.controller;
+
+import com.sprout.stockproject.api.ApiResponse;
+import com.sprout.stockproject.service.StockInfoFromKrx;
+import com.sprout.stockproject.service.market.MarketSnapshot;
+import com.sprout.stockproject.service.market.MarketSnapshotStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/market/snapshot")
+public class MarketSnapshotController {
+
+    private final MarketSnapshotStore store;
+    private final StockInfoFromKrx krx;
+
+    public MarketSnapshotController(MarketSnapshotStore store, StockInfoFromKrx krx) {
+        this.store = store;
+        this.krx = krx;
+    }
+
+    /** 현재 메모리 시세표 요약 (기준 거래일, 종목 수, 최신 여부) */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> status() {
+        return ResponseEntity.ok(ApiResponse.ok(summary(store.current())));
+    }
+
+    /** 수동으로 즉시 KRX 전 종목 시세를 다시 받아 시세표 교체 */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> refresh() {
+        String result = krx.downloadFromKrx();
+        Map<String, Object> body = summary(store.current());
+        body.put("result", result);
+        return ResponseEntity.ok(ApiResponse.ok(body));
+    }
+
+    private static Map<String, Object> summary(MarketSnapshot s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("tradeDate", s.tradeDate());
+        m.put("stockCount", s.size());
+        m.put("checkedAt", s.checkedAt());
+        m.put("current", s.isCurrent(Instant.now()));
+        return m;
+    }
+}
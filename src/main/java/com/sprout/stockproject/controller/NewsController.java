@@ -4,6 +4,7 @@ import com.sprout.stockproject.api.ApiResponse;
 import com.sprout.stockproject.service.NewsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -19,21 +20,21 @@ public class NewsController {
     }
 
     @GetMapping("/theme/{themeName}")
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getNewsByTheme(
+    public Mono<ResponseEntity<ApiResponse<List<Map<String, Object>>>>> getNewsByTheme(
             @PathVariable String themeName,
             @RequestParam(required = false, defaultValue = "10") int display,
             @RequestParam(required = false, defaultValue = "1") int start
     ) {
-        List<Map<String, Object>> newsList = newsService.searchNews(themeName, display, start);
-        return ResponseEntity.ok(ApiResponse.ok(newsList)); // 빈 배열도 200으로 반환
+        return newsService.searchNews(themeName, display, start)
+                .map(newsList -> ResponseEntity.ok(ApiResponse.ok(newsList))); // 빈 배열도 200으로 반환
     }
 
     @GetMapping("/macro")
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMacroNews(
+    public Mono<ResponseEntity<ApiResponse<List<Map<String, Object>>>>> getMacroNews(
             @RequestParam(required = false, defaultValue = "10") int display,
             @RequestParam(required = false, defaultValue = "1") int start
     ) {
-        List<Map<String, Object>> newsList = newsService.searchNews("거시경제", display, start);
-        return ResponseEntity.ok(ApiResponse.ok(newsList)); // 빈 배열도 200으로 반환
+        return newsService.searchNews("거시경제", display, start)
+                .map(newsList -> ResponseEntity.ok(ApiResponse.ok(newsList))); // 빈 배열도 200으로 반환
     }
 }
\ No newline at end of file
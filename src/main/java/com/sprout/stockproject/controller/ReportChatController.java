@@ -7,12 +7,16 @@ import com.sprout.stockproject.service.ReportChatLlmService;
 import com.sprout.stockproject.service.StockInfoService;
 import com.sprout.stockproject.service.StockOpinionService;
 import com.sprout.stockproject.service.report.ReportSearchService;
+import com.sprout.stockproject.service.search.StockEntityLinker;
 import com.sprout.stockproject.service.storage.ReportStorage;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -24,11 +28,19 @@ public class ReportChatController {
     private final MacroSnapshotCache cache;
     private final StockInfoService stockInfoService;
     private final StockOpinionService stockOpinionService;
+    private final StockEntityLinker entityLinker;
+    private final double minMentionScore;
+
+    private static final Pattern SIX_DIGIT_CODE = Pattern.compile("\\b\\d{6}\\b");
 
     public ReportChatController(ReportStorage storage, ReportSearchService search, ReportChatLlmService llm,
-                               MacroSnapshotCache cache, StockInfoService stockInfoService, StockOpinionService stockOpinionService) {
+                               MacroSnapshotCache cache, StockInfoService stockInfoService, StockOpinionService stockOpinionService,
+                               StockEntityLinker entityLinker,
+                               @Value("${chat.stock.min-mention-score:0.8}") double minMentionScore) {
         this.storage = storage; this.search = search; this.llm = llm;
         this.cache = cache; this.stockInfoService = stockInfoService; this.stockOpinionService = stockOpinionService;
+        this.entityLinker = entityLinker;
+        this.minMentionScore = minMentionScore;
     }
 
     public record ChatReq(String question, Integer k) {}
@@ -103,15 +115,15 @@ public class ReportChatController {
     }
 
     private String extractStockCode(String question) {
-        // 간단한 주식 코드 추출 로직
-        if (question.contains("삼성전자") || question.contains("005930")) return "005930";
-        if (question.contains("SK하이닉스") || question.contains("000660")) return "000660";
-        if (question.contains("LG화학") || question.contains("051910")) return "051910";
-        if (question.contains("네이버") || question.contains("035420")) return "035420";
-        if (question.contains("카카오") || question.contains("035720")) return "035720";
-        // 6자리 숫자 패턴 찾기
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("\\b\\d{6}\\b");
-        java.util.regex.Matcher matcher = pattern.matcher(question);
+        if (question == null || question.isBlank()) return null;
+        // 전 종목 이름/코드 사전으로 한 번에 탐지 (가장 확신도 높은 언급 채택)
+        // 2자 이름이나 다른 단어에 붙은 이름(확신도 0.7 이하)은 일반 단어일 수 있어 채택하지 않는다
+        List<StockEntityLinker.Mention> mentions = entityLinker.link(question);
+        if (!mentions.isEmpty() && mentions.get(0).score() >= minMentionScore) {
+            return mentions.get(0).stockCode();
+        }
+        // 마스터에 없는 코드라도 6자리 숫자는 그대로 시도
+        Matcher matcher = SIX_DIGIT_CODE.matcher(question);
         if (matcher.find()) {
             return matcher.group();
         }
@@ -0,0 +1,51 @@
+package com.sprout.stockproject.controller;
+
+import com.sprout.stockproject.api.ApiResponse;
+import com.sprout.stockproject.service.screener.DailyHistorySync;
+import com.sprout.stockproject.service.screener.StockScreenerService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/screener")
+public class ScreenerController {
+
+    private final StockScreenerService screenerService;
+    private final DailyHistorySync historySync;
+
+    public ScreenerController(StockScreenerService screenerService, DailyHistorySync historySync) {
+        this.screenerService = screenerService;
+        this.historySync = historySync;
+    }
+
+    /**
+     * 로컬 일봉 이력 기준 전 종목 스크리닝.
+     * 예: filter=close > sma(200) and rsi(14) < 30, sort=roc(20), order=desc, market=KOSPI
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<StockScreenerService.Result>> screen(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "ALL") String market,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ApiResponse.ok(screenerService.screen(filter, sort, order, market, limit)));
+    }
+
+    /** 전 종목 일봉 이력 동기화를 백그라운드로 즉시 시작 (처음엔 수 분 걸림) */
+    @PostMapping("/history/sync")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> syncHistory() {
+        boolean started = historySync.start();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("started", started);
+        body.put("syncing", historySync.isRunning() || started);
+        return ResponseEntity.ok(ApiResponse.ok(body));
+    }
+}
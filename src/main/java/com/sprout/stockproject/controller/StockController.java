@@ -1,119 +1,230 @@
 package com.sprout.stockproject.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprout.stockproject.api.ApiResponse;
+import com.sprout.stockproject.dto.StockQuoteRequest;
 import com.sprout.stockproject.external.NaverChartStockClient;
+import com.sprout.stockproject.external.chart.Bars;
+import com.sprout.stockproject.service.StockQuoteService;
+import com.sprout.stockproject.service.indicator.IndicatorService;
+import com.sprout.stockproject.service.market.LivePriceHub;
+import com.sprout.stockproject.service.market.MarketSnapshot;
+import com.sprout.stockproject.service.market.MarketSnapshotStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/stock")
 public class StockController {
 
+    private static final Duration LIVE_HEARTBEAT = Duration.ofSeconds(15);
+
     private final NaverChartStockClient chartClient;
+    private final MarketSnapshotStore marketStore;
+    private final StockQuoteService quoteService;
+    private final IndicatorService indicatorService;
+    private final LivePriceHub liveHub;
+    private final ObjectMapper om;
+    private final Duration liveTimeout;
 
     @Autowired
-    public StockController(NaverChartStockClient chartClient) {
+    public StockController(NaverChartStockClient chartClient, MarketSnapshotStore marketStore,
+                           StockQuoteService quoteService, IndicatorService indicatorService,
+                           LivePriceHub liveHub, ObjectMapper om,
+                           @Value("${live.stream.timeout-seconds:3600}") long liveTimeoutSeconds) {
         this.chartClient = chartClient;
+        this.marketStore = marketStore;
+        this.quoteService = quoteService;
+        this.indicatorService = indicatorService;
+        this.liveHub = liveHub;
+        this.om = om;
+        this.liveTimeout = Duration.ofSeconds(Math.max(1, liveTimeoutSeconds));
     }
 
     /** 종목 전체 정보 조회 (차트 기반 최소 정보 제공) */
     @GetMapping("/{stockCode}")
-    public ResponseEntity<Map<String, Object>> getStockInfo(@PathVariable String stockCode) {
-        try {
-            JsonNode chart = chartClient.fetchDailyChart(stockCode, 1);
-            Map<String, Object> result = new HashMap<>();
-            result.put("stockCode", stockCode);
-            result.put("stockName", chart.path("name").asText(""));
-            String price = null;
-            JsonNode data = chart.path("data");
-            if (data != null && data.isArray() && data.size() > 0) {
-                JsonNode last = data.get(data.size()-1);
-                price = last.path("close").asText(null);
-            }
-            result.put("currentPrice", price);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", "Failed to fetch stock info: " + e.getMessage());
-            return ResponseEntity.badRequest().body(error);
-        }
+    public Mono<ResponseEntity<Map<String, Object>>> getStockInfo(@PathVariable String stockCode) {
+        return chartClient.fetchSeriesAsync(stockCode, "day", 1)
+                .map(chart -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("stockCode", stockCode);
+                    result.put("stockName", chart.name() == null ? "" : chart.name());
+                    Long close = chart.lastClose();
+                    result.put("currentPrice", close == null ? null : String.valueOf(close));
+                    return ResponseEntity.ok(result);
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("error", "Failed to fetch stock info: " + e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(error));
+                });
     }
 
     /** 종목명만 조회 (차트에서 이름 사용) */
     @GetMapping("/{stockCode}/name")
-    public ResponseEntity<Map<String, String>> getStockName(@PathVariable String stockCode) {
-        try {
-            JsonNode chart = chartClient.fetchDailyChart(stockCode, 1);
-            Map<String, String> result = new HashMap<>();
-            result.put("stockName", chart.path("name").asText(""));
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Failed to fetch stock name: " + e.getMessage());
-            return ResponseEntity.badRequest().body(error);
-        }
+    public Mono<ResponseEntity<Map<String, String>>> getStockName(@PathVariable String stockCode) {
+        return chartClient.fetchSeriesAsync(stockCode, "day", 1)
+                .map(chart -> {
+                    Map<String, String> result = new HashMap<>();
+                    result.put("stockName", chart.name() == null ? "" : chart.name());
+                    return ResponseEntity.ok(result);
+                })
+                .onErrorResume(e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Failed to fetch stock name: " + e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(error));
+                });
     }
 
-    /** 현재가만 조회 (차트 마지막 종가 사용) */
+    /**
+     * 현재가만 조회.
+     * 장 마감 후 메모리 시세표가 마지막 거래일까지 반영돼 있으면 그 종가를 쓰고(외부 호출 없음),
+     * 장중이거나 시세표에 없는 종목이면 차트 마지막 종가 사용
+     */
     @GetMapping("/{stockCode}/price")
-    public ResponseEntity<Map<String, String>> getCurrentPrice(@PathVariable String stockCode) {
-        try {
-            JsonNode chart = chartClient.fetchDailyChart(stockCode, 1);
-            String price = null;
-            JsonNode data = chart.path("data");
-            if (data != null && data.isArray() && data.size() > 0) {
-                JsonNode last = data.get(data.size()-1);
-                price = last.path("close").asText(null);
-            }
+    public Mono<ResponseEntity<Map<String, String>>> getCurrentPrice(@PathVariable String stockCode) {
+        MarketSnapshot snapshot = marketStore.current();
+        int id = snapshot.indexOf(stockCode);
+        if (id >= 0 && snapshot.isCurrent(Instant.now())) {
             Map<String, String> result = new HashMap<>();
-            result.put("currentPrice", price);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Failed to fetch current price: " + e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            result.put("currentPrice", String.valueOf(snapshot.close(id)));
+            result.put("tradeDate", snapshot.tradeDate().toString());
+            return Mono.just(ResponseEntity.ok(result));
         }
+        return chartClient.fetchSeriesAsync(stockCode, "day", 1)
+                .map(chart -> {
+                    Long close = chart.lastClose();
+                    Map<String, String> result = new HashMap<>();
+                    result.put("currentPrice", close == null ? null : String.valueOf(close));
+                    return ResponseEntity.ok(result);
+                })
+                .onErrorResume(e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Failed to fetch current price: " + e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(error));
+                });
+    }
+
+    /**
+     * 여러 종목 현재가 일괄 조회. 업스트림 응답을 기다리는 동안 요청 스레드를 점유하지 않으며,
+     * 종목별 status(OK, NOT_FOUND, INVALID, TIMEOUT, ERROR)로 일부 실패를 표시한다.
+     */
+    @PostMapping("/quotes")
+    public Mono<ResponseEntity<ApiResponse<List<StockQuoteService.Quote>>>> getQuotes(
+            @RequestBody StockQuoteRequest request) {
+        return quoteService.quotes(request.codes())
+                .map(quotes -> ResponseEntity.ok(ApiResponse.ok(quotes)));
+    }
+
+    /**
+     * 실시간 현재가 스트림 (SSE). codes=005930,000660 처럼 여러 종목을 한 연결로 구독한다.
+     * 값이 바뀔 때만 price 이벤트를 보내고, 연결 유지를 위해 15초마다 주석 하트비트를 보낸다.
+     * 같은 종목 구독자가 몇 명이든 업스트림 폴링은 종목당 하나.
+     * 연결은 live.stream.timeout-seconds(기본 1시간) 뒤 서버가 닫고 클라이언트가 재연결한다
+     * (다른 비동기 엔드포인트의 기본 타임아웃은 그대로 둠)
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam String codes) {
+        Flux<SseEmitter.SseEventBuilder> ticks = liveHub.subscribe(codes)
+                .map(tick -> SseEmitter.event().name("price").id(tick.stockCode()).data(tick));
+        Flux<SseEmitter.SseEventBuilder> heartbeat = Flux.interval(LIVE_HEARTBEAT)
+                .map(i -> SseEmitter.event().comment("ping"));
+
+        SseEmitter emitter = new SseEmitter(liveTimeout.toMillis());
+        Disposable.Swap subscription = Disposables.swap();
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscription.dispose());
+        subscription.update(Flux.merge(ticks, heartbeat).subscribe(event -> {
+            try {
+                emitter.send(event);
+            } catch (IOException e) {
+                // 클라이언트가 끊김. 응답 정리는 컨테이너가 onError/onCompletion 으로 알려 준다
+                subscription.dispose();
+            }
+        }, emitter::completeWithError, emitter::complete));
+        return emitter;
     }
 
     // market-value / per / pbr 엔드포인트는 비활성(데이터 소스 제거)
 
     // per/pbr/raw 엔드포인트 제거(네이버 모바일 통합 API 의존성 제거)
 
-    /** 일봉 차트 데이터 조회 */
+    /**
+     * 일봉 차트 데이터 조회.
+     * maxPoints 를 주면 봉이 그보다 많을 때 서버에서 줄여 보낸다 (sampling=ohlc: 구간 묶음 캔들, lttb: 종가 모양 유지)
+     */
     @GetMapping("/{stockCode}/chart/daily")
-    public ResponseEntity<JsonNode> getDailyChart(@PathVariable String stockCode,
-                                                  @RequestParam(defaultValue = "30") int count) {
-        try {
-            JsonNode result = chartClient.fetchDailyChart(stockCode, count);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public Mono<ResponseEntity<JsonNode>> getDailyChart(@PathVariable String stockCode,
+                                                        @RequestParam(defaultValue = "30") int count,
+                                                        @RequestParam(required = false) Integer maxPoints,
+                                                        @RequestParam(defaultValue = "ohlc") String sampling) {
+        return chartClient.fetchChartAsync(stockCode, "day", count, maxPoints, sampling)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
     }
 
     /** 주봉 차트 데이터 조회 */
     @GetMapping("/{stockCode}/chart/weekly")
-    public ResponseEntity<JsonNode> getWeeklyChart(@PathVariable String stockCode,
-                                                   @RequestParam(defaultValue = "20") int count) {
-        try {
-            JsonNode result = chartClient.fetchWeeklyChart(stockCode, count);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public Mono<ResponseEntity<JsonNode>> getWeeklyChart(@PathVariable String stockCode,
+                                                         @RequestParam(defaultValue = "20") int count,
+                                                         @RequestParam(required = false) Integer maxPoints,
+                                                         @RequestParam(defaultValue = "ohlc") String sampling) {
+        return chartClient.fetchChartAsync(stockCode, "week", count, maxPoints, sampling)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
     }
 
     /** 월봉 차트 데이터 조회 */
     @GetMapping("/{stockCode}/chart/monthly")
-    public ResponseEntity<JsonNode> getMonthlyChart(@PathVariable String stockCode,
-                                                    @RequestParam(defaultValue = "12") int count) {
+    public Mono<ResponseEntity<JsonNode>> getMonthlyChart(@PathVariable String stockCode,
+                                                          @RequestParam(defaultValue = "12") int count,
+                                                          @RequestParam(required = false) Integer maxPoints,
+                                                          @RequestParam(defaultValue = "ohlc") String sampling) {
+        return chartClient.fetchChartAsync(stockCode, "month", count, maxPoints, sampling)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * 보조지표 여러 개를 한 번에 조회. indicators 예: sma:20,ema:12,rsi:14,macd:12:26:9,bb:20:2
+     * 값 배열은 dates 와 같은 길이이며 워밍업 구간은 null
+     */
+    @GetMapping("/{stockCode}/indicators")
+    public ResponseEntity<ApiResponse<IndicatorService.Result>> getIndicators(
+            @PathVariable String stockCode,
+            @RequestParam(defaultValue = "sma:20,ema:20,rsi:14,macd:12:26:9,bb:20:2") String indicators,
+            @RequestParam(defaultValue = "day") String timeframe,
+            @RequestParam(defaultValue = "120") int count) {
+        return ResponseEntity.ok(ApiResponse.ok(indicatorService.compute(stockCode, timeframe, indicators, count)));
+    }
+
+    /** 로컬 저장 이력 조회 (업스트림 호출 없음, 동기화된 적 없는 종목이면 404) */
+    @GetMapping("/{stockCode}/chart/history")
+    public ResponseEntity<JsonNode> getLocalHistory(@PathVariable String stockCode,
+                                                    @RequestParam(defaultValue = "day") String timeframe,
+                                                    @RequestParam(defaultValue = "0") int from,
+                                                    @RequestParam(defaultValue = "99991231") int to) {
         try {
-            JsonNode result = chartClient.fetchMonthlyChart(stockCode, count);
-            return ResponseEntity.ok(result);
+            Bars bars = chartClient.fetchLocalHistory(stockCode, timeframe, from, to);
+            if (bars == null) return ResponseEntity.notFound().build();
+            return ResponseEntity.ok(bars.toJson(om));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
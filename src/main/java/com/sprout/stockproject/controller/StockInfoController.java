@@ -1,12 +1,20 @@
 package com.sprout.stockproject.controller;
 
+import com.sprout.stockproject.cache.StockMasterStatus;
+import com.sprout.stockproject.dto.StockPageResponse;
 import com.sprout.stockproject.entity.StockInfo;
 import com.sprout.stockproject.service.StockService;
+import com.sprout.stockproject.service.StockExportService;
 import com.sprout.stockproject.service.StockInfoFromKrx;
+import com.sprout.stockproject.service.csv.StockCsvImporter;
+import com.sprout.stockproject.service.search.StockFuzzyIndex;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,16 +24,67 @@ public class StockInfoController {
 
     private final StockService stockService;
     private final StockInfoFromKrx stockInfoFromKrx;
+    private final StockMasterStatus masterStatus;
+    private final StockExportService exportService;
 
-    public StockInfoController(StockService stockService, StockInfoFromKrx stockInfoFromKrx) {
+    public StockInfoController(StockService stockService, StockInfoFromKrx stockInfoFromKrx,
+                               StockMasterStatus masterStatus, StockExportService exportService) {
         this.stockService = stockService;
         this.stockInfoFromKrx = stockInfoFromKrx;
+        this.masterStatus = masterStatus;
+        this.exportService = exportService;
+    }
+
+    /** 종목 마스터 키셋 페이지 조회: 응답의 nextCursor 를 다음 요청의 after 로 전달 */
+    @GetMapping
+    public ResponseEntity<StockPageResponse> list(@RequestParam(required = false) String after,
+                                                  @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(stockService.getStockPage(after, size));
+    }
+
+    /**
+     * 시장/시가총액 구간 필터 + 정렬. 예) /api/stocks/filter?market=KOSPI&band=large&sort=marketCap&order=desc
+     * band: mega(10조+) / large(1조~10조) / mid(2천억~1조) / small(2천억 미만), minCap/maxCap 은 원 단위
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<StockInfo>> filter(@RequestParam(required = false) String market,
+                                                  @RequestParam(required = false) String band,
+                                                  @RequestParam(required = false) Long minCap,
+                                                  @RequestParam(required = false) Long maxCap,
+                                                  @RequestParam(defaultValue = "marketCap") String sort,
+                                                  @RequestParam(defaultValue = "desc") String order,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(stockService.filterStocks(market, band, minCap, maxCap, sort, order, page, size));
+    }
+
+    /**
+     * 종목 마스터 NDJSON 스트리밍 내보내기.
+     * since(ISO-8601) 를 주면 그 이후 추가/변경분만 내보내며,
+     * 응답 헤더 X-Sync-Cursor 값을 다음 동기화의 since 로 쓰면 된다
+     * (커서가 겹치게 잡히므로 일부 행은 다음 응답에 다시 올 수 있다).
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) Instant since) {
+        Instant cursor = exportService.nextCursor();
+        StreamingResponseBody body = out -> exportService.writeNdjson(since, out);
+        return ResponseEntity.ok()
+                .header("X-Sync-Cursor", cursor.toString())
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /** 종목 마스터 적재 상태 (스냅샷/KRX 반영 전이면 503) */
+    @GetMapping("/master/status")
+    public ResponseEntity<StockMasterStatus.State> masterStatus() {
+        StockMasterStatus.State state = masterStatus.current();
+        return ResponseEntity.status(state.ready() ? 200 : 503).body(state);
     }
 
     @PostMapping("/upload")
-    public ResponseEntity<String> uploadCsv(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadCsv(@RequestParam("file") MultipartFile file) {
         try {
-            String result = stockService.processCsvFile(file);
+            StockCsvImporter.Result result = stockService.processCsvFile(file);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("업로드 실패: " + e.getMessage());
@@ -48,4 +107,18 @@ public class StockInfoController {
         List<StockInfo> stocks = stockService.searchByKeyword(keyword);
         return ResponseEntity.ok(stocks);
     }
+
+    /** 초성("ㅅㅅㅈㅈ")·오타("삼송전자") 허용 검색 */
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<StockFuzzyIndex.Hit>> searchFuzzy(@RequestParam("q") String query,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(stockService.searchFuzzy(query, limit));
+    }
+
+    /** 접두어 자동완성 (메모리 인덱스, DB 조회 없음) */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<StockInfo>> autocomplete(@RequestParam("q") String prefix,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(stockService.autocomplete(prefix, limit));
+    }
 }
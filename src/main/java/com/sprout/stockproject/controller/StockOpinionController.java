@@ -6,6 +6,7 @@ import com.sprout.stockproject.cache.MacroSnapshotCache;
 import com.sprout.stockproject.dto.MacroQuadInput;
 import com.sprout.stockproject.service.StockInfoService;
 import com.sprout.stockproject.service.StockOpinionService;
+import com.sprout.stockproject.service.valuation.ValuationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,11 +20,14 @@ public class StockOpinionController {
     private final MacroSnapshotCache cache;
     private final StockInfoService stockInfoService;
     private final StockOpinionService stockOpinionService;
+    private final ValuationService valuationService;
 
-    public StockOpinionController(MacroSnapshotCache cache, StockInfoService stockInfoService, StockOpinionService stockOpinionService) {
+    public StockOpinionController(MacroSnapshotCache cache, StockInfoService stockInfoService,
+                                  StockOpinionService stockOpinionService, ValuationService valuationService) {
         this.cache = cache;
         this.stockInfoService = stockInfoService;
         this.stockOpinionService = stockOpinionService;
+        this.valuationService = valuationService;
     }
 
     @PostMapping("/opinion")
@@ -34,7 +38,8 @@ public class StockOpinionController {
     ) {
         Optional<MacroQuadInput> opt = cache.latest();
         if (opt.isEmpty()) throw new UnprocessableException("거시 스냅샷이 아직 준비되지 않았습니다(잠시 후 재시도)");
-        var stock = stockInfoService.fetch(code);
+        // 밸류에이션 표 + 메모리 시세표에 있으면 업스트림 호출 없이, 없을 때만 실시간 조회
+        var stock = valuationService.detail(code).orElseGet(() -> stockInfoService.fetch(code));
         var opinion = stockOpinionService.buildOpinion(opt.get(), stock, horizon, risk);
         return ResponseEntity.ok(ApiResponse.ok(opinion));
     }
@@ -0,0 +1,28 @@
+package com.sprout.stockproject.controller;
+
+import com.sprout.stockproject.api.ApiResponse;
+import com.sprout.stockproject.external.SingleFlight;
+import com.sprout.stockproject.external.UpstreamFlights;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/upstream")
+public class UpstreamMetricsController {
+
+    private final UpstreamFlights flights;
+
+    public UpstreamMetricsController(UpstreamFlights flights) {
+        this.flights = flights;
+    }
+
+    /** 업스트림 호출 합치기(single-flight) 지표: 요청 수, 실제 호출 수, 합류 비율 */
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<List<SingleFlight.Stats>>> metrics() {
+        return ResponseEntity.ok(ApiResponse.ok(flights.stats()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.sprout.stockproject.controller;
+
+import com.sprout.stockproject.api.ApiResponse;
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.service.valuation.ValuationCollector;
+import com.sprout.stockproject.service.valuation.ValuationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/valuation")
+public class ValuationController {
+
+    private final ValuationService valuationService;
+    private final ValuationCollector collector;
+
+    public ValuationController(ValuationService valuationService, ValuationCollector collector) {
+        this.valuationService = valuationService;
+        this.collector = collector;
+    }
+
+    /** 현재 메모리 밸류에이션 표 요약 (기준 거래일, 종목·업종 수, 디스크에 보관 중인 거래일) */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> status() {
+        return ResponseEntity.ok(ApiResponse.ok(summary()));
+    }
+
+    /** 종목 PER·PBR·시가총액과 전체·시장·업종 내 백분위 */
+    @GetMapping("/{code:[A-Za-z0-9]{6}}")
+    public ResponseEntity<ApiResponse<ValuationService.Valuation>> valuation(@PathVariable String code) {
+        return valuationService.find(code)
+                .map(v -> ResponseEntity.ok(ApiResponse.ok(v)))
+                .orElseThrow(() -> new UnprocessableException("밸류에이션 표에 없는 종목입니다: " + code));
+    }
+
+    /** 지표 순위. 예: /rank/pbr?limit=20 → PBR 낮은 순 20개. metric: per|pbr|market_cap */
+    @GetMapping("/rank/{metric}")
+    public ResponseEntity<ApiResponse<ValuationService.Ranking>> rank(@PathVariable String metric,
+                                                                     @RequestParam(defaultValue = "asc") String order,
+                                                                     @RequestParam(defaultValue = "ALL") String market,
+                                                                     @RequestParam(required = false) String industry,
+                                                                     @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.ok(valuationService.rank(metric, order, market, industry, limit)));
+    }
+
+    /** 전 종목 수집을 백그라운드로 즉시 시작 (수 분 걸림, 진행 여부는 GET 으로 확인) */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> refresh() {
+        boolean started = collector.start();
+        Map<String, Object> body = summary();
+        body.put("started", started);
+        return ResponseEntity.ok(ApiResponse.ok(body));
+    }
+
+    private Map<String, Object> summary() {
+        ValuationService.Status s = valuationService.status();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("tradeDate", s.tradeDate());
+        m.put("collectedAt", s.collectedAt());
+        m.put("stockCount", s.stockCount());
+        m.put("industryCount", s.industryCount());
+        m.put("storedDates", s.storedDates());
+        m.put("collecting", collector.isRunning());
+        return m;
+    }
+}
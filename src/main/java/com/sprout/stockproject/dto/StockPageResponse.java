@@ -0,0 +1,8 @@
+package com.sprout.stockproject.dto;
+
+import com.sprout.stockproject.entity.StockInfo;
+
+import java.util.List;
+
+/** 키셋 페이지 응답. nextCursor 가 null 이면 마지막 페이지 */
+public record StockPageResponse(List<StockInfo> items, String nextCursor) {}
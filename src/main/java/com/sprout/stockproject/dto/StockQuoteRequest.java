@@ -0,0 +1,6 @@
+package com.sprout.stockproject.dto;
+
+import java.util.List;
+
+/** POST /api/stock/quotes 본문: { "codes": ["005930", "000660", ...] } */
+public record StockQuoteRequest(List<String> codes) {}
@@ -2,8 +2,15 @@ package com.sprout.stockproject.entity;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "stockinfo")
+@Table(name = "stockinfo", indexes = {
+        @Index(name = "idx_stockinfo_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_stockinfo_figures_updated_at", columnList = "figures_updated_at"),
+        @Index(name = "idx_stockinfo_market_market_cap", columnList = "market, market_cap"),
+        @Index(name = "idx_stockinfo_market_cap_only", columnList = "market_cap")
+})
 public class StockInfo {
 
     @Id
@@ -16,6 +23,34 @@ public class StockInfo {
     @Column(name = "stock_code", length = 20, nullable = false, unique = true)
     private String stockCode;
 
+    /** 시장 구분 (KOSPI / KOSDAQ / KONEX) */
+    @Column(name = "market", length = 20)
+    private String market;
+
+    /** 소속부 (KRX SECT_TP_NM, 예: 우량기업부) */
+    @Column(name = "sector", length = 100)
+    private String sector;
+
+    /** 업종 (KRX 업종분류 IDX_IND_NM, 예: 전기전자). KONEX 등 분류가 없는 종목은 null */
+    @Column(name = "industry", length = 100)
+    private String industry;
+
+    /** 상장주식수 */
+    @Column(name = "listed_shares")
+    private Long listedShares;
+
+    /** 시가총액 (원) */
+    @Column(name = "market_cap")
+    private Long marketCap;
+
+    /** 마지막 추가/변경 시각 (증분 동기화 커서) */
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    /** 상장주식수·시가총액을 마지막으로 고친 시각 (종목 정보는 그대로이고 수치만 바뀐 경우도 포함) */
+    @Column(name = "figures_updated_at")
+    private Instant figuresUpdatedAt;
+
     public StockInfo() {
     }
 
@@ -47,4 +82,67 @@ public class StockInfo {
     public void setStockCode(String stockCode) {
         this.stockCode = stockCode;
     }
+
+    public String getMarket() {
+        return market;
+    }
+
+    public void setMarket(String market) {
+        this.market = market;
+    }
+
+    public String getSector() {
+        return sector;
+    }
+
+    public void setSector(String sector) {
+        this.sector = sector;
+    }
+
+    public String getIndustry() {
+        return industry;
+    }
+
+    public void setIndustry(String industry) {
+        this.industry = industry;
+    }
+
+    public Long getListedShares() {
+        return listedShares;
+    }
+
+    public void setListedShares(Long listedShares) {
+        this.listedShares = listedShares;
+    }
+
+    public Long getMarketCap() {
+        return marketCap;
+    }
+
+    public void setMarketCap(Long marketCap) {
+        this.marketCap = marketCap;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getFiguresUpdatedAt() {
+        return figuresUpdatedAt;
+    }
+
+    public void setFiguresUpdatedAt(Instant figuresUpdatedAt) {
+        this.figuresUpdatedAt = figuresUpdatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = Instant.now();
+        this.figuresUpdatedAt = this.updatedAt;
+    }
 }
@@ -0,0 +1,11 @@
+package com.sprout.stockproject.event;
+
+import com.sprout.stockproject.service.market.MarketSnapshot;
+
+/**
+ * 전 종목 시세표가 새 것으로 교체되었음을 알리는 이벤트.
+ * 순위표 등 파생 뷰는 snapshot 으로 다시 계산해 통째로 교체한다.
+ *
+ * @param snapshot 교체된 시세표 (불변)
+ */
+public record MarketSnapshotChangedEvent(MarketSnapshot snapshot) {}
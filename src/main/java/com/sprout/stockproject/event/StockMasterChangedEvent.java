@@ -0,0 +1,14 @@
+package com.sprout.stockproject.event;
+
+import com.sprout.stockproject.entity.StockInfo;
+
+import java.util.List;
+
+/**
+ * 종목 마스터(stockinfo)가 바뀌었음을 알리는 이벤트.
+ * 검색 인덱스 등 메모리 뷰는 stocks 로 새로 만들어 통째로 교체한다.
+ *
+ * @param stocks 변경 후 전체 종목 (읽기 전용)
+ * @param source "snapshot" | "krx" | "csv" 등 변경 출처
+ */
+public record StockMasterChangedEvent(List<StockInfo> stocks, String source) {}
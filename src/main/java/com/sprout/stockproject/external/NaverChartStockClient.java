@@ -2,17 +2,26 @@ package com.sprout.stockproject.external;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sprout.stockproject.external.chart.BarResampler;
+import com.sprout.stockproject.external.chart.Bars;
+import com.sprout.stockproject.external.chart.ChartDownsampler;
+import com.sprout.stockproject.external.chart.ChartHistoryService;
+import com.sprout.stockproject.external.chart.ChartHistoryStore;
+import com.sprout.stockproject.external.chart.ChartSeries;
+import com.sprout.stockproject.external.chart.ChartSeriesCache;
+import com.sprout.stockproject.external.chart.FchartXmlParser;
+import com.sprout.stockproject.external.chart.ResampledChartCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
+import reactor.core.publisher.Mono;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Locale;
 
 @Component
 public class NaverChartStockClient {
@@ -20,147 +29,251 @@ public class NaverChartStockClient {
     private final WebClient wc;
     private final WebClient wcJson;
     private final ObjectMapper om;
+    private final ChartSeriesCache cache;
+    private final ChartHistoryService history;
+    private final ResampledChartCache resampled;
+    private final SingleFlight<String, ChartSeries> flight;
+    private final int minBars;
 
-    public NaverChartStockClient(WebClient.Builder builder, ObjectMapper om) {
+    public NaverChartStockClient(WebClient.Builder builder, ObjectMapper om, ChartSeriesCache cache,
+                                 ChartHistoryService history, ResampledChartCache resampled,
+                                 UpstreamFlights flights,
+                                 @Value("${chart.cache.min-bars:300}") int minBars) {
         this.wc = builder.baseUrl("https://fchart.stock.naver.com").build();
         this.wcJson = builder.clone().baseUrl("https://api.finance.naver.com").build();
         this.om = om;
+        this.cache = cache;
+        this.history = history;
+        this.resampled = resampled;
+        this.flight = flights.get("naver-chart");
+        this.minBars = Math.max(1, minBars);
     }
 
     /** 일봉 차트 데이터 조회 */
     public JsonNode fetchDailyChart(String stockCode, int count) {
-        return fetchChartData(stockCode, "day", count);
+        return fetchSeries(stockCode, "day", count).toJson(om);
     }
 
-    /** 주봉 차트 데이터 조회 */
+    /** 주봉 차트 데이터 조회 (일봉에서 묶음) */
     public JsonNode fetchWeeklyChart(String stockCode, int count) {
-        return fetchChartData(stockCode, "week", count);
+        return fetchSeries(stockCode, "week", count).toJson(om);
     }
 
-    /** 월봉 차트 데이터 조회 */
+    /** 월봉 차트 데이터 조회 (일봉에서 묶음) */
     public JsonNode fetchMonthlyChart(String stockCode, int count) {
-        return fetchChartData(stockCode, "month", count);
+        return fetchSeries(stockCode, "month", count).toJson(om);
+    }
+
+    /**
+     * 차트 JSON. maxPoints 가 있고 봉이 그보다 많으면 sampling(ohlc|lttb) 으로 줄여서 직렬화하고
+     * sampling·sourceCount 필드를 덧붙인다. maxPoints 가 3 미만이거나 sampling 이 틀리면 IllegalArgumentException
+     */
+    public JsonNode fetchChart(String stockCode, String timeframe, int count, Integer maxPoints, String sampling) {
+        return toChartJson(fetchSeries(stockCode, timeframe, count), maxPoints, sampling);
+    }
+
+    /** fetchChart 의 논블로킹 버전 */
+    public Mono<JsonNode> fetchChartAsync(String stockCode, String timeframe, int count, Integer maxPoints,
+                                          String sampling) {
+        return fetchSeriesAsync(stockCode, timeframe, count).map(series -> toChartJson(series, maxPoints, sampling));
+    }
+
+    private JsonNode toChartJson(ChartSeries series, Integer maxPoints, String sampling) {
+        if (maxPoints == null) return series.toJson(om);
+        Bars sampled = ChartDownsampler.downsample(series, maxPoints, sampling);
+        ObjectNode result = sampled.toJson(om);
+        if (sampled != series) {
+            result.put("sampling", sampling.toLowerCase(Locale.ROOT));
+            result.put("sourceCount", series.size());
+        }
+        return result;
+    }
+
+    /**
+     * 최근 count 개 봉 (열 지향). 캐시에 충분한 봉이 있으면 업스트림 호출 없이 잘라서 반환하고,
+     * 없으면 최소 minBars 개를 받아 캐시에 넣는다 (현재가·종목명용 count=1 요청도 차트 캐시를 채움).
+     * 같은 (종목, 주기)로 동시에 들어온 요청은 업스트림 호출 1회를 같이 기다리고,
+     * 진행 중인 호출보다 작은 count 는 그 결과를 잘라 쓴다.
+     * 캐시 미스 시에는 로컬 이력에 마지막 저장일 이후 봉만 증분으로 받아 합친다.
+     * week/month 는 업스트림에 따로 요청하지 않고 같은 일봉 시계열을 묶어서 만든다.
+     */
+    public ChartSeries fetchSeries(String stockCode, String timeframe, int count) {
+        BarResampler.Period period = resamplePeriod(timeframe);
+        if (period != null) {
+            ChartSeries daily = fetchSeries(stockCode, "day", period.dailyBarsFor(count));
+            return resampled.resample(daily, history.revision(stockCode, "day"), period, count);
+        }
+
+        Instant now = Instant.now();
+        ChartSeries cached = cache.get(stockCode, timeframe, count, now);
+        if (cached != null) return cached;
+
+        int requested = Math.max(count, minBars);
+        ChartSeries series = flight.execute(flightKey(stockCode, timeframe), requested, size ->
+                cacheWindow(history.load(stockCode, timeframe, size, this::fetchChartData),
+                        stockCode, timeframe, size, now));
+        return series.tail(count);
+    }
+
+    /**
+     * fetchSeries 의 논블로킹 버전 (캐시·single-flight·로컬 이력 규칙은 같음).
+     * 캐시에 있으면 바로 완료되고, 없으면 업스트림 응답이 오면 완료된다 (호출 스레드를 막지 않음).
+     */
+    public Mono<ChartSeries> fetchSeriesAsync(String stockCode, String timeframe, int count) {
+        BarResampler.Period period = resamplePeriod(timeframe);
+        if (period != null) {
+            return fetchSeriesAsync(stockCode, "day", period.dailyBarsFor(count))
+                    .map(daily -> resampled.resample(daily, history.revision(stockCode, "day"), period, count));
+        }
+
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            ChartSeries cached = cache.get(stockCode, timeframe, count, now);
+            if (cached != null) return Mono.just(cached);
+
+            int requested = Math.max(count, minBars);
+            return Mono.fromFuture(() -> flight.executeAsync(flightKey(stockCode, timeframe), requested, size ->
+                            history.loadAsync(stockCode, timeframe, size, this::requestChartData)
+                                    .map(h -> cacheWindow(h, stockCode, timeframe, size, now))
+                                    .toFuture()))
+                    .map(series -> series.tail(count));
+        });
+    }
+
+    /**
+     * fetchSeries 가 돌려주는 시계열의 바탕 이력이 통째로 다시 쓰인 횟수 (수정주가 반영 등).
+     * 이전 응답 위에 이어 붙여 계산하는 쪽은 값이 바뀌면 처음부터 다시 계산해야 한다.
+     */
+    public int historyRevision(String stockCode, String timeframe) {
+        return history.revision(stockCode, resamplePeriod(timeframe) != null ? "day" : timeframe);
+    }
+
+    /**
+     * 로컬에 저장된 이력의 fromDate~toDate(yyyyMMdd) 구간. 업스트림을 호출하지 않으며,
+     * 기본 저장소(메모리 맵)에서는 힙 복사 없이 파일 위 뷰를 그대로 돌려준다.
+     * 아직 한 번도 동기화하지 않은 종목이면 null.
+     */
+    public Bars fetchLocalHistory(String stockCode, String timeframe, int fromDate, int toDate) {
+        return history.read(stockCode, timeframe, fromDate, toDate);
+    }
+
+    /**
+     * 로컬 일봉 이력만 최근 count 개 이상·최신으로 맞춘다 (전 종목 일괄 동기화용).
+     * 화면용 캐시에는 넣지 않으며, 저장된 이력이 아직 유효하면 업스트림을 부르지 않는다.
+     * 결과는 동기화 후 마지막 봉 날짜 (yyyyMMdd, 봉이 없으면 0)
+     */
+    public Mono<Integer> syncDailyHistoryAsync(String stockCode, int count) {
+        return history.loadAsync(stockCode, "day", count, this::requestChartData)
+                .map(h -> h.series().isEmpty() ? 0 : h.series().date(h.series().size() - 1));
+    }
+
+    /**
+     * 캐시·로컬 이력·합치기를 모두 거치지 않고 최근 count 개 일봉을 바로 요청 (실시간 폴러 전용).
+     * 종목당 폴러가 하나라서 여기서는 호출을 합치지 않는다.
+     */
+    public Mono<ChartSeries> fetchLatestAsync(String stockCode, int count) {
+        return requestChartData(stockCode, "day", count);
+    }
+
+    /** 캐시에는 요청 구간만 복사해 둔다 (전체 이력 배열을 힙에 붙잡지 않도록) */
+    private ChartSeries cacheWindow(ChartHistoryStore.StoredHistory h, String stockCode, String timeframe,
+                                    int size, Instant now) {
+        ChartSeries window = h.series().tail(size).compact();
+        boolean all = h.complete() && h.series().size() <= size;
+        cache.put(window, stockCode, timeframe, all ? Integer.MAX_VALUE : size, now);
+        return window;
+    }
+
+    private static String flightKey(String stockCode, String timeframe) {
+        return stockCode + ":" + timeframe;
+    }
+
+    private static BarResampler.Period resamplePeriod(String timeframe) {
+        return switch (timeframe) {
+            case "week" -> BarResampler.Period.WEEK;
+            case "month" -> BarResampler.Period.MONTH;
+            default -> null;
+        };
     }
 
     /** 차트 데이터 조회 공통 메서드 */
-    private JsonNode fetchChartData(String stockCode, String timeframe, int count) {
+    private ChartSeries fetchChartData(String stockCode, String timeframe, int count) {
         try {
-            String xml = wc.get()
-                    .uri(uri -> uri.path("/sise.nhn")
-                            .queryParam("symbol", stockCode)
-                            .queryParam("timeframe", timeframe)
-                            .queryParam("count", count)
-                            .queryParam("requestType", "0")
-                            .build())
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0 Safari/537.36")
-                    .header("Accept-Language", "ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7")
-                    .header("Referer", "https://m.stock.naver.com")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-            try {
-                return parseXmlToJson(xml);
-            } catch (Exception ignore) {
-                // Fallback to JSON endpoint
-                String json = wcJson.get()
-                        .uri(u -> u.path("/siseJson.naver")
+            return requestChartData(stockCode, timeframe, count).block();
+        } catch (Exception e) {
+            throw new RuntimeException("NaverChartStockClient.fetchChartData failed: " + e.getMessage(), e);
+        }
+    }
+
+    /** XML 을 바이트 그대로 파싱하고, chartdata 가 없으면 JSON 엔드포인트로 폴백 */
+    private Mono<ChartSeries> requestChartData(String stockCode, String timeframe, int count) {
+        // 응답 DataBuffer 들을 하나로 합쳐 바이트 그대로 파싱 (String 디코딩/DOM 없음)
+        Mono<ChartSeries> xml = DataBufferUtils.join(wc.get()
+                        .uri(uri -> uri.path("/sise.nhn")
                                 .queryParam("symbol", stockCode)
-                                .queryParam("requestType", "1")
-                                .queryParam("count", count)
                                 .queryParam("timeframe", timeframe)
+                                .queryParam("count", count)
+                                .queryParam("requestType", "0")
                                 .build())
                         .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0 Safari/537.36")
                         .header("Accept-Language", "ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7")
+                        .header("Referer", "https://m.stock.naver.com")
                         .retrieve()
-                        .bodyToMono(String.class)
-                        .block();
-                return parseFallbackJson(json, stockCode, timeframe);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("NaverChartStockClient.fetchChartData failed: " + e.getMessage(), e);
-        }
-    }
+                        .bodyToFlux(DataBuffer.class))
+                .map(this::parseXml)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.empty());
 
-    /** XML을 JSON으로 변환 */
-    private JsonNode parseXmlToJson(String xml) {
-        try {
-            String cleaned = sanitizeXml(xml);
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new ByteArrayInputStream(cleaned.getBytes("EUC-KR")));
-
-            Element chartData = (Element) doc.getElementsByTagName("chartdata").item(0);
-            String symbol = chartData.getAttribute("symbol");
-            String name = chartData.getAttribute("name");
-            String timeframe = chartData.getAttribute("timeframe");
-
-            ObjectNode result = om.createObjectNode();
-            result.put("symbol", symbol);
-            result.put("name", name);
-            result.put("timeframe", timeframe);
-
-            ArrayNode dataArray = om.createArrayNode();
-            NodeList items = chartData.getElementsByTagName("item");
-
-            for (int i = 0; i < items.getLength(); i++) {
-                Element item = (Element) items.item(i);
-                String data = item.getAttribute("data");
-                String[] parts = data.split("\\|");
-
-                if (parts.length >= 6) {
-                    ObjectNode dataNode = om.createObjectNode();
-                    dataNode.put("date", parts[0]);
-                    dataNode.put("open", parts[1]);
-                    dataNode.put("high", parts[2]);
-                    dataNode.put("low", parts[3]);
-                    dataNode.put("close", parts[4]);
-                    dataNode.put("volume", parts[5]);
-                    dataArray.add(dataNode);
-                }
-            }
+        // Fallback to JSON endpoint
+        Mono<ChartSeries> json = wcJson.get()
+                .uri(u -> u.path("/siseJson.naver")
+                        .queryParam("symbol", stockCode)
+                        .queryParam("requestType", "1")
+                        .queryParam("count", count)
+                        .queryParam("timeframe", timeframe)
+                        .build())
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0 Safari/537.36")
+                .header("Accept-Language", "ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7")
+                .retrieve()
+                .bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .flatMap(body -> Mono.fromCallable(() -> parseFallbackJson(body, stockCode, timeframe)));
 
-            result.set("data", dataArray);
-            return result;
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse XML: " + e.getMessage(), e);
-        }
+        return xml.switchIfEmpty(json);
     }
 
-    private String sanitizeXml(String raw) {
-        if (raw == null) return "";
-        String s = raw.replace("\uFEFF", ""); // BOM 제거
-        int idx = s.indexOf('<');
-        if (idx > 0) {
-            s = s.substring(idx);
+    /** XML 바이트 → 열 지향 시계열. chartdata 가 없으면 IllegalArgumentException (JSON 폴백) */
+    private ChartSeries parseXml(DataBuffer buffer) {
+        // 응답 버퍼를 ByteBuffer 로 바로 파서에 넘긴다. 조각난 복합 버퍼는 한 힙 버퍼로 한 번에 이어 붙인다
+        try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+            ByteBuffer first = it.hasNext() ? it.next() : ByteBuffer.allocate(0);
+            if (!it.hasNext()) return FchartXmlParser.parse(first);
+            ByteBuffer joined = ByteBuffer.allocate(buffer.readableByteCount()).put(first);
+            while (it.hasNext()) joined.put(it.next());
+            return FchartXmlParser.parse(joined.flip());
+        } finally {
+            DataBufferUtils.release(buffer);
         }
-        return s.trim();
     }
 
-    private JsonNode parseFallbackJson(String json, String stockCode, String timeframe) throws Exception {
+    private ChartSeries parseFallbackJson(String json, String stockCode, String timeframe) throws Exception {
         if (json == null || json.isBlank()) throw new IllegalArgumentException("Empty JSON");
         JsonNode root = om.readTree(json);
         if (!root.isArray() || root.size() < 2) throw new IllegalArgumentException("Unexpected JSON chart format");
         // root[0] is header row ["날짜","시가","고가","저가","종가","거래량"]
-        ArrayNode dataArray = om.createArrayNode();
+        ChartSeries.Builder series = new ChartSeries.Builder(root.size() - 1)
+                .symbol(stockCode).name(stockCode).timeframe(timeframe);
         for (int i = 1; i < root.size(); i++) {
             JsonNode row = root.get(i);
             if (row.isArray() && row.size() >= 6) {
-                ObjectNode n = om.createObjectNode();
-                n.put("date", row.get(0).asText());
-                n.put("open", row.get(1).asText());
-                n.put("high", row.get(2).asText());
-                n.put("low", row.get(3).asText());
-                n.put("close", row.get(4).asText());
-                n.put("volume", row.get(5).asText());
-                dataArray.add(n);
+                series.add((int) toLong(row.get(0)), toLong(row.get(1)), toLong(row.get(2)),
+                        toLong(row.get(3)), toLong(row.get(4)), toLong(row.get(5)));
             }
         }
-        ObjectNode result = om.createObjectNode();
-        result.put("symbol", stockCode);
-        result.put("name", stockCode);
-        result.put("timeframe", timeframe);
-        result.set("data", dataArray);
-        return result;
+        return series.build();
+    }
+
+    private static long toLong(JsonNode n) {
+        if (n.isNumber()) return n.asLong();
+        return Long.parseLong(n.asText().trim());
     }
 }
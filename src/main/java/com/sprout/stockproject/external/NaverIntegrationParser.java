@@ -0,0 +1,107 @@
+package com.sprout.stockproject.external;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * 네이버 통합 정보 응답 → StockSnapshot. 응답 바이트를 Jackson 스트리밍 파서로 한 번만 훑는다.
+ * <pre>
+ * { "stockName": "삼성전자", ...,
+ *   "totalInfos": [ {"code": "marketValue", "value": "472조 3,455억", ...}, {"code": "per", ...}, ... ],
+ *   "dealTrendInfos": [ {"bizdate": "20240105", "closePrice": "71,000", ...}, ... ], ... }
+ * </pre>
+ * 필요한 필드 밖의 값(종목 설명·컨센서스·업종 비교 등 대부분)은 skipChildren 으로 건너뛰고
+ * JsonNode 트리를 만들지 않는다. 같은 값이 여러 번 나오면 (기존 트리 탐색과 같이) 처음 것만 쓴다.
+ */
+public final class NaverIntegrationParser {
+
+    private NaverIntegrationParser() {}
+
+    /** 최상위가 객체가 아니면 IOException */
+    public static StockSnapshot parse(JsonFactory factory, byte[] body) throws IOException {
+        String stockName = null, closePrice = null, marketValue = null, per = null, pbr = null;
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new IOException("integration: JSON object expected");
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "stockName" -> {
+                        String s = scalar(p, value);
+                        if (stockName == null) stockName = s;
+                    }
+                    case "dealTrendInfos" -> {
+                        String s = firstClosePrice(p, value);
+                        if (closePrice == null) closePrice = s;
+                    }
+                    case "totalInfos" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            p.skipChildren();
+                            continue;
+                        }
+                        // [{code, value, ...}, ...] - 한 항목 안에서 code·value 순서는 보장되지 않음
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            if (p.currentToken() != JsonToken.START_OBJECT) {
+                                p.skipChildren();
+                                continue;
+                            }
+                            String code = null, text = null;
+                            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                                String name = p.currentName();
+                                JsonToken t = p.nextToken();
+                                if ("code".equals(name)) code = scalar(p, t);
+                                else if ("value".equals(name)) text = scalar(p, t);
+                                else p.skipChildren();
+                            }
+                            if (code == null) continue;
+                            switch (code) {
+                                case "marketValue" -> { if (marketValue == null) marketValue = text; }
+                                case "per" -> { if (per == null) per = text; }
+                                case "pbr" -> { if (pbr == null) pbr = text; }
+                                default -> { }
+                            }
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new StockSnapshot(stockName, closePrice, marketValue, per, pbr);
+    }
+
+    /** 첫 항목의 closePrice, 나머지 항목은 건너뜀 */
+    private static String firstClosePrice(JsonParser p, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        String close = null;
+        boolean first = true;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (first && p.currentToken() == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = p.currentName();
+                    JsonToken t = p.nextToken();
+                    if ("closePrice".equals(name) && close == null) close = scalar(p, t);
+                    else p.skipChildren();
+                }
+            } else {
+                p.skipChildren();
+            }
+            first = false;
+        }
+        return close;
+    }
+
+    /** 문자열·숫자 등 단일 값은 텍스트로, null·객체·배열은 null (객체·배열은 건너뜀) */
+    private static String scalar(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        return t == JsonToken.VALUE_NULL ? null : p.getText();
+    }
+}
@@ -1,125 +1,130 @@
 // src/main/java/com/sprout/stockproject/external/naver/NaverMobileStockClient.java
 package com.sprout.stockproject.external;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
 
 @Component
 public class NaverMobileStockClient {
 
     private final WebClient wc;
-    private final ObjectMapper om;
+    private final JsonFactory jsonFactory;
     private final java.util.concurrent.ConcurrentHashMap<String, CacheEntry> cache = new java.util.concurrent.ConcurrentHashMap<>();
     private static final long TTL_MILLIS = 5 * 60 * 1000; // 5분 캐시
+    private static final int MAX_ATTEMPTS = 3;
+    private final SingleFlight<String, StockSnapshot> flight;
 
-    public NaverMobileStockClient(WebClient.Builder builder, ObjectMapper om) {
+    public NaverMobileStockClient(WebClient.Builder builder, ObjectMapper om, UpstreamFlights flights) {
         this.wc = builder.baseUrl("https://m.stock.naver.com").build();
-        this.om = om;
+        this.jsonFactory = om.getFactory();
+        this.flight = flights.get("naver-integration");
     }
 
-    /** 종목 통합 정보 (원래 쓰던 /api/stock/{code}/integration) */
-    public JsonNode fetchIntegration(String stockCode) {
-        String lastError = null;
-        for (int attempt = 1; attempt <= 3; attempt++) {
-            try {
-                String path = "/api/stock/" + stockCode + "/integration";
-                String raw = wc.get()
-                        .uri(path)
-                        .accept(MediaType.APPLICATION_JSON)
-                        .header("User-Agent", "Mozilla/5.0 (iPhone; CPU iPhone OS 14_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/14.0 Mobile/15E148 Safari/604.1")
-                        .header("Accept-Language", "ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7")
-                        .header("Referer", "https://m.stock.naver.com/")
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .block();
-                if (raw == null || raw.isBlank()) throw new RuntimeException("Empty response body");
-                JsonNode parsed = om.readTree(raw);
-                cache.put(stockCode, new CacheEntry(parsed, System.currentTimeMillis()));
-                return parsed;
-            } catch (WebClientResponseException wce) {
-                lastError = wce.getStatusCode() + " " + wce.getResponseBodyAsString();
-                // 409/429/5xx 재시도
-                int code = wce.getStatusCode().value();
-                if (code == 409 || code == 429 || code >= 500) {
-                    sleepBackoff(attempt);
-                    // 캐시가 있으면 즉시 반환 (소극적 폴백)
-                    CacheEntry ce = cache.get(stockCode);
-                    if (ce != null && !ce.isExpired()) return ce.data();
-                    continue;
-                }
-                throw new RuntimeException("NaverMobileStockClient.fetchIntegration failed: " + wce.getMessage(), wce);
-            } catch (Exception e) {
-                lastError = e.getMessage();
-                sleepBackoff(attempt);
-                CacheEntry ce = cache.get(stockCode);
-                if (ce != null && !ce.isExpired()) return ce.data();
-            }
-        }
+    /**
+     * 종목 통합 정보 (원래 쓰던 /api/stock/{code}/integration) 중 쓰는 필드만.
+     * 5분 안에 받은 값이 있으면 캐시 조회 1회로 끝내고, 없으면 업스트림 1회 (같은 종목 동시 요청은 합침)
+     */
+    public StockSnapshot fetchIntegration(String stockCode) {
         CacheEntry ce = cache.get(stockCode);
         if (ce != null && !ce.isExpired()) return ce.data();
-        throw new RuntimeException("NaverMobileStockClient.fetchIntegration failed after retries: " + lastError);
+        return flight.execute(stockCode, () -> requestIntegration(stockCode, 1).block());
     }
 
-    private void sleepBackoff(int attempt) {
-        try {
-            long[] waits = {0L, 300L, 800L, 1500L};
-            long ms = attempt < waits.length ? waits[attempt] : 1500L;
-            if (ms > 0) Thread.sleep(ms);
-        } catch (InterruptedException ignored) { Thread.currentThread().interrupt(); }
+    /** fetchIntegration 의 논블로킹 버전 (재시도 대기도 스레드를 막지 않음) */
+    public Mono<StockSnapshot> fetchIntegrationAsync(String stockCode) {
+        return Mono.defer(() -> {
+            CacheEntry ce = cache.get(stockCode);
+            if (ce != null && !ce.isExpired()) return Mono.just(ce.data());
+            return Mono.fromFuture(() -> flight.executeAsync(stockCode, 0,
+                    size -> requestIntegration(stockCode, 1).toFuture()));
+        });
+    }
+
+    /**
+     * 응답 바이트를 스트리밍으로 한 번 읽어 StockSnapshot 으로 줄인 뒤 캐시 (JsonNode 트리는 만들지 않음).
+     * 최대 3회 시도. 409/429/5xx·네트워크 오류는 백오프 후 재시도하되, 유효한 캐시가 있으면 대기 후 캐시를 반환.
+     * 그 외 4xx 는 바로 실패.
+     */
+    private Mono<StockSnapshot> requestIntegration(String stockCode, int attempt) {
+        return wc.get()
+                .uri("/api/stock/" + stockCode + "/integration")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("User-Agent", "Mozilla/5.0 (iPhone; CPU iPhone OS 14_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/14.0 Mobile/15E148 Safari/604.1")
+                .header("Accept-Language", "ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7")
+                .header("Referer", "https://m.stock.naver.com/")
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .filter(body -> body.length > 0)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty response body")))
+                .map(body -> {
+                    try {
+                        return NaverIntegrationParser.parse(jsonFactory, body);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Invalid JSON: " + e.getMessage(), e);
+                    }
+                })
+                .doOnNext(parsed -> cache.put(stockCode, new CacheEntry(parsed, System.currentTimeMillis())))
+                .onErrorResume(e -> {
+                    if (e instanceof WebClientResponseException wce) {
+                        // 409/429/5xx 재시도
+                        int code = wce.getStatusCode().value();
+                        if (!(code == 409 || code == 429 || code >= 500)) {
+                            return Mono.error(new RuntimeException(
+                                    "NaverMobileStockClient.fetchIntegration failed: " + wce.getMessage(), wce));
+                        }
+                    }
+                    String lastError = e instanceof WebClientResponseException wce
+                            ? wce.getStatusCode() + " " + wce.getResponseBodyAsString() : e.getMessage();
+                    CacheEntry ce = cache.get(stockCode);
+                    // 캐시가 있으면 대기 후 반환 (소극적 폴백)
+                    if (ce != null && !ce.isExpired()) return Mono.delay(backoff(attempt)).thenReturn(ce.data());
+                    if (attempt >= MAX_ATTEMPTS) {
+                        return Mono.error(new RuntimeException(
+                                "NaverMobileStockClient.fetchIntegration failed after retries: " + lastError));
+                    }
+                    return Mono.delay(backoff(attempt))
+                            .then(Mono.defer(() -> requestIntegration(stockCode, attempt + 1)));
+                });
     }
 
-    private record CacheEntry(JsonNode data, long storedAt) {
+    private static Duration backoff(int attempt) {
+        long[] waits = {0L, 300L, 800L, 1500L};
+        return Duration.ofMillis(attempt < waits.length ? waits[attempt] : 1500L);
+    }
+
+    private record CacheEntry(StockSnapshot data, long storedAt) {
         boolean isExpired() { return System.currentTimeMillis() - storedAt > TTL_MILLIS; }
     }
 
     /** 종목명 추출 */
     public String getStockName(String stockCode) {
-        JsonNode data = fetchIntegration(stockCode);
-        return data.get("stockName").asText();
+        return fetchIntegration(stockCode).stockName();
     }
 
     /** 현재가 추출 */
     public String getCurrentPrice(String stockCode) {
-        JsonNode data = fetchIntegration(stockCode);
-        JsonNode dealTrendInfos = data.get("dealTrendInfos");
-        if (dealTrendInfos != null && dealTrendInfos.isArray() && dealTrendInfos.size() > 0) {
-            return dealTrendInfos.get(0).get("closePrice").asText();
-        }
-        return null;
+        return fetchIntegration(stockCode).closePrice();
     }
 
     /** 시총 추출 */
     public String getMarketValue(String stockCode) {
-        JsonNode data = fetchIntegration(stockCode);
-        return findValueByCode(data, "marketValue");
+        return fetchIntegration(stockCode).marketValue();
     }
 
     /** PER 추출 */
     public String getPER(String stockCode) {
-        JsonNode data = fetchIntegration(stockCode);
-        return findValueByCode(data, "per");
+        return fetchIntegration(stockCode).per();
     }
 
     /** PBR 추출 */
     public String getPBR(String stockCode) {
-        JsonNode data = fetchIntegration(stockCode);
-        return findValueByCode(data, "pbr");
-    }
-
-    /** totalInfos 배열에서 특정 code의 value 찾기 */
-    private String findValueByCode(JsonNode data, String targetCode) {
-        JsonNode totalInfos = data.get("totalInfos");
-        if (totalInfos != null && totalInfos.isArray()) {
-            for (JsonNode info : totalInfos) {
-                if (targetCode.equals(info.get("code").asText())) {
-                    return info.get("value").asText();
-                }
-            }
-        }
-        return null;
+        return fetchIntegration(stockCode).pbr();
     }
 }
\ No newline at end of file
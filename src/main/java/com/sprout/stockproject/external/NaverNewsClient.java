@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -23,6 +24,11 @@ public class NaverNewsClient {
 
     private final WebClient wc;
     private final ObjectMapper om;
+    /** 폴백용 JDK 클라이언트. 커넥션 풀·셀렉터 스레드를 재사용하도록 한 번만 만든다 */
+    private final HttpClient fallbackClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
 
     @Value("${api.naver.search.id:}")
     private String clientId;
@@ -35,7 +41,7 @@ public class NaverNewsClient {
         this.wc = base.clone()
                 .baseUrl("https://openapi.naver.com")
                 .filter(ExchangeFilterFunction.ofRequestProcessor(req ->
-                        reactor.core.publisher.Mono.fromRunnable(() ->
+                        Mono.fromRunnable(() ->
                                 System.out.println("[WebClient][NAVER] " + req.method() + " " + req.url()))))
                 .build();
         this.om = om;
@@ -48,6 +54,11 @@ public class NaverNewsClient {
      * @param start   1 이상
      */
     public List<Map<String, Object>> searchNews(String query, int display, int start) {
+        return searchNewsAsync(query, display, start).block();
+    }
+
+    /** searchNews 의 논블로킹 버전. 폴백(JDK HttpClient)도 sendAsync 로 호출해 스레드를 막지 않음 */
+    public Mono<List<Map<String, Object>>> searchNewsAsync(String query, int display, int start) {
         // 파라미터 보정 후 final 로컬 변수로 사용 (람다 캡처 안전)
         final int disp = Math.min(Math.max(display, 1), 100);
         final int st   = Math.max(start, 1);
@@ -56,55 +67,56 @@ public class NaverNewsClient {
         String effectiveId = isBlank(clientId) ? System.getenv("API_NAVER_SEARCH_ID") : clientId;
         String effectiveSecret = isBlank(clientSecret) ? System.getenv("API_NAVER_SEARCH_SECRET") : clientSecret;
         if (isBlank(effectiveId) || isBlank(effectiveSecret)) {
-            throw new IllegalStateException("Naver API key missing: set 'api.naver.search.id' and 'api.naver.search.secret'");
+            return Mono.error(new IllegalStateException("Naver API key missing: set 'api.naver.search.id' and 'api.naver.search.secret'"));
         }
 
-        try {
-            String raw = null;
-            try {
-                raw = wc.get()
-                        .uri(u -> u.path("/v1/search/news.json")
-                                .queryParam("query", query)
-                                .queryParam("display", String.valueOf(disp))
-                                .queryParam("start",   String.valueOf(st))
-                                .queryParam("sort", "date")
-                                .build())
-                        .accept(MediaType.APPLICATION_JSON)
-                        .header("User-Agent", "Mozilla/5.0 (compatible; stockproject/1.0)")
-                        .header("X-Naver-Client-Id", effectiveId)
-                        .header("X-Naver-Client-Secret", effectiveSecret)
-                        .retrieve()
-                        .onStatus(HttpStatusCode::isError, res ->
-                                res.bodyToMono(String.class).flatMap(msg ->
-                                        reactor.core.publisher.Mono.error(new RuntimeException("Naver API error: " + msg))))
-                        .bodyToMono(String.class)
-                        .block();
-            } catch (Exception primary) {
+        return wc.get()
+                .uri(u -> u.path("/v1/search/news.json")
+                        .queryParam("query", query)
+                        .queryParam("display", String.valueOf(disp))
+                        .queryParam("start",   String.valueOf(st))
+                        .queryParam("sort", "date")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .header("User-Agent", "Mozilla/5.0 (compatible; stockproject/1.0)")
+                .header("X-Naver-Client-Id", effectiveId)
+                .header("X-Naver-Client-Secret", effectiveSecret)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, res ->
+                        res.bodyToMono(String.class).flatMap(msg ->
+                                Mono.error(new RuntimeException("Naver API error: " + msg))))
+                .bodyToMono(String.class)
                 // Fallback: JDK HttpClient (HTTP/1.1), 명시적 URL 인코딩
-                String encoded = URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-                URI uri = URI.create("https://openapi.naver.com/v1/search/news.json?query=" + encoded +
-                        "&display=" + disp + "&start=" + st + "&sort=date");
-                HttpClient client = HttpClient.newBuilder()
-                        .version(HttpClient.Version.HTTP_1_1)
-                        .connectTimeout(Duration.ofSeconds(10))
-                        .build();
-                HttpRequest request = HttpRequest.newBuilder(uri)
-                        .timeout(Duration.ofSeconds(30))
-                        .header("Accept", "application/json")
-                        .header("User-Agent", "Mozilla/5.0 (compatible; stockproject/1.0)")
-                        .header("X-Naver-Client-Id", effectiveId)
-                        .header("X-Naver-Client-Secret", effectiveSecret)
-                        .GET()
-                        .build();
-                HttpResponse<String> resp = client.send(request, HttpResponse.BodyHandlers.ofString());
-                if (resp.statusCode() >= 400) {
-                    throw new RuntimeException("Naver API error (fallback): status=" + resp.statusCode() + ", body=" + resp.body());
-                }
-                raw = resp.body();
-            }
+                .onErrorResume(primary -> fallback(query, disp, st, effectiveId, effectiveSecret))
+                .map(this::parseItems)
+                .defaultIfEmpty(Collections.emptyList())
+                .onErrorMap(e -> new RuntimeException("NaverNewsClient.searchNews failed: " + e.getMessage(), e));
+    }
 
-            if (raw == null || raw.isBlank()) return Collections.emptyList();
+    private Mono<String> fallback(String query, int disp, int st, String id, String secret) {
+        String encoded = URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
+        URI uri = URI.create("https://openapi.naver.com/v1/search/news.json?query=" + encoded +
+                "&display=" + disp + "&start=" + st + "&sort=date");
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .header("User-Agent", "Mozilla/5.0 (compatible; stockproject/1.0)")
+                .header("X-Naver-Client-Id", id)
+                .header("X-Naver-Client-Secret", secret)
+                .GET()
+                .build();
+        return Mono.fromFuture(() -> fallbackClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .map(resp -> {
+                    if (resp.statusCode() >= 400) {
+                        throw new RuntimeException("Naver API error (fallback): status=" + resp.statusCode() + ", body=" + resp.body());
+                    }
+                    return resp.body();
+                });
+    }
 
+    private List<Map<String, Object>> parseItems(String raw) {
+        if (raw == null || raw.isBlank()) return Collections.emptyList();
+        try {
             JsonNode root = om.readTree(raw);
             JsonNode items = root.path("items");
             List<Map<String, Object>> out = new ArrayList<>();
@@ -121,7 +133,7 @@ public class NaverNewsClient {
             }
             return out;
         } catch (Exception e) {
-            throw new RuntimeException("NaverNewsClient.searchNews failed: " + e.getMessage(), e);
+            throw new RuntimeException(e.getMessage(), e);
         }
     }
 
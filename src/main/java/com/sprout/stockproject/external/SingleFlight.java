@@ -0,0 +1,137 @@
+package com.sprout.stockproject.external;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 동시 업스트림 호출을 1회로 합치는 single-flight.
+ * - 진행 중인 호출이 있으면 새 호출을 만들지 않고 그 결과를 같이 기다린다.
+ * - size(예: 봉 개수)를 함께 주면, 진행 중인 호출의 size 가 같거나 더 큰 경우에도 합류한다
+ *   (작은 요청은 결과를 받아서 호출 측이 잘라 쓴다).
+ * - 더 큰 size 요청은 새 호출을 시작하고, 이후 요청은 그쪽에 합류한다.
+ * 결과를 보관하지 않으므로 캐시와는 별개로 "동시에 겹친 요청"만 줄인다.
+ */
+public final class SingleFlight<K, V> {
+
+    /** 누적 지표. coalescedRatio = 합류 요청 / 전체 요청 */
+    public record Stats(String name, long requests, long upstreamCalls, long coalesced, long failures,
+                        int inFlight, double coalescedRatio) {}
+
+    private static final class Flight<V> {
+        final int size;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Flight(int size) {
+            this.size = size;
+        }
+    }
+
+    private final String name;
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** size 구분이 없는 호출 (같은 키면 무조건 합류) */
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, 0, size -> loader.get());
+    }
+
+    /**
+     * key 에 대해 size 이상을 가져오는 호출이 진행 중이면 합류, 아니면 loader(size) 를 직접 실행.
+     * loader 의 예외는 합류한 모든 호출자에게 그대로 전달된다.
+     */
+    public V execute(K key, int size, IntFunction<V> loader) {
+        requests.increment();
+        Flight<V> mine = new Flight<>(size);
+        Flight<V> current = flights.compute(key,
+                (k, existing) -> existing != null && existing.size >= size ? existing : mine);
+
+        if (current != mine) {
+            coalesced.increment();
+            return await(current);
+        }
+
+        upstreamCalls.increment();
+        try {
+            V value = loader.apply(size);
+            mine.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            failures.increment();
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, mine);
+        }
+    }
+
+    /**
+     * 비동기 버전. 진행 중인 호출(동기·비동기 구분 없음)에 합류하거나 loader(size) 가 돌려준 future 를 시작한다.
+     * 호출 측이 돌려받은 future 를 취소해도 공유 중인 호출에는 영향이 없다.
+     */
+    public CompletableFuture<V> executeAsync(K key, int size, IntFunction<CompletableFuture<V>> loader) {
+        requests.increment();
+        Flight<V> mine = new Flight<>(size);
+        Flight<V> current = flights.compute(key,
+                (k, existing) -> existing != null && existing.size >= size ? existing : mine);
+
+        if (current != mine) {
+            coalesced.increment();
+            return current.result.copy();
+        }
+
+        upstreamCalls.increment();
+        CompletableFuture<V> started;
+        try {
+            started = loader.apply(size);
+        } catch (RuntimeException | Error e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            if (error != null) {
+                failures.increment();
+                mine.result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                mine.result.complete(value);
+            }
+            flights.remove(key, mine);
+        });
+        return mine.result.copy();
+    }
+
+    public Stats stats() {
+        long total = requests.sum();
+        long joined = coalesced.sum();
+        return new Stats(name, total, upstreamCalls.sum(), joined, failures.sum(), flights.size(),
+                total == 0 ? 0.0 : Math.round(joined * 10000.0 / total) / 10000.0);
+    }
+
+    private V await(Flight<V> flight) {
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for " + name, e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
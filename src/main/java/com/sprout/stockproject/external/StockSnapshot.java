@@ -0,0 +1,12 @@
+package com.sprout.stockproject.external;
+
+/**
+ * 네이버 종목 통합 정보(/api/stock/{code}/integration) 중 실제로 쓰는 필드만 담은 투영.
+ * 값은 네이버 표기 그대로 ("71,000", "13.95배", "472조 3,455억"), 응답에 없으면 null.
+ *
+ * @param closePrice  dealTrendInfos 첫 항목(가장 최근 거래일)의 종가
+ * @param marketValue totalInfos 의 marketValue (시가총액)
+ * @param per         totalInfos 의 per
+ * @param pbr         totalInfos 의 pbr
+ */
+public record StockSnapshot(String stockName, String closePrice, String marketValue, String per, String pbr) {}
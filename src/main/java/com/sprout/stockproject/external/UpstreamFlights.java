@@ -0,0 +1,27 @@
+package com.sprout.stockproject.external;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** 업스트림 클라이언트별 SingleFlight 등록소 (지표 조회용) */
+@Component
+public class UpstreamFlights {
+
+    private final Map<String, SingleFlight<?, ?>> flights = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> get(String name) {
+        return (SingleFlight<K, V>) flights.computeIfAbsent(name, SingleFlight::new);
+    }
+
+    public List<SingleFlight.Stats> stats() {
+        List<SingleFlight.Stats> out = new ArrayList<>();
+        for (SingleFlight<?, ?> f : flights.values()) out.add(f.stats());
+        out.sort((a, b) -> a.name().compareTo(b.name()));
+        return out;
+    }
+}
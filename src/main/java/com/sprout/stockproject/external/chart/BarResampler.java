@@ -0,0 +1,211 @@
+package com.sprout.stockproject.external.chart;
+
+import java.util.Arrays;
+
+/**
+ * 일봉을 주봉/월봉으로 묶는 증분 리샘플러 (한 종목·한 주기).
+ * - 주봉: 월~일 같은 주에 속한 거래일끼리, 월봉: 같은 달 거래일끼리 묶는다.
+ *   휴장일은 일봉이 없으므로 자연히 빠지고, 봉 날짜는 그 주/달의 첫 거래일이다.
+ * - open=첫 시가, high=최고가, low=최저가, close=마지막 종가, volume=합계
+ * - 일봉은 날짜 오름차순으로 한 번만 넣는다. 마지막 일봉과 같은 날짜가 다시 들어오면
+ *   (장중 형성 중인 봉) 그 날만 교체하고, 마지막 주/월봉은 나머지 날 집계 + 그 날로 다시 합친다.
+ * 스레드 안전하지 않으므로 호출 측에서 동기화한다.
+ */
+public final class BarResampler {
+
+    public enum Period {
+        WEEK("week"), MONTH("month");
+
+        private final String timeframe;
+
+        Period(String timeframe) {
+            this.timeframe = timeframe;
+        }
+
+        public String timeframe() {
+            return timeframe;
+        }
+
+        /** count 개 봉을 만들기에 충분한 일봉 수 (첫 봉이 잘리지 않도록 1개 여유) */
+        public int dailyBarsFor(int count) {
+            int perBucket = this == WEEK ? 5 : 23;
+            return (int) Math.min(Integer.MAX_VALUE, (long) perBucket * (Math.max(1, count) + 1L));
+        }
+
+        /** yyyyMMdd → 묶음 키 (주: 그 주 월요일의 epoch day, 월: yyyyMM) */
+        int bucketOf(int date) {
+            if (this == MONTH) return date / 100;
+            long day = epochDay(date / 10000, date / 100 % 100, date % 100);
+            // 1970-01-01 은 목요일 → 월요일 기준 요일 0..6
+            int dow = (int) Math.floorMod(day + 3, 7L);
+            return (int) (day - dow);
+        }
+    }
+
+    private final Period period;
+    private final String symbol;
+    private String name;
+
+    // 마감된 봉
+    private int n;
+    private int[] dates = new int[16];
+    private long[] open = new long[16], high = new long[16], low = new long[16],
+            close = new long[16], volume = new long[16];
+
+    // 진행 중인 마지막 봉: 마지막 일봉을 뺀 나머지 날 집계
+    private boolean hasBucket;
+    private boolean hasBase;
+    private int bucketKey;
+    private int bucketDate;
+    private long baseOpen, baseHigh, baseLow, baseClose, baseVolume;
+
+    // 마지막 일봉 (같은 날짜로 다시 들어오면 교체)
+    private boolean hasDay;
+    private int firstDay;
+    private int dayDate;
+    private long dayOpen, dayHigh, dayLow, dayClose, dayVolume;
+
+    public BarResampler(Period period, String symbol, String name) {
+        this.period = period;
+        this.symbol = symbol;
+        this.name = name;
+    }
+
+    /** 지금까지 넣은 첫 일봉 날짜 (없으면 0) */
+    public int firstDailyDate() {
+        return hasDay ? firstDay : 0;
+    }
+
+    /** 마지막으로 넣은 일봉 날짜 (없으면 0) */
+    public int lastDailyDate() {
+        return hasDay ? dayDate : 0;
+    }
+
+    public void name(String name) {
+        if (name != null) this.name = name;
+    }
+
+    /** 일봉 전체(또는 lastDailyDate 이후 구간)를 순서대로 반영 */
+    public void acceptAll(Bars daily) {
+        for (int i = 0, size = daily.size(); i < size; i++) {
+            accept(daily.date(i), daily.open(i), daily.high(i), daily.low(i), daily.close(i), daily.volume(i));
+        }
+    }
+
+    public void accept(int date, long o, long h, long l, long c, long v) {
+        if (hasDay) {
+            if (date < dayDate) return;
+            if (date == dayDate) {
+                setDay(date, o, h, l, c, v);
+                return;
+            }
+            foldDay();
+        } else {
+            firstDay = date;
+        }
+
+        int key = period.bucketOf(date);
+        if (hasBucket && key != bucketKey) {
+            push();
+            hasBucket = false;
+        }
+        if (!hasBucket) {
+            hasBucket = true;
+            hasBase = false;
+            bucketKey = key;
+            bucketDate = date;
+        }
+        setDay(date, o, h, l, c, v);
+    }
+
+    /** 봉 개수 (진행 중인 마지막 봉 포함) */
+    public int size() {
+        return n + (hasBucket ? 1 : 0);
+    }
+
+    /** 최근 count 개 주/월봉을 새 배열로 복사 */
+    public ChartSeries snapshot(int count) {
+        int total = size();
+        int take = Math.max(0, Math.min(count, total));
+        ChartSeries.Builder b = new ChartSeries.Builder(take)
+                .symbol(symbol).name(name).timeframe(period.timeframe());
+        int closedTake = hasBucket ? take - 1 : take;
+        for (int i = n - Math.max(0, closedTake); i < n; i++) {
+            b.add(dates[i], open[i], high[i], low[i], close[i], volume[i]);
+        }
+        if (hasBucket && take > 0) {
+            if (hasBase) {
+                b.add(bucketDate, baseOpen, Math.max(baseHigh, dayHigh), Math.min(baseLow, dayLow),
+                        dayClose, baseVolume + dayVolume);
+            } else {
+                b.add(bucketDate, dayOpen, dayHigh, dayLow, dayClose, dayVolume);
+            }
+        }
+        return b.build();
+    }
+
+    private void setDay(int date, long o, long h, long l, long c, long v) {
+        hasDay = true;
+        dayDate = date;
+        dayOpen = o;
+        dayHigh = h;
+        dayLow = l;
+        dayClose = c;
+        dayVolume = v;
+    }
+
+    /** 마지막 일봉을 진행 중인 봉 집계에 확정 반영 */
+    private void foldDay() {
+        if (!hasBase) {
+            hasBase = true;
+            baseOpen = dayOpen;
+            baseHigh = dayHigh;
+            baseLow = dayLow;
+            baseVolume = dayVolume;
+        } else {
+            baseHigh = Math.max(baseHigh, dayHigh);
+            baseLow = Math.min(baseLow, dayLow);
+            baseVolume += dayVolume;
+        }
+        baseClose = dayClose;
+    }
+
+    /** 진행 중인 봉을 마감 목록으로 (foldDay 이후 호출) */
+    private void push() {
+        if (n == dates.length) {
+            int cap = n * 2;
+            dates = Arrays.copyOf(dates, cap);
+            open = Arrays.copyOf(open, cap);
+            high = Arrays.copyOf(high, cap);
+            low = Arrays.copyOf(low, cap);
+            close = Arrays.copyOf(close, cap);
+            volume = Arrays.copyOf(volume, cap);
+        }
+        dates[n] = bucketDate;
+        open[n] = baseOpen;
+        high[n] = baseHigh;
+        low[n] = baseLow;
+        close[n] = baseClose;
+        volume[n] = baseVolume;
+        n++;
+    }
+
+    /** 그레고리력 날짜 → 1970-01-01 기준 일 수 (LocalDate 없이) */
+    static long epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            if (!leap) total--;
+        }
+        return total - 719528L;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sprout.stockproject.external.chart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 날짜 오름차순 OHLCV 봉 읽기 전용 뷰.
+ * 힙 배열(ChartSeries)과 메모리 맵 파일(MappedBars)을 같은 방식으로 읽기 위한 공통 인터페이스.
+ * 날짜는 yyyyMMdd int.
+ */
+public interface Bars {
+
+    String symbol();
+    String name();
+    String timeframe();
+
+    int size();
+
+    int date(int i);
+    long open(int i);
+    long high(int i);
+    long low(int i);
+    long close(int i);
+    long volume(int i);
+
+    /** 최근 count 개 봉 (복사 없음) */
+    Bars tail(int count);
+
+    /** fromDate ≤ date ≤ toDate 구간 (복사 없음) */
+    Bars range(int fromDate, int toDate);
+
+    /** 이 구간만 담은 힙 시계열 (캐시에 넣는 등 원본보다 오래 붙잡을 때) */
+    ChartSeries compact();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** 마지막 봉 종가 (봉이 없으면 null) */
+    default Long lastClose() {
+        return isEmpty() ? null : close(size() - 1);
+    }
+
+    /** 기존 응답과 같은 모양 { symbol, name, timeframe, data: [{date, open, high, low, close, volume}] } */
+    default ObjectNode toJson(ObjectMapper om) {
+        ObjectNode result = om.createObjectNode();
+        result.put("symbol", symbol());
+        result.put("name", name());
+        result.put("timeframe", timeframe());
+        ArrayNode data = result.putArray("data");
+        for (int i = 0, n = size(); i < n; i++) {
+            ObjectNode row = data.addObject();
+            row.put("date", String.valueOf(date(i)));
+            row.put("open", String.valueOf(open(i)));
+            row.put("high", String.valueOf(high(i)));
+            row.put("low", String.valueOf(low(i)));
+            row.put("close", String.valueOf(close(i)));
+            row.put("volume", String.valueOf(volume(i)));
+        }
+        return result;
+    }
+}
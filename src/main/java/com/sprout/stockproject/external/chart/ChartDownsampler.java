@@ -0,0 +1,110 @@
+package com.sprout.stockproject.external.chart;
+
+import java.util.Locale;
+
+/**
+ * 긴 봉 시계열을 화면 해상도 수준(maxPoints)으로 줄인다. 결과 열 배열 외에는 할당하지 않는다.
+ * - OHLC: 연속된 봉을 거의 같은 크기의 maxPoints 개 묶음으로 나눠 시가=첫 시가, 고가=최고, 저가=최저,
+ *   종가=마지막 종가, 거래량=합계, 날짜=첫 봉 날짜 (캔들 차트용, 극값 보존)
+ * - LTTB: Largest-Triangle-Three-Buckets 로 종가 선의 모양을 가장 잘 유지하는 원본 봉을 골라 그대로 둔다
+ *   (라인 차트용, 첫·마지막 봉은 항상 포함)
+ * maxPoints 이하의 시계열은 그대로 반환.
+ */
+public final class ChartDownsampler {
+
+    public enum Mode { OHLC, LTTB }
+
+    private static final int MIN_POINTS = 3;
+
+    private ChartDownsampler() {}
+
+    /** mode 이름(ohlc|lttb, 대소문자 무시)으로 호출. maxPoints 가 3 미만이거나 mode 가 틀리면 IllegalArgumentException */
+    public static Bars downsample(Bars bars, int maxPoints, String mode) {
+        return switch (mode.toLowerCase(Locale.ROOT)) {
+            case "ohlc" -> downsample(bars, maxPoints, Mode.OHLC);
+            case "lttb" -> downsample(bars, maxPoints, Mode.LTTB);
+            default -> throw new IllegalArgumentException("sampling must be ohlc|lttb: " + mode);
+        };
+    }
+
+    public static Bars downsample(Bars bars, int maxPoints, Mode mode) {
+        if (maxPoints < MIN_POINTS) throw new IllegalArgumentException("maxPoints must be >= " + MIN_POINTS);
+        if (bars.size() <= maxPoints) return bars;
+        return mode == Mode.OHLC ? ohlc(bars, maxPoints) : lttb(bars, maxPoints);
+    }
+
+    static ChartSeries ohlc(Bars s, int m) {
+        int n = s.size();
+        int[] dates = new int[m];
+        long[] open = new long[m], high = new long[m], low = new long[m], close = new long[m], volume = new long[m];
+        for (int k = 0; k < m; k++) {
+            int from = (int) ((long) k * n / m);
+            int to = (int) ((long) (k + 1) * n / m);
+            long h = Long.MIN_VALUE, l = Long.MAX_VALUE, v = 0;
+            for (int i = from; i < to; i++) {
+                h = Math.max(h, s.high(i));
+                l = Math.min(l, s.low(i));
+                v += s.volume(i);
+            }
+            dates[k] = s.date(from);
+            open[k] = s.open(from);
+            high[k] = h;
+            low[k] = l;
+            close[k] = s.close(to - 1);
+            volume[k] = v;
+        }
+        return new ChartSeries(s.symbol(), s.name(), s.timeframe(), dates, open, high, low, close, volume);
+    }
+
+    /** x = 봉 순번(거래일 간격), y = 종가 */
+    static ChartSeries lttb(Bars s, int m) {
+        int n = s.size();
+        int[] dates = new int[m];
+        long[] open = new long[m], high = new long[m], low = new long[m], close = new long[m], volume = new long[m];
+        copy(s, 0, 0, dates, open, high, low, close, volume);
+
+        // 첫·마지막 봉을 뺀 n-2 개를 m-2 개 묶음으로 나누고, 묶음마다 직전 선택점·다음 묶음 평균과
+        // 만드는 삼각형 넓이가 가장 큰 봉을 고른다
+        double every = (double) (n - 2) / (m - 2);
+        int a = 0;
+        for (int k = 0; k < m - 2; k++) {
+            int nextFrom = (int) Math.floor((k + 1) * every) + 1;
+            int nextTo = Math.min(n, (int) Math.floor((k + 2) * every) + 1);
+            double avgX = 0, avgY = 0;
+            for (int j = nextFrom; j < nextTo; j++) {
+                avgX += j;
+                avgY += s.close(j);
+            }
+            int len = nextTo - nextFrom;
+            avgX /= len;
+            avgY /= len;
+
+            int from = (int) Math.floor(k * every) + 1;
+            int to = (int) Math.floor((k + 1) * every) + 1;
+            double ax = a, ay = s.close(a);
+            double maxArea = -1;
+            int chosen = from;
+            for (int i = from; i < to; i++) {
+                double area = Math.abs((ax - avgX) * (s.close(i) - ay) - (ax - i) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            copy(s, chosen, k + 1, dates, open, high, low, close, volume);
+            a = chosen;
+        }
+        copy(s, n - 1, m - 1, dates, open, high, low, close, volume);
+        return new ChartSeries(s.symbol(), s.name(), s.timeframe(), dates, open, high, low, close, volume);
+    }
+
+    private static void copy(Bars s, int i, int k, int[] dates, long[] open, long[] high, long[] low,
+                             long[] close, long[] volume) {
+        dates[k] = s.date(i);
+        open[k] = s.open(i);
+        high[k] = s.high(i);
+        low[k] = s.low(i);
+        close[k] = s.close(i);
+        volume[k] = s.volume(i);
+    }
+}
@@ -0,0 +1,233 @@
+package com.sprout.stockproject.external.chart;
+
+import com.sprout.stockproject.service.market.KrxMarketHours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 로컬 봉 이력 + 증분 동기화.
+ * - 저장된 이력이 아직 유효하면(장 마감 후 다음 개장 전 등) 업스트림 호출 없이 그대로 사용
+ * - 아니면 마지막 저장일 이후 몇 개 봉만 받아, 겹치는 봉(형성 중이던 마지막 봉)부터 교체해 합침
+ * - 겹치는 확정 봉 값이 저장된 것과 다르면(수정주가: 분할·증자 등으로 과거 봉 전체가 바뀜) 전체를 다시 받음
+ * - 저장된 봉이 요청 count 보다 적으면 count 만큼 전체를 다시 받음
+ * 전체를 다시 받을 때마다 revision 을 올리므로, 이력 위에 이어 붙여 계산하는 캐시(주/월봉, 지표)는
+ * revision 이 바뀌면 처음부터 다시 계산한다.
+ */
+@Component
+public class ChartHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChartHistoryService.class);
+
+    // 파일명으로 쓰이므로 영숫자 종목코드만 로컬 저장
+    private static final Pattern SAFE_SYMBOL = Pattern.compile("[A-Za-z0-9]{1,12}");
+    private static final Pattern TIMEFRAME = Pattern.compile("day|week|month");
+
+    /** 업스트림에서 symbol/timeframe 의 최근 count 개 봉을 받아오는 함수 */
+    @FunctionalInterface
+    public interface Fetcher {
+        ChartSeries fetch(String symbol, String timeframe, int count);
+    }
+
+    /** Fetcher 의 논블로킹 버전 */
+    @FunctionalInterface
+    public interface AsyncFetcher {
+        Mono<ChartSeries> fetch(String symbol, String timeframe, int count);
+    }
+
+    private final ChartHistoryStore store;
+    private final Duration openTtl;
+    // "symbol:timeframe" → 전체 재작성 횟수 (프로세스 안에서만 의미 있음, 하위 캐시도 메모리뿐이라 충분)
+    private final ConcurrentHashMap<String, Integer> revisions = new ConcurrentHashMap<>();
+
+    public ChartHistoryService(ChartHistoryStore store,
+                               @Value("${chart.cache.open-ttl-seconds:60}") long openTtlSeconds) {
+        this.store = store;
+        this.openTtl = Duration.ofSeconds(Math.max(1, openTtlSeconds));
+    }
+
+    /** 최근 count 개 이상을 담은 전체 이력 (호출 측에서 tail 로 자름) */
+    public ChartHistoryStore.StoredHistory load(String symbol, String timeframe, int count, Fetcher fetcher) {
+        Instant now = Instant.now();
+        if (!SAFE_SYMBOL.matcher(symbol).matches()) {
+            return unstored(fetcher.fetch(symbol, timeframe, count), count, now);
+        }
+
+        ChartHistoryStore.StoredHistory stored = store.load(symbol, timeframe);
+        if (!enough(stored, count)) {
+            return fullSync(symbol, timeframe, count, fetcher.fetch(symbol, timeframe, count), now);
+        }
+        if (isFresh(stored, now)) return stored;
+
+        Bars local = stored.series();
+        ChartSeries recent = fetcher.fetch(symbol, timeframe, gap(local, timeframe, now));
+        ChartHistoryStore.StoredHistory merged = absorb(stored, recent, now);
+        if (merged != null) return merged;
+        int full = Math.max(count, local.size());
+        return fullSync(symbol, timeframe, full, fetcher.fetch(symbol, timeframe, full), now);
+    }
+
+    /**
+     * load 의 논블로킹 버전 (판단 규칙은 같음).
+     * 로컬 파일 읽기·쓰기(fsync 포함)는 boundedElastic 에서 하고, 업스트림 호출만 fetcher 의 Mono 로 이어 붙인다
+     * (응답을 받은 이벤트 루프 스레드에서 디스크 I/O 를 하지 않기 위함).
+     */
+    public Mono<ChartHistoryStore.StoredHistory> loadAsync(String symbol, String timeframe, int count,
+                                                           AsyncFetcher fetcher) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            if (!SAFE_SYMBOL.matcher(symbol).matches()) {
+                return fetcher.fetch(symbol, timeframe, count).map(fetched -> unstored(fetched, count, now));
+            }
+
+            ChartHistoryStore.StoredHistory stored = store.load(symbol, timeframe);
+            if (!enough(stored, count)) {
+                return fetcher.fetch(symbol, timeframe, count)
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(fetched -> fullSync(symbol, timeframe, count, fetched, now));
+            }
+            if (isFresh(stored, now)) return Mono.just(stored);
+
+            Bars local = stored.series();
+            int full = Math.max(count, local.size());
+            return fetcher.fetch(symbol, timeframe, gap(local, timeframe, now))
+                    .publishOn(Schedulers.boundedElastic())
+                    .flatMap(recent -> {
+                        ChartHistoryStore.StoredHistory merged = absorb(stored, recent, now);
+                        if (merged != null) return Mono.just(merged);
+                        return fetcher.fetch(symbol, timeframe, full)
+                                .publishOn(Schedulers.boundedElastic())
+                                .map(fetched -> fullSync(symbol, timeframe, full, fetched, now));
+                    });
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** 이력이 통째로 다시 쓰인 횟수. 값이 바뀌었으면 이전 이력 위에 쌓은 계산은 버려야 한다 */
+    public int revision(String symbol, String timeframe) {
+        return revisions.getOrDefault(symbol + ":" + timeframe, 0);
+    }
+
+    /** 업스트림 호출 없이 로컬 이력의 fromDate~toDate 구간 (저장된 게 없으면 null) */
+    public Bars read(String symbol, String timeframe, int fromDate, int toDate) {
+        if (!SAFE_SYMBOL.matcher(symbol).matches() || !TIMEFRAME.matcher(timeframe).matches()) return null;
+        Bars stored = store.read(symbol, timeframe);
+        return stored == null ? null : stored.range(fromDate, toDate);
+    }
+
+    private static boolean enough(ChartHistoryStore.StoredHistory stored, int count) {
+        return stored != null && !stored.series().isEmpty()
+                && (stored.complete() || stored.series().size() >= count);
+    }
+
+    private boolean isFresh(ChartHistoryStore.StoredHistory stored, Instant now) {
+        return now.isBefore(KrxMarketHours.validUntil(stored.syncedAt(), openTtl));
+    }
+
+    private static int gap(Bars local, String timeframe, Instant now) {
+        return barsSince(local.date(local.size() - 1), timeframe, now);
+    }
+
+    private static ChartHistoryStore.StoredHistory unstored(ChartSeries fetched, int count, Instant now) {
+        return new ChartHistoryStore.StoredHistory(fetched, now, fetched.size() < count);
+    }
+
+    /**
+     * 최근 봉을 저장 이력에 합쳐 저장. 겹치는 봉이 없으면 사이에 빠진 봉이 있을 수 있고,
+     * 겹치는 확정 봉 값이 다르면 과거 봉이 수정주가로 바뀐 것이므로 null (호출 측에서 전체 재수신)
+     */
+    private ChartHistoryStore.StoredHistory absorb(ChartHistoryStore.StoredHistory stored, ChartSeries recent,
+                                                   Instant now) {
+        Bars local = stored.series();
+        if (recent.isEmpty() || recent.date(0) > local.date(local.size() - 1)) return null;
+        if (!overlapMatches(local, recent)) {
+            log.info("[ChartHistory] {}/{} stored bars differ from upstream (adjusted prices), full resync",
+                    local.symbol(), local.timeframe());
+            return null;
+        }
+
+        ChartHistoryStore.StoredHistory merged =
+                new ChartHistoryStore.StoredHistory(merge(local, recent), now, stored.complete());
+        store.save(merged);
+        log.debug("[ChartHistory] {}/{} incremental: fetched {} bars, total {}",
+                local.symbol(), local.timeframe(), recent.size(), merged.series().size());
+        return merged;
+    }
+
+    private ChartHistoryStore.StoredHistory fullSync(String symbol, String timeframe, int count,
+                                                     ChartSeries fetched, Instant now) {
+        ChartHistoryStore.StoredHistory h = unstored(fetched, count, now);
+        if (!fetched.isEmpty()) {
+            store.save(h);
+            revisions.merge(symbol + ":" + timeframe, 1, Integer::sum);
+        }
+        return h;
+    }
+
+    /**
+     * recent 와 겹치는 저장 봉 중 확정된 봉(저장 이력의 마지막 봉은 형성 중이었을 수 있어 제외)이
+     * 날짜·OHLCV 모두 같은지. 비교할 확정 봉이 하나도 없으면(저장 봉이 1개인 경우 제외) false.
+     */
+    static boolean overlapMatches(Bars local, ChartSeries recent) {
+        int last = local.size() - 1;
+        int j = last;
+        while (j > 0 && local.date(j - 1) >= recent.date(0)) j--;
+        int compared = 0;
+        for (int k = 0; k < recent.size() && j < last; k++, j++) {
+            if (local.date(j) != recent.date(k)
+                    || local.open(j) != recent.open(k) || local.high(j) != recent.high(k)
+                    || local.low(j) != recent.low(k) || local.close(j) != recent.close(k)
+                    || local.volume(j) != recent.volume(k)) {
+                return false;
+            }
+            compared++;
+        }
+        return compared > 0 || last == 0;
+    }
+
+    /** local 중 recent 첫 봉보다 이전 것 + recent 전체 */
+    static ChartSeries merge(Bars local, ChartSeries recent) {
+        int first = recent.date(0);
+        int keep = 0;
+        while (keep < local.size() && local.date(keep) < first) keep++;
+        // JSON 폴백 응답은 종목명 자리에 코드가 들어오므로 기존 이름 유지
+        String name = recent.name() != null && !recent.name().equals(recent.symbol()) ? recent.name() : local.name();
+        ChartSeries.Builder b = new ChartSeries.Builder(keep + recent.size())
+                .symbol(local.symbol()).name(name).timeframe(local.timeframe());
+        for (int i = 0; i < keep; i++) {
+            b.add(local.date(i), local.open(i), local.high(i), local.low(i), local.close(i), local.volume(i));
+        }
+        for (int i = 0; i < recent.size(); i++) {
+            b.add(recent.date(i), recent.open(i), recent.high(i), recent.low(i), recent.close(i), recent.volume(i));
+        }
+        return b.build();
+    }
+
+    /** 마지막 저장 봉(교체 대상 포함) 이후 받아야 할 봉 수 추정치 + 여유 1 */
+    static int barsSince(int lastDate, String timeframe, Instant now) {
+        LocalDate last = LocalDate.parse(String.valueOf(lastDate), DateTimeFormatter.BASIC_ISO_DATE);
+        LocalDate today = now.atZone(KrxMarketHours.ZONE).toLocalDate();
+        if (!today.isAfter(last)) return 2;
+        return switch (timeframe) {
+            case "week" -> (int) ChronoUnit.WEEKS.between(last, today) + 2;
+            case "month" -> (int) ChronoUnit.MONTHS.between(last.withDayOfMonth(1), today.withDayOfMonth(1)) + 2;
+            default -> {
+                int weekdays = 0;
+                for (LocalDate d = last.plusDays(1); !d.isAfter(today); d = d.plusDays(1)) {
+                    if (KrxMarketHours.isWeekday(d)) weekdays++;
+                }
+                yield weekdays + 2;
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.sprout.stockproject.external.chart;
+
+import java.time.Instant;
+
+/** 종목·주기별 봉 이력 로컬 저장소 */
+public interface ChartHistoryStore {
+
+    /**
+     * @param series   날짜 오름차순 전체 이력 (메모리 맵 저장소가 읽어 온 것은 파일 위 뷰)
+     * @param syncedAt 마지막으로 업스트림과 맞춘 시각
+     * @param complete 상장 이후 전체 이력인지 (업스트림이 요청보다 적게 준 적이 있음)
+     */
+    record StoredHistory(Bars series, Instant syncedAt, boolean complete) {}
+
+    /** 저장된 이력이 없으면 null */
+    StoredHistory load(String symbol, String timeframe);
+
+    void save(StoredHistory history);
+
+    /**
+     * 업스트림 호출 없이 저장된 봉을 읽기 전용으로 반환 (없으면 null).
+     * 기본 구현은 load() 로 힙에 읽어 오고, 메모리 맵 저장소는 파일 위 뷰를 그대로 돌려준다.
+     */
+    default Bars read(String symbol, String timeframe) {
+        StoredHistory h = load(symbol, timeframe);
+        return h == null ? null : h.series();
+    }
+}
@@ -0,0 +1,153 @@
+package com.sprout.stockproject.external.chart;
+
+import java.util.Arrays;
+
+/**
+ * 한 종목·한 주기(day/week/month)의 OHLCV 봉 시계열 (열 지향, 날짜 오름차순).
+ * 날짜는 yyyyMMdd int, 가격·거래량은 long 배열에 두어 봉 1개당 객체를 만들지 않는다.
+ * 불변이며 tail() 은 같은 배열을 공유하는 뷰를 돌려준다.
+ */
+public final class ChartSeries implements Bars {
+
+    private final String symbol;
+    private final String name;
+    private final String timeframe;
+    private final int[] dates;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+    private final int from;
+    private final int to;
+
+    public ChartSeries(String symbol, String name, String timeframe,
+                       int[] dates, long[] open, long[] high, long[] low, long[] close, long[] volume) {
+        this(symbol, name, timeframe, dates, open, high, low, close, volume, 0, dates.length);
+    }
+
+    private ChartSeries(String symbol, String name, String timeframe,
+                        int[] dates, long[] open, long[] high, long[] low, long[] close, long[] volume,
+                        int from, int to) {
+        this.symbol = symbol;
+        this.name = name;
+        this.timeframe = timeframe;
+        this.dates = dates;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override public String symbol() { return symbol; }
+    @Override public String name() { return name; }
+    @Override public String timeframe() { return timeframe; }
+
+    @Override public int size() { return to - from; }
+
+    @Override public boolean isEmpty() { return to == from; }
+
+    @Override public int date(int i) { return dates[from + i]; }
+    @Override public long open(int i) { return open[from + i]; }
+    @Override public long high(int i) { return high[from + i]; }
+    @Override public long low(int i) { return low[from + i]; }
+    @Override public long close(int i) { return close[from + i]; }
+    @Override public long volume(int i) { return volume[from + i]; }
+
+    /** 최근 count 개 봉 (복사 없음) */
+    @Override
+    public ChartSeries tail(int count) {
+        if (count >= size()) return this;
+        int n = Math.max(0, count);
+        return new ChartSeries(symbol, name, timeframe, dates, open, high, low, close, volume, to - n, to);
+    }
+
+    /** fromDate ≤ date ≤ toDate 구간 (복사 없음) */
+    @Override
+    public ChartSeries range(int fromDate, int toDate) {
+        int lo = Math.max(from, lowerBound(fromDate));
+        int hi = toDate == Integer.MAX_VALUE ? to : Math.min(to, lowerBound(toDate + 1));
+        return new ChartSeries(symbol, name, timeframe, dates, open, high, low, close, volume, lo, Math.max(lo, hi));
+    }
+
+    /** 뷰라면 해당 구간만 새 배열로 복사 (큰 원본 배열을 붙잡지 않도록) */
+    @Override
+    public ChartSeries compact() {
+        if (from == 0 && to == dates.length) return this;
+        return new ChartSeries(symbol, name, timeframe,
+                Arrays.copyOfRange(dates, from, to), Arrays.copyOfRange(open, from, to),
+                Arrays.copyOfRange(high, from, to), Arrays.copyOfRange(low, from, to),
+                Arrays.copyOfRange(close, from, to), Arrays.copyOfRange(volume, from, to));
+    }
+
+    /** [from, to) 안에서 date 이상인 첫 배열 위치 */
+    private int lowerBound(int date) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dates[mid] < date) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** 봉 1개당 대략적인 힙 사용량 (int 1 + long 5) */
+    public static int bytesPerBar() {
+        return Integer.BYTES + 5 * Long.BYTES;
+    }
+
+    /** 파서가 봉을 하나씩 쌓는 용도 (배열 2배씩 증가) */
+    public static final class Builder {
+        private String symbol;
+        private String name;
+        private String timeframe;
+        private int n;
+        private int[] dates;
+        private long[] open, high, low, close, volume;
+
+        public Builder(int expected) {
+            int cap = Math.max(16, expected);
+            dates = new int[cap];
+            open = new long[cap];
+            high = new long[cap];
+            low = new long[cap];
+            close = new long[cap];
+            volume = new long[cap];
+        }
+
+        public Builder symbol(String symbol) { this.symbol = symbol; return this; }
+        public Builder name(String name) { this.name = name; return this; }
+        public Builder timeframe(String timeframe) { this.timeframe = timeframe; return this; }
+
+        public Builder add(int date, long o, long h, long l, long c, long v) {
+            if (n == dates.length) {
+                int cap = n * 2;
+                dates = Arrays.copyOf(dates, cap);
+                open = Arrays.copyOf(open, cap);
+                high = Arrays.copyOf(high, cap);
+                low = Arrays.copyOf(low, cap);
+                close = Arrays.copyOf(close, cap);
+                volume = Arrays.copyOf(volume, cap);
+            }
+            dates[n] = date;
+            open[n] = o;
+            high[n] = h;
+            low[n] = l;
+            close[n] = c;
+            volume[n] = v;
+            n++;
+            return this;
+        }
+
+        public int size() { return n; }
+
+        public ChartSeries build() {
+            return new ChartSeries(symbol, name, timeframe,
+                    Arrays.copyOf(dates, n), Arrays.copyOf(open, n), Arrays.copyOf(high, n),
+                    Arrays.copyOf(low, n), Arrays.copyOf(close, n), Arrays.copyOf(volume, n));
+        }
+    }
+}
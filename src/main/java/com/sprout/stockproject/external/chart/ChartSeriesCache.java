@@ -0,0 +1,70 @@
+package com.sprout.stockproject.external.chart;
+
+import com.sprout.stockproject.service.market.KrxMarketHours;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * (종목, 주기)별 ChartSeries 캐시.
+ * - 항목 수 상한을 넘으면 가장 오래 안 쓴 것부터 제거 (LRU)
+ * - 장중에는 짧은 TTL, 장 마감 후에는 다음 정규장 시작까지 유효
+ * - 더 많은 봉을 가진 항목이 있으면 작은 count 요청은 tail 로 잘라서 응답
+ */
+@Component
+public class ChartSeriesCache {
+
+    private record Key(String symbol, String timeframe) {}
+
+    /** requested: 업스트림에 요청했던 봉 수 (받은 봉이 이보다 적으면 상장 이후 전체) */
+    private record Entry(ChartSeries series, int requested, Instant expiresAt) {
+        boolean covers(int count) {
+            return series.size() >= count || series.size() < requested;
+        }
+    }
+
+    private final int maxEntries;
+    private final Duration openTtl;
+    private final Map<Key, Entry> entries;
+
+    public ChartSeriesCache(@Value("${chart.cache.max-entries:2000}") int maxEntries,
+                            @Value("${chart.cache.open-ttl-seconds:60}") long openTtlSeconds) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.openTtl = Duration.ofSeconds(Math.max(1, openTtlSeconds));
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > ChartSeriesCache.this.maxEntries;
+            }
+        };
+    }
+
+    /** 유효한 항목이 count 개 이상을 담고 있으면 최근 count 개, 아니면 null */
+    public synchronized ChartSeries get(String symbol, String timeframe, int count, Instant now) {
+        Key key = new Key(symbol, timeframe);
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (!now.isBefore(e.expiresAt())) {
+            entries.remove(key);
+            return null;
+        }
+        return e.covers(count) ? e.series().tail(count) : null;
+    }
+
+    public synchronized void put(ChartSeries series, String symbol, String timeframe, int requested, Instant now) {
+        entries.put(new Key(symbol, timeframe), new Entry(series, requested, expiresAt(now)));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** 장중: now + openTtl, 그 외: 다음 평일 09:00 KST (그 전까지는 봉이 바뀌지 않음) */
+    Instant expiresAt(Instant now) {
+        return KrxMarketHours.validUntil(now, openTtl);
+    }
+}
@@ -0,0 +1,215 @@
+package com.sprout.stockproject.external.chart;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * fchart.stock.naver.com sise.nhn XML 전용 바이트 단위 풀 파서.
+ * <pre>
+ * &lt;?xml version="1.0" encoding="EUC-KR" ?&gt;
+ * &lt;protocol&gt;&lt;chartdata symbol="005930" name="삼성전자" count="5" timeframe="day" ...&gt;
+ *   &lt;item data="20240105|71000|72000|70500|71500|12345678" /&gt; ...
+ * </pre>
+ * 응답 바이트를 한 번만 앞으로 훑으며 태그/속성 위치만 찾고, item 의 data 속성은
+ * '|' 구분 숫자를 바로 int/long 으로 읽어 ChartSeries 열에 쌓는다.
+ * DOM·문자열 분할·재인코딩이 없고, String 은 chartdata 속성 3개에만 만든다.
+ */
+public final class FchartXmlParser {
+
+    private static final Charset DEFAULT_CHARSET = Charset.forName("EUC-KR");
+
+    private static final byte[] CHARTDATA = ascii("chartdata");
+    private static final byte[] ITEM = ascii("item");
+    private static final byte[] DATA = ascii("data");
+    private static final byte[] SYMBOL = ascii("symbol");
+    private static final byte[] NAME = ascii("name");
+    private static final byte[] TIMEFRAME = ascii("timeframe");
+    private static final byte[] COUNT = ascii("count");
+    private static final byte[] ENCODING = ascii("encoding");
+
+    private final byte[] b;
+    private final int end;
+    private int pos;
+    private Charset charset = DEFAULT_CHARSET;
+    private final long[] fields = new long[6];
+
+    // 현재 태그에서 마지막으로 읽은 속성 [nameStart, nameEnd) = [valueStart, valueEnd)
+    private int attrNameStart, attrNameEnd, attrValueStart, attrValueEnd;
+
+    private FchartXmlParser(byte[] b, int off, int len) {
+        this.b = b;
+        this.pos = off;
+        this.end = off + len;
+    }
+
+    public static ChartSeries parse(byte[] bytes) {
+        return parse(bytes, 0, bytes.length);
+    }
+
+    /** chartdata 요소가 없으면 IllegalArgumentException */
+    public static ChartSeries parse(byte[] bytes, int off, int len) {
+        return new FchartXmlParser(bytes, off, len).run();
+    }
+
+    /**
+     * [position, limit) 구간을 파싱 (position 은 그대로).
+     * 배열 기반 버퍼는 배열을 그대로 읽고, 다이렉트·읽기전용 버퍼는 한 번에 통째로 복사해 읽는다.
+     * (ByteBuffer.get(int) 로 한 바이트씩 읽으면 일괄 복사 + 배열 스캔보다 30% 가량 느리다)
+     */
+    public static ChartSeries parse(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(buffer.position(), bytes);
+        return parse(bytes);
+    }
+
+    private ChartSeries run() {
+        ChartSeries.Builder series = null;
+        while (nextTag()) {
+            int nameStart = pos;
+            while (pos < end && isNameByte(b[pos])) pos++;
+            int nameEnd = pos;
+
+            if (nameEnd > nameStart && b[nameStart] == '?') {
+                // <?xml ... encoding="..." ?>
+                while (nextAttribute()) {
+                    if (attrIs(ENCODING)) {
+                        try {
+                            charset = Charset.forName(string(attrValueStart, attrValueEnd, DEFAULT_CHARSET));
+                        } catch (IllegalArgumentException ignore) {
+                            charset = DEFAULT_CHARSET;
+                        }
+                    }
+                }
+            } else if (series == null && equals(nameStart, nameEnd, CHARTDATA)) {
+                String symbol = null, name = null, timeframe = null;
+                int count = 0;
+                while (nextAttribute()) {
+                    if (attrIs(SYMBOL)) symbol = string(attrValueStart, attrValueEnd, charset);
+                    else if (attrIs(NAME)) name = string(attrValueStart, attrValueEnd, charset);
+                    else if (attrIs(TIMEFRAME)) timeframe = string(attrValueStart, attrValueEnd, charset);
+                    else if (attrIs(COUNT)) count = (int) parseLong(attrValueStart, attrValueEnd);
+                }
+                series = new ChartSeries.Builder(count).symbol(symbol).name(name).timeframe(timeframe);
+            } else if (series != null && equals(nameStart, nameEnd, ITEM)) {
+                while (nextAttribute()) {
+                    if (attrIs(DATA)) addBar(series, attrValueStart, attrValueEnd);
+                }
+            }
+            skipToTagEnd();
+        }
+        if (series == null) throw new IllegalArgumentException("chartdata element not found");
+        return series.build();
+    }
+
+    /** date|open|high|low|close|volume 6칸이 다 있을 때만 추가 */
+    private void addBar(ChartSeries.Builder series, int from, int to) {
+        long[] f = fields;
+        int field = 0;
+        int start = from;
+        for (int i = from; i <= to && field < 6; i++) {
+            if (i == to || b[i] == '|') {
+                f[field++] = parseLong(start, i);
+                start = i + 1;
+            }
+        }
+        if (field == 6) series.add((int) f[0], f[1], f[2], f[3], f[4], f[5]);
+    }
+
+    /** 부호 + 정수부만 읽음 (소수점 이하·공백·비숫자는 무시, 빈 값은 0) */
+    private long parseLong(int from, int to) {
+        int i = from;
+        while (i < to && b[i] == ' ') i++;
+        boolean negative = i < to && b[i] == '-';
+        if (negative) i++;
+        long v = 0;
+        for (; i < to; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) break;
+            v = v * 10 + d;
+        }
+        return negative ? -v : v;
+    }
+
+    /** 다음 '<' 다음 위치로 이동. 닫는 태그·주석·DOCTYPE 은 건너뜀 */
+    private boolean nextTag() {
+        while (pos < end) {
+            if (b[pos++] != '<') continue;
+            if (pos >= end) return false;
+            byte c = b[pos];
+            if (c == '/' || c == '!') {
+                skipToTagEnd();
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /** 태그 안에서 다음 name="value" 를 읽음. 태그 끝이면 false (pos 는 '>' 또는 '/>' 에 멈춤) */
+    private boolean nextAttribute() {
+        while (pos < end && isSpace(b[pos])) pos++;
+        if (pos >= end || b[pos] == '>' || b[pos] == '/' || b[pos] == '?') return false;
+        attrNameStart = pos;
+        while (pos < end && b[pos] != '=' && !isSpace(b[pos]) && b[pos] != '>') pos++;
+        attrNameEnd = pos;
+        while (pos < end && isSpace(b[pos])) pos++;
+        if (pos >= end || b[pos] != '=') return false;
+        pos++;
+        while (pos < end && isSpace(b[pos])) pos++;
+        if (pos >= end) return false;
+        byte quote = b[pos];
+        if (quote != '"' && quote != '\'') return false;
+        attrValueStart = ++pos;
+        while (pos < end && b[pos] != quote) pos++;
+        attrValueEnd = pos;
+        if (pos < end) pos++;
+        return true;
+    }
+
+    private void skipToTagEnd() {
+        while (pos < end && b[pos] != '>') {
+            byte c = b[pos++];
+            if (c == '"' || c == '\'') {
+                while (pos < end && b[pos] != c) pos++;
+                if (pos < end) pos++;
+            }
+        }
+        if (pos < end) pos++;
+    }
+
+    private boolean attrIs(byte[] name) {
+        return equals(attrNameStart, attrNameEnd, name);
+    }
+
+    private boolean equals(int from, int to, byte[] word) {
+        if (to - from != word.length) return false;
+        for (int i = 0; i < word.length; i++) {
+            if (b[from + i] != word[i]) return false;
+        }
+        return true;
+    }
+
+    /** 속성값 → String (&amp; 등 기본 엔티티만 풀어줌) */
+    private String string(int from, int to, Charset cs) {
+        String s = new String(b, from, to - from, cs);
+        if (s.indexOf('&') < 0) return s;
+        return s.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private static boolean isNameByte(byte c) {
+        return c != '>' && c != '/' && !isSpace(c);
+    }
+
+    private static boolean isSpace(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
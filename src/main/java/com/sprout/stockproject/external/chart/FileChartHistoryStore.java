@@ -0,0 +1,92 @@
+package com.sprout.stockproject.external.chart;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+
+/**
+ * 종목별 이진 파일 이력 저장소: {root}/{timeframe}/{symbol}.bin
+ * 헤더(매직, 동기화 시각, 전체 이력 여부, 종목명, 봉 수) 뒤에 봉을 date,o,h,l,c,v 고정 폭(44바이트)으로 기록.
+ * 임시 파일에 쓴 뒤 rename 으로 교체한다.
+ * chart.history.engine=stream 일 때만 사용 (기본은 MappedChartHistoryStore).
+ */
+@Component
+@ConditionalOnProperty(name = "chart.history.engine", havingValue = "stream")
+public class FileChartHistoryStore implements ChartHistoryStore {
+
+    private static final int MAGIC = 0x43485331; // "CHS1"
+
+    private final Path root;
+
+    public FileChartHistoryStore(@Value("${chart.history.root:data/chart}") String rootDir) {
+        this.root = Path.of(rootDir);
+    }
+
+    @Override
+    public StoredHistory load(String symbol, String timeframe) {
+        Path p = path(symbol, timeframe);
+        if (!Files.exists(p)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(p)))) {
+            if (in.readInt() != MAGIC) return null;
+            Instant syncedAt = Instant.ofEpochMilli(in.readLong());
+            boolean complete = in.readBoolean();
+            String name = in.readUTF();
+            int n = in.readInt();
+            ChartSeries.Builder b = new ChartSeries.Builder(n).symbol(symbol).name(name).timeframe(timeframe);
+            for (int i = 0; i < n; i++) {
+                b.add(in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+            }
+            return new StoredHistory(b.build(), syncedAt, complete);
+        } catch (IOException e) {
+            // 깨진 파일은 없는 것으로 보고 전체를 다시 받는다
+            return null;
+        }
+    }
+
+    @Override
+    public void save(StoredHistory history) {
+        Bars s = history.series();
+        Path target = path(s.symbol(), s.timeframe());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeLong(history.syncedAt().toEpochMilli());
+                out.writeBoolean(history.complete());
+                out.writeUTF(s.name() == null ? "" : s.name());
+                out.writeInt(s.size());
+                for (int i = 0; i < s.size(); i++) {
+                    out.writeInt(s.date(i));
+                    out.writeLong(s.open(i));
+                    out.writeLong(s.high(i));
+                    out.writeLong(s.low(i));
+                    out.writeLong(s.close(i));
+                    out.writeLong(s.volume(i));
+                }
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Chart history save failed: " + s.symbol() + "/" + s.timeframe(), e);
+        }
+    }
+
+    private Path path(String symbol, String timeframe) {
+        return root.resolve(timeframe).resolve(symbol + ".bin");
+    }
+}
@@ -0,0 +1,133 @@
+package com.sprout.stockproject.external.chart;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 메모리 맵 이력 파일 위의 봉 뷰 (힙 복사 없음).
+ * 값은 읽을 때마다 맵 버퍼에서 절대 위치로 꺼내므로 여러 스레드가 같은 버퍼를 공유해도 된다.
+ * range()/tail() 은 같은 버퍼·인덱스를 공유하는 구간 뷰를 돌려준다.
+ * 형성 중인 마지막 봉은 파일 헤더에서 힙으로 복사한 레코드 하나(forming)에서 읽는다.
+ * 뷰는 연 시점의 봉 수까지만 보며, 이후 추가된 봉은 저장소에서 다시 열어야 보인다.
+ */
+public final class MappedBars implements Bars {
+
+    /** 이 간격마다 날짜를 힙 인덱스에 둔다 (8,000봉이면 int 125개) */
+    static final int INDEX_STRIDE = 64;
+
+    private final String symbol;
+    private final String name;
+    private final String timeframe;
+    private final ByteBuffer records;
+    private final ByteBuffer forming;
+    private final int[] index;
+    private final int committed;
+    private final int total;
+    private final int from;
+    private final int to;
+
+    /**
+     * records: 0번 봉부터 시작하는 읽기 전용 버퍼, committed: 그 안의 유효한 봉 수,
+     * forming: 확정 봉 뒤에 붙는 형성 중 봉 레코드 (없으면 null)
+     */
+    MappedBars(String symbol, String name, String timeframe, ByteBuffer records, int committed, ByteBuffer forming) {
+        this(symbol, name, timeframe, records, forming, buildIndex(records, committed), committed,
+                0, committed + (forming != null ? 1 : 0));
+    }
+
+    private MappedBars(String symbol, String name, String timeframe, ByteBuffer records, ByteBuffer forming,
+                       int[] index, int committed, int from, int to) {
+        this.symbol = symbol;
+        this.name = name;
+        this.timeframe = timeframe;
+        this.records = records;
+        this.forming = forming;
+        this.index = index;
+        this.committed = committed;
+        this.total = committed + (forming != null ? 1 : 0);
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override public String symbol() { return symbol; }
+    @Override public String name() { return name; }
+    @Override public String timeframe() { return timeframe; }
+
+    @Override public int size() { return to - from; }
+
+    @Override public int date(int i) { return buffer(i).getInt(offset(i)); }
+    @Override public long open(int i) { return buffer(i).getLong(offset(i) + 4); }
+    @Override public long high(int i) { return buffer(i).getLong(offset(i) + 12); }
+    @Override public long low(int i) { return buffer(i).getLong(offset(i) + 20); }
+    @Override public long close(int i) { return buffer(i).getLong(offset(i) + 28); }
+    @Override public long volume(int i) { return buffer(i).getLong(offset(i) + 36); }
+
+    /** fromDate ≤ date ≤ toDate 구간 뷰 (복사 없음) */
+    @Override
+    public MappedBars range(int fromDate, int toDate) {
+        int lo = Math.max(from, lowerBound(fromDate));
+        int hi = toDate == Integer.MAX_VALUE ? to : Math.min(to, lowerBound(toDate + 1));
+        if (hi < lo) hi = lo;
+        return new MappedBars(symbol, name, timeframe, records, forming, index, committed, lo, hi);
+    }
+
+    /** 최근 count 개 봉 뷰 (복사 없음) */
+    @Override
+    public MappedBars tail(int count) {
+        if (count >= size()) return this;
+        int n = Math.max(0, count);
+        return new MappedBars(symbol, name, timeframe, records, forming, index, committed, to - n, to);
+    }
+
+    /** 힙 배열로 복사 (캐시에 넣거나 파일을 닫은 뒤에도 써야 할 때만) */
+    @Override
+    public ChartSeries compact() {
+        ChartSeries.Builder b = new ChartSeries.Builder(size()).symbol(symbol).name(name).timeframe(timeframe);
+        for (int i = 0, n = size(); i < n; i++) {
+            b.add(date(i), open(i), high(i), low(i), close(i), volume(i));
+        }
+        return b.build();
+    }
+
+    /** 파일 전체 기준으로 date 이상인 첫 봉 번호 (없으면 total) */
+    private int lowerBound(int date) {
+        int k = committedLowerBound(date);
+        return k == committed && forming != null && forming.getInt(0) < date ? total : k;
+    }
+
+    /** 확정 구간에서 date 이상인 첫 봉 번호 (없으면 committed) */
+    private int committedLowerBound(int date) {
+        // 1) 힙 인덱스에서 블록을 고르고 2) 블록(최대 INDEX_STRIDE 봉) 안에서만 맵 버퍼를 이진 탐색
+        int lo = 0, hi = index.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (index[mid] < date) lo = mid + 1;
+            else hi = mid;
+        }
+        if (lo == 0) return 0;
+        int start = (lo - 1) * INDEX_STRIDE;
+        int end = Math.min(committed, lo * INDEX_STRIDE);
+        while (start < end) {
+            int mid = (start + end) >>> 1;
+            if (records.getInt(mid * MappedChartHistoryStore.RECORD_SIZE) < date) start = mid + 1;
+            else end = mid;
+        }
+        return start;
+    }
+
+    private ByteBuffer buffer(int i) {
+        return from + i < committed ? records : forming;
+    }
+
+    private int offset(int i) {
+        int k = from + i;
+        return k < committed ? k * MappedChartHistoryStore.RECORD_SIZE : 0;
+    }
+
+    private static int[] buildIndex(ByteBuffer records, int total) {
+        int[] index = new int[(total + INDEX_STRIDE - 1) / INDEX_STRIDE];
+        for (int k = 0; k < index.length; k++) {
+            index[k] = records.getInt(k * INDEX_STRIDE * MappedChartHistoryStore.RECORD_SIZE);
+        }
+        return index;
+    }
+}
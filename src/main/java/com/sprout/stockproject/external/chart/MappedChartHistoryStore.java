@@ -0,0 +1,314 @@
+package com.sprout.stockproject.external.chart;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 메모리 맵 기반 추가 전용 봉 저장소: {root}/{timeframe}/{symbol}.ohlcv
+ * <pre>
+ * 헤더 192바이트: magic, 레코드 크기, 확정 봉 수, 플래그(전체 이력·형성 중 봉), 동기화 시각, 종목명(UTF-8),
+ *               형성 중 봉 칸(레코드 1개, 오프셋 128)
+ * 레코드 44바이트: date int, open/high/low/close/volume long
+ * </pre>
+ * - 마지막 봉은 장중에 계속 바뀌므로 확정 구간에 넣지 않고 헤더의 형성 중 봉 칸에 둔다.
+ * - 읽기: 파일을 FileChannel.map 으로 매핑한 MappedBars 뷰를 돌려준다 (이력이 힙 밖 페이지 캐시에 있음).
+ *   날짜 인덱스는 64봉마다 날짜 하나만 힙에 두고, 형성 중 봉은 열 때 힙으로 복사한다.
+ * - 쓰기: 확정된 봉은 제자리에서 고치지 않는다. 확정 봉이 모두 그대로면
+ *   장중 갱신(마지막 봉만 바뀜)은 헤더 하나만 다시 쓰고, 새 봉이 생기면(다음 날) 확정 구간 뒤에 이어 쓴 뒤
+ *   데이터 → 헤더(확정 봉 수·형성 중 봉) 순서로 fsync 한다. 확정 봉이 하나라도 바뀌었으면(수정주가 등)
+ *   임시 파일 + rename 으로 통째로 교체한다 (이미 열린 매핑은 이전 파일을 계속 본다).
+ * - 복구: 헤더의 확정 봉 수 뒤에 남은 바이트(쓰다 만 봉)는 무시하고 다음 쓰기 때 잘라낸다.
+ *   확정 봉 수가 파일보다 크거나 날짜가 오름차순이 아닌 봉이 나오면 그 앞까지만 유효로 보고,
+ *   이때는 바로 앞 봉을 알 수 없으므로 형성 중 봉도 버린다.
+ * chart.history.engine=stream 이면 FileChartHistoryStore 를 대신 쓴다.
+ */
+@Component
+@ConditionalOnProperty(name = "chart.history.engine", havingValue = "mapped", matchIfMissing = true)
+public class MappedChartHistoryStore implements ChartHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedChartHistoryStore.class);
+
+    static final int MAGIC = 0x4F484C32; // "OHL2" (OHL1 은 형성 중 봉 칸이 없던 형식, 없는 것으로 보고 다시 받음)
+    static final int HEADER_SIZE = 192;
+    static final int RECORD_SIZE = Integer.BYTES + 5 * Long.BYTES;
+    private static final int NAME_OFFSET = 26;
+    static final int FORMING_OFFSET = 128;
+    private static final int MAX_NAME_BYTES = FORMING_OFFSET - NAME_OFFSET;
+    private static final int FLAG_COMPLETE = 1;
+    private static final int FLAG_FORMING = 2;
+    private static final int WRITE_CHUNK = 1024;
+
+    /** forming: 형성 중 봉 레코드(RECORD_SIZE 바이트 힙 버퍼), 없으면 null */
+    private record Header(int count, boolean complete, Instant syncedAt, String name, ByteBuffer forming) {}
+
+    /** 열어 둔 파일: 헤더 + 매핑 뷰 (확정 봉 수는 복구 후 값) */
+    private record Opened(Header header, MappedBars bars) {}
+
+    private final Path root;
+    private final int maxOpenFiles;
+    private final Map<Path, Opened> opened;
+    // save() 마다 올리는 파일별 세대 (opened 락으로 보호). 열던 중에 저장이 끼면 그 뷰는 캐시에 넣지 않는다
+    private final Map<Path, Long> generations = new HashMap<>();
+    // 쓰기(fsync 포함) 동안 잡는 파일별 락. 가상 스레드가 캐리어를 고정하지 않도록 ReentrantLock
+    private final ConcurrentHashMap<Path, ReentrantLock> writeLocks = new ConcurrentHashMap<>();
+
+    public MappedChartHistoryStore(@Value("${chart.history.root:data/chart}") String rootDir,
+                                   @Value("${chart.history.max-open-files:4096}") int maxOpenFiles) {
+        this.root = Path.of(rootDir);
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+        // 매핑은 GC 때 해제되므로 뷰 캐시 크기로 동시에 잡아 두는 매핑 수를 제한
+        this.opened = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Opened> eldest) {
+                return size() > MappedChartHistoryStore.this.maxOpenFiles;
+            }
+        };
+    }
+
+    /** 이력은 힙에 복사하지 않은 파일 위 뷰 (호출 측이 필요한 구간만 compact) */
+    @Override
+    public StoredHistory load(String symbol, String timeframe) {
+        Opened o = open(symbol, timeframe);
+        if (o == null) return null;
+        return new StoredHistory(o.bars(), o.header().syncedAt(), o.header().complete());
+    }
+
+    /** 힙 복사 없는 파일 위 뷰 (없으면 null) */
+    @Override
+    public MappedBars read(String symbol, String timeframe) {
+        Opened o = open(symbol, timeframe);
+        return o == null ? null : o.bars();
+    }
+
+    @Override
+    public void save(StoredHistory history) {
+        Bars s = history.series();
+        Path target = path(s.symbol(), s.timeframe());
+        ReentrantLock lock = writeLocks.computeIfAbsent(target, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            Files.createDirectories(target.getParent());
+            // 마지막 봉은 형성 중 봉 칸으로, 그 앞까지만 확정
+            int committed = Math.max(0, s.size() - 1);
+            ByteBuffer forming = s.isEmpty() ? null : formingRecord(s, s.size() - 1);
+            Header header = new Header(committed, history.complete(), history.syncedAt(), s.name(), forming);
+            if (!appendInPlace(target, s, header)) rewrite(target, s, header);
+        } catch (IOException e) {
+            throw new RuntimeException("Chart history save failed: " + s.symbol() + "/" + s.timeframe(), e);
+        } finally {
+            synchronized (opened) {
+                opened.remove(target);
+                generations.merge(target, 1L, Long::sum);
+            }
+            lock.unlock();
+        }
+    }
+
+    private Opened open(String symbol, String timeframe) {
+        Path p = path(symbol, timeframe);
+        long generation;
+        synchronized (opened) {
+            Opened o = opened.get(p);
+            if (o != null) return o;
+            generation = generations.getOrDefault(p, 0L);
+        }
+        if (!Files.exists(p)) return null;
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            Header h = readHeader(ch);
+            if (h == null) return null;
+            int count = committedCount(ch, h);
+            // 매핑은 채널을 닫아도 유효
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * RECORD_SIZE);
+            int valid = validPrefix(map, count);
+            ByteBuffer forming = h.forming();
+            if (valid < h.count()) {
+                log.warn("[ChartHistory] {} recovered {} of {} committed bars", p, valid, h.count());
+                forming = null;
+            } else if (forming != null && valid > 0 && forming.getInt(0) <= map.getInt((valid - 1) * RECORD_SIZE)) {
+                forming = null;
+            }
+            Opened o = new Opened(new Header(valid, h.complete(), h.syncedAt(), h.name(), forming),
+                    new MappedBars(symbol, h.name(), timeframe, map, valid, forming));
+            synchronized (opened) {
+                // 매핑하는 동안 save() 가 지나갔으면 이전 파일을 봤을 수 있으므로 이번 호출에만 쓴다
+                if (generations.getOrDefault(p, 0L) == generation) opened.put(p, o);
+            }
+            return o;
+        } catch (IOException e) {
+            // 깨진 파일은 없는 것으로 보고 전체를 다시 받는다
+            log.warn("[ChartHistory] {} unreadable: {}", p, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 확정 봉이 모두 새 이력의 앞부분과 같으면 새로 확정된 봉만 이어 쓰고 헤더(형성 중 봉 포함)를 다시 쓴다.
+     * 장중 갱신처럼 확정 봉 수가 그대로면 헤더 쓰기 한 번으로 끝난다.
+     * 확정 구간의 봉이 하나라도 달라졌거나 확정 봉 수가 줄었으면 false (rewrite).
+     */
+    private boolean appendInPlace(Path target, Bars s, Header header) throws IOException {
+        if (!Files.exists(target)) return false;
+        try (FileChannel ch = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Header old = readHeader(ch);
+            if (old == null) return false;
+            int n = committedCount(ch, old);
+            if (header.count() < n) return false;
+
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) n * RECORD_SIZE);
+            n = validPrefix(map, n);
+            int k = 0;
+            while (k < n && sameRecord(map, k, s)) k++;
+            // 확정 구간을 제자리에서 고치면 쓰다 죽었을 때 헤더가 덮는 봉이 깨지고, 열린 뷰도 쓰는 중인 봉을 읽는다
+            if (k < n) return false;
+
+            // 확정되지 않은 꼬리(쓰다 만 봉) 제거 후 확정 구간 뒤에 새로 확정된 봉만 기록
+            long committedEnd = HEADER_SIZE + (long) n * RECORD_SIZE;
+            if (ch.size() > committedEnd) ch.truncate(committedEnd);
+            if (header.count() > n) {
+                writeRecords(ch, s, n, header.count());
+                ch.force(false);
+            }
+            // 데이터가 디스크에 내려간 뒤에 봉 수를 올린다 (중간에 죽으면 이전 봉 수 기준으로 읽힘)
+            writeHeader(ch, header);
+            ch.force(false);
+            return true;
+        }
+    }
+
+    private void rewrite(Path target, Bars s, Header header) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeRecords(ch, s, 0, header.count());
+            writeHeader(ch, header);
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeRecords(FileChannel ch, Bars s, int from, int to) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(Math.min(Math.max(to - from, 1), WRITE_CHUNK) * RECORD_SIZE);
+        long pos = HEADER_SIZE + (long) from * RECORD_SIZE;
+        for (int i = from; i < to; ) {
+            buf.clear();
+            for (; i < to && buf.remaining() >= RECORD_SIZE; i++) putRecord(buf, s, i);
+            buf.flip();
+            while (buf.hasRemaining()) pos += ch.write(buf, pos);
+        }
+    }
+
+    private static void writeHeader(FileChannel ch, Header h) throws IOException {
+        byte[] name = nameBytes(h.name());
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE);
+        int flags = (h.complete() ? FLAG_COMPLETE : 0) | (h.forming() != null ? FLAG_FORMING : 0);
+        buf.putInt(MAGIC).putInt(RECORD_SIZE).putInt(h.count()).putInt(flags)
+                .putLong(h.syncedAt().toEpochMilli()).putShort((short) name.length).put(name);
+        if (h.forming() != null) buf.put(FORMING_OFFSET, h.forming(), 0, RECORD_SIZE);
+        buf.clear();
+        long pos = 0;
+        while (buf.hasRemaining()) pos += ch.write(buf, pos);
+    }
+
+    /** 매직·레코드 크기가 맞지 않으면 null */
+    private static Header readHeader(FileChannel ch) throws IOException {
+        if (ch.size() < HEADER_SIZE) return null;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE);
+        long pos = 0;
+        while (buf.hasRemaining()) {
+            int r = ch.read(buf, pos);
+            if (r < 0) return null;
+            pos += r;
+        }
+        buf.flip();
+        if (buf.getInt() != MAGIC || buf.getInt() != RECORD_SIZE) return null;
+        int count = buf.getInt();
+        int flags = buf.getInt();
+        Instant syncedAt = Instant.ofEpochMilli(buf.getLong());
+        int nameLen = Math.min(buf.getShort(), MAX_NAME_BYTES);
+        String name = new String(buf.array(), NAME_OFFSET, Math.max(0, nameLen), StandardCharsets.UTF_8);
+        ByteBuffer forming = null;
+        if ((flags & FLAG_FORMING) != 0 && buf.getInt(FORMING_OFFSET) > 0) {
+            forming = ByteBuffer.allocate(RECORD_SIZE).put(0, buf, FORMING_OFFSET, RECORD_SIZE);
+        }
+        return new Header(Math.max(0, count), (flags & FLAG_COMPLETE) != 0, syncedAt, name, forming);
+    }
+
+    /** 헤더의 확정 봉 수와 파일 안에 온전히 들어 있는 봉 수 중 작은 값 */
+    private static int committedCount(FileChannel ch, Header h) throws IOException {
+        long whole = (ch.size() - HEADER_SIZE) / RECORD_SIZE;
+        return (int) Math.min(h.count(), whole);
+    }
+
+    /** 날짜가 양수이고 엄격히 오름차순인 앞부분 봉 수 */
+    private static int validPrefix(ByteBuffer records, int count) {
+        int prev = 0;
+        for (int i = 0; i < count; i++) {
+            int date = records.getInt(i * RECORD_SIZE);
+            if (date <= prev) return i;
+            prev = date;
+        }
+        return count;
+    }
+
+    private static void putRecord(ByteBuffer buf, Bars s, int i) {
+        buf.putInt(s.date(i)).putLong(s.open(i)).putLong(s.high(i)).putLong(s.low(i))
+                .putLong(s.close(i)).putLong(s.volume(i));
+    }
+
+    /** s 의 i 번 봉 레코드 (헤더의 형성 중 봉 칸용) */
+    private static ByteBuffer formingRecord(Bars s, int i) {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+        putRecord(buf, s, i);
+        return buf.clear();
+    }
+
+    private static boolean sameRecord(ByteBuffer records, int i, Bars s) {
+        int off = i * RECORD_SIZE;
+        return records.getInt(off) == s.date(i)
+                && records.getLong(off + 4) == s.open(i)
+                && records.getLong(off + 12) == s.high(i)
+                && records.getLong(off + 20) == s.low(i)
+                && records.getLong(off + 28) == s.close(i)
+                && records.getLong(off + 36) == s.volume(i);
+    }
+
+    /** 헤더 칸에 들어가도록 글자 단위로 자른 UTF-8 */
+    private static byte[] nameBytes(String name) {
+        if (name == null) return new byte[0];
+        String n = name;
+        byte[] bytes = n.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > MAX_NAME_BYTES) {
+            n = n.substring(0, n.offsetByCodePoints(n.length(), -1));
+            bytes = n.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    private Path path(String symbol, String timeframe) {
+        return root.resolve(timeframe).resolve(symbol + ".ohlcv");
+    }
+}
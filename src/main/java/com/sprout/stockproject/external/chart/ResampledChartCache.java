@@ -0,0 +1,60 @@
+package com.sprout.stockproject.external.chart;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * (종목, 주/월)별 BarResampler 보관소 (LRU).
+ * 같은 종목의 일봉이 다시 들어오면 마지막으로 반영한 일봉 날짜부터만 이어서 넣으므로,
+ * 주봉·월봉 요청은 일봉 캐시 조회 + 마지막 봉 몇 개 갱신으로 끝난다.
+ * 일봉 이력이 다시 쓰였으면(revision 변경, 수정주가 반영 등) 이전에 묶은 봉은 버리고 처음부터 묶는다.
+ */
+@Component
+public class ResampledChartCache {
+
+    private record Key(String symbol, BarResampler.Period period) {}
+
+    private record Entry(BarResampler resampler, int revision) {}
+
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+
+    public ResampledChartCache(@Value("${chart.resample.max-entries:2000}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > ResampledChartCache.this.maxEntries;
+            }
+        };
+    }
+
+    /** daily(날짜 오름차순 일봉, 일봉 이력 revision)로 최근 count 개 주/월봉 */
+    public ChartSeries resample(Bars daily, int revision, BarResampler.Period period, int count) {
+        Key key = new Key(daily.symbol(), period);
+        BarResampler r;
+        synchronized (this) {
+            Entry e = entries.get(key);
+            // 이력이 다시 쓰였거나 더 이른 일봉이 들어왔으면(더 긴 기간 요청) 처음부터 다시 묶는다
+            if (e == null || e.revision() != revision
+                    || (!daily.isEmpty() && daily.date(0) < e.resampler().firstDailyDate())) {
+                e = new Entry(new BarResampler(period, daily.symbol(), daily.name()), revision);
+                entries.put(key, e);
+            }
+            r = e.resampler();
+        }
+        synchronized (r) {
+            r.name(daily.name());
+            int last = r.lastDailyDate();
+            r.acceptAll(last == 0 ? daily : daily.range(last, Integer.MAX_VALUE));
+            return r.snapshot(count);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
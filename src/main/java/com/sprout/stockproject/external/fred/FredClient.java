@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -47,11 +48,17 @@ public class FredClient {
 
     /** Returns last N observations (ascending by date). May return fewer if not available. */
     public List<FredPoint> lastN(String seriesId, int n) {
-        List<FredPoint> desc = fetch(seriesId, n);
-        // API returns newest-first; reverse to ascending for easier calculations
-        List<FredPoint> asc = new ArrayList<>(desc);
-        Collections.reverse(asc);
-        return asc;
+        return lastNAsync(seriesId, n).block();
+    }
+
+    /** Non-blocking variant of {@link #lastN(String, int)}. */
+    public Mono<List<FredPoint>> lastNAsync(String seriesId, int n) {
+        return fetchAsync(seriesId, n).map(desc -> {
+            // API returns newest-first; reverse to ascending for easier calculations
+            List<FredPoint> asc = new ArrayList<>(desc);
+            Collections.reverse(asc);
+            return asc;
+        });
     }
 
     /**
@@ -84,9 +91,14 @@ public class FredClient {
 
     /** Fetches newest-first observations and parses into FredPoint list. */
     private List<FredPoint> fetch(String seriesId, int limit) {
-        ensureApiKey();
-        try {
-            String raw = webClient.get()
+        return fetchAsync(seriesId, limit).block();
+    }
+
+    /** Non-blocking fetch; the event loop is released while waiting for FRED. */
+    private Mono<List<FredPoint>> fetchAsync(String seriesId, int limit) {
+        return Mono.defer(() -> {
+            ensureApiKey();
+            return webClient.get()
                     .uri(uri -> uri.path("/fred/series/observations")
                             .queryParam("series_id", seriesId)
                             .queryParam("api_key", apiKey)
@@ -96,9 +108,15 @@ public class FredClient {
                             .build())
                     .retrieve()
                     .bodyToMono(String.class)
-                    .block();
+                    .map(this::parseObservations)
+                    .defaultIfEmpty(List.of())
+                    .onErrorMap(e -> new RuntimeException("FredClient.fetch failed: " + e.getMessage(), e));
+        });
+    }
 
-            if (raw == null || raw.isBlank()) return List.of();
+    private List<FredPoint> parseObservations(String raw) {
+        if (raw.isBlank()) return List.of();
+        try {
             JsonNode root = objectMapper.readTree(raw);
             JsonNode observations = root.path("observations");
             if (!observations.isArray()) return List.of();
@@ -113,7 +131,7 @@ public class FredClient {
             // Already newest-first by sort_order. Keep as is for latestValue; reverse in lastN.
             return out;
         } catch (Exception e) {
-            throw new RuntimeException("FredClient.fetch failed: " + e.getMessage(), e);
+            throw new RuntimeException(e.getMessage(), e);
         }
     }
 
@@ -0,0 +1,200 @@
+package com.sprout.stockproject.repository;
+
+import com.sprout.stockproject.entity.StockInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * stockinfo 테이블 대량 적재용 JDBC 저장소.
+ * - 기존 종목(이름·시장·소속부·업종·상장주식수·시가총액)을 한 번에 읽어 메모리에서 신규/변경/수치만 변경/동일을 구분
+ * - 업종이 null 인 입력 행(업종분류를 받지 못한 적재, CSV)은 저장된 업종을 그대로 쓴다
+ * - 종목 정보(이름·시장·소속부·업종)가 바뀐 경우만 updated_at 을 올린다. 매일 바뀌는 상장주식수·시가총액만
+ *   달라졌으면 updated_at 을 그대로 두고 두 열과 figures_updated_at 만 고친다
+ *   (마스터 변경 이벤트·검색 인덱스 재구성은 종목 정보 변경에만, since= 증분 내보내기는 두 시각 모두를 본다)
+ * - INSERT/UPDATE 를 JDBC batch 로 묶고, batchSize 단위로 트랜잭션을 나눠 커밋
+ * (청크 단위 커밋이라 적재 중에도 커넥션 풀을 오래 점유하지 않음)
+ */
+@Repository
+public class StockInfoJdbcRepository {
+
+    private static final String SELECT_ALL =
+            "SELECT stock_code, stock_name, market, sector, industry, listed_shares, market_cap FROM stockinfo";
+    private static final String SELECT_CODES =
+            "SELECT stock_code FROM stockinfo";
+    private static final String INSERT =
+            "INSERT INTO stockinfo (stock_name, market, sector, industry, listed_shares, market_cap, updated_at, figures_updated_at,"
+                    + " stock_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE stockinfo SET stock_name = ?, market = ?, sector = ?, industry = ?, listed_shares = ?, market_cap = ?,"
+                    + " updated_at = ?, figures_updated_at = ? WHERE stock_code = ?";
+    private static final String UPDATE_FIGURES =
+            "UPDATE stockinfo SET listed_shares = ?, market_cap = ?, figures_updated_at = ? WHERE stock_code = ?";
+    // INSERT/UPDATE 공통 파라미터 타입 (CSV 행은 시장/시총이 null 이므로 타입을 명시)
+    private static final int[] ARG_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR
+    };
+    private static final int[] FIGURE_ARG_TYPES = {Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.VARCHAR};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+
+    public StockInfoJdbcRepository(JdbcTemplate jdbc,
+                                   PlatformTransactionManager txManager,
+                                   @Value("${stockinfo.bulk.batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /** 청크(트랜잭션) 1개당 행 수 */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 결과 요약 (처리 건수 + 소요 시간).
+     * updated: 종목 정보가 바뀐 종목 (updated_at 갱신), refreshed: 상장주식수·시가총액만 바뀐 종목 (figures_updated_at 만 갱신)
+     */
+    public record UpsertResult(int inserted, int updated, int refreshed, int unchanged, long elapsedMillis) {
+        public int total() { return inserted + updated + refreshed + unchanged; }
+        public double rowsPerSecond() {
+            return elapsedMillis <= 0 ? total() * 1000.0 : total() * 1000.0 / elapsedMillis;
+        }
+    }
+
+    /** 기존 종목코드 전체 (쿼리 1회, 중복 체크용) */
+    public Set<String> loadCodes() {
+        Set<String> out = new HashSet<>();
+        jdbc.query(SELECT_CODES, rs -> {
+            out.add(rs.getString(1));
+        });
+        return out;
+    }
+
+    /** 종목코드 → 저장된 종목 값 전체 맵 (쿼리 1회, id/updatedAt 제외) */
+    public Map<String, StockInfo> loadExisting() {
+        Map<String, StockInfo> out = new HashMap<>();
+        jdbc.query(SELECT_ALL, rs -> {
+            StockInfo s = new StockInfo(rs.getString(2), rs.getString(1));
+            s.setMarket(rs.getString(3));
+            s.setSector(rs.getString(4));
+            s.setIndustry(rs.getString(5));
+            s.setListedShares(rs.getObject(6, Long.class));
+            s.setMarketCap(rs.getObject(7, Long.class));
+            out.put(s.getStockCode(), s);
+        });
+        return out;
+    }
+
+    /**
+     * 코드 기준 upsert. 기존 종목을 한 번만 읽고,
+     * 신규는 batch INSERT, 종목 정보(이름/시장/소속부/업종)가 바뀐 종목은 batch UPDATE (updated_at 갱신),
+     * 상장주식수/시가총액만 바뀐 종목은 그 두 열과 figures_updated_at 만 batch UPDATE (updated_at 유지).
+     */
+    public UpsertResult upsert(List<StockInfo> rows) {
+        long started = System.currentTimeMillis();
+        Map<String, StockInfo> existing = loadExisting();
+
+        List<StockInfo> inserts = new ArrayList<>();
+        List<StockInfo> updates = new ArrayList<>();
+        List<StockInfo> refreshes = new ArrayList<>();
+        int unchanged = 0;
+        for (StockInfo row : rows) {
+            StockInfo current = existing.get(row.getStockCode());
+            if (current != null && row.getIndustry() == null) row.setIndustry(current.getIndustry());
+            if (current == null) {
+                inserts.add(row);
+                existing.put(row.getStockCode(), row); // 입력 내 중복 코드 방지
+            } else if (!sameIdentity(current, row)) {
+                updates.add(row);
+            } else if (!sameFigures(current, row)) {
+                refreshes.add(row);
+            } else {
+                unchanged++;
+            }
+        }
+
+        insertBatch(inserts);
+        updateBatch(updates);
+        refreshFigures(refreshes);
+        return new UpsertResult(inserts.size(), updates.size(), refreshes.size(), unchanged,
+                System.currentTimeMillis() - started);
+    }
+
+    /** batchSize 단위 청크별 트랜잭션으로 INSERT */
+    public int insertBatch(List<StockInfo> rows) {
+        return executeChunked(INSERT, rows);
+    }
+
+    /** batchSize 단위 청크별 트랜잭션으로 종목 값 UPDATE */
+    public int updateBatch(List<StockInfo> rows) {
+        return executeChunked(UPDATE, rows);
+    }
+
+    /** batchSize 단위 청크별 트랜잭션으로 상장주식수·시가총액만 UPDATE (updated_at 유지, figures_updated_at 갱신) */
+    public int refreshFigures(List<StockInfo> rows) {
+        int done = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<StockInfo> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            tx.executeWithoutResult(status -> {
+                Timestamp now = Timestamp.from(Instant.now());
+                List<Object[]> args = new ArrayList<>(chunk.size());
+                for (StockInfo s : chunk) {
+                    args.add(new Object[]{s.getListedShares(), s.getMarketCap(), now, s.getStockCode()});
+                }
+                jdbc.batchUpdate(UPDATE_FIGURES, args, FIGURE_ARG_TYPES);
+            });
+            done += chunk.size();
+        }
+        return done;
+    }
+
+    private int executeChunked(String sql, List<StockInfo> rows) {
+        int done = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<StockInfo> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            tx.executeWithoutResult(status -> {
+                // updated_at 은 청크마다 커밋 직전에 찍는다 (적재 시작 시각으로 찍으면 늦게 커밋된 청크가 증분 커서보다 과거가 됨)
+                Timestamp now = Timestamp.from(Instant.now());
+                List<Object[]> args = new ArrayList<>(chunk.size());
+                for (StockInfo s : chunk) {
+                    args.add(new Object[]{s.getStockName(), s.getMarket(), s.getSector(), s.getIndustry(),
+                            s.getListedShares(), s.getMarketCap(), now, now, s.getStockCode()});
+                }
+                jdbc.batchUpdate(sql, args, ARG_TYPES);
+            });
+            done += chunk.size();
+        }
+        return done;
+    }
+
+    /** 검색 인덱스·증분 동기화 대상이 되는 종목 정보 */
+    private static boolean sameIdentity(StockInfo a, StockInfo b) {
+        return Objects.equals(a.getStockName(), b.getStockName())
+                && Objects.equals(a.getMarket(), b.getMarket())
+                && Objects.equals(a.getSector(), b.getSector())
+                && Objects.equals(a.getIndustry(), b.getIndustry());
+    }
+
+    /** 시세에 따라 매일 바뀌는 수치 */
+    private static boolean sameFigures(StockInfo a, StockInfo b) {
+        return Objects.equals(a.getListedShares(), b.getListedShares())
+                && Objects.equals(a.getMarketCap(), b.getMarketCap());
+    }
+}
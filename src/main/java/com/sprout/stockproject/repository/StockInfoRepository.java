@@ -1,16 +1,23 @@
 package com.sprout.stockproject.repository;
 
 import com.sprout.stockproject.entity.StockInfo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StockInfoRepository extends JpaRepository<StockInfo, Long> {
+public interface StockInfoRepository extends JpaRepository<StockInfo, Long>, JpaSpecificationExecutor<StockInfo> {
 
     /** 종목명으로 정확히 일치하는 주식 조회 */
     Optional<StockInfo> findByStockName(String stockName);
@@ -27,4 +34,17 @@ public interface StockInfoRepository extends JpaRepository<StockInfo, Long> {
     /** 종목명 또는 종목코드에서 키워드 통합 검색 */
     @Query("SELECT s FROM StockInfo s WHERE s.stockName LIKE %:keyword% OR s.stockCode LIKE %:keyword%")
     List<StockInfo> findByKeyword(@Param("keyword") String keyword);
+
+    /** 키셋 페이지: stock_code 오름차순, after 다음 코드부터 (OFFSET 없음) */
+    List<StockInfo> findByStockCodeGreaterThanOrderByStockCodeAsc(String after, Pageable page);
+
+    /** 전체 스트리밍 (서버측 커서, 트랜잭션 안에서만 사용) */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM StockInfo s ORDER BY s.stockCode")
+    Stream<StockInfo> streamAllOrderByStockCode();
+
+    /** since 이후 추가/변경된 종목 스트리밍 (증분 동기화, 상장주식수·시가총액만 바뀐 종목 포함) */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM StockInfo s WHERE s.updatedAt >= :since OR s.figuresUpdatedAt >= :since ORDER BY s.stockCode")
+    Stream<StockInfo> streamUpdatedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,28 @@
+package com.sprout.stockproject.scheduler;
+
+import com.sprout.stockproject.service.screener.DailyHistorySync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ChartHistoryScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ChartHistoryScheduler.class);
+
+    private final DailyHistorySync sync;
+
+    public ChartHistoryScheduler(DailyHistorySync sync) {
+        this.sync = sync;
+    }
+
+    // 평일 16:30 KST (16:00 종목 마스터 갱신 이후) - 전 종목 일봉 이력을 마감 봉까지 동기화 (스크리너용)
+    @Scheduled(cron = "0 30 16 * * MON-FRI", zone = "Asia/Seoul")
+    public void nightly() {
+        try {
+            log.info("[ChartHistoryScheduler][nightly] {}", sync.sync());
+        } catch (Exception e) {
+            log.error("[ChartHistoryScheduler][nightly] failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sprout.stockproject.scheduler;
+
+import com.sprout.stockproject.service.StockInfoFromKrx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class KrxScheduler {
+    private static final Logger log = LoggerFactory.getLogger(KrxScheduler.class);
+
+    private final StockInfoFromKrx krx;
+
+    public KrxScheduler(StockInfoFromKrx krx) {
+        this.krx = krx;
+    }
+
+    // 평일 16:00 KST (15:30 장 마감 후 KRX 일별 시세 확정분) - 종목 마스터 + 전 종목 시세표 1회 갱신
+    @Scheduled(cron = "0 0 16 * * MON-FRI", zone = "Asia/Seoul")
+    public void dailyClose() {
+        try {
+            log.info("[KrxScheduler][dailyClose] {}", krx.downloadFromKrx());
+        } catch (Exception e) {
+            log.error("[KrxScheduler][dailyClose] failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sprout.stockproject.scheduler;
+
+import com.sprout.stockproject.service.valuation.ValuationCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ValuationScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ValuationScheduler.class);
+
+    private final ValuationCollector collector;
+
+    public ValuationScheduler(ValuationCollector collector) {
+        this.collector = collector;
+    }
+
+    // 평일 18:30 KST (16:00 종목 마스터 갱신 이후) - 전 종목 PER·PBR·시가총액 수집
+    @Scheduled(cron = "0 30 18 * * MON-FRI", zone = "Asia/Seoul")
+    public void nightly() {
+        try {
+            log.info("[ValuationScheduler][nightly] {}", collector.collect());
+        } catch (Exception e) {
+            log.error("[ValuationScheduler][nightly] failed: {}", e.getMessage(), e);
+        }
+    }
+}
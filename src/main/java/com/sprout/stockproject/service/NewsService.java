@@ -3,6 +3,7 @@ package com.sprout.stockproject.service;
 
 import com.sprout.stockproject.external.NaverNewsClient;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -17,7 +18,7 @@ public class NewsService {
         this.naverNewsClient = naverNewsClient;
     }
 
-    public List<Map<String, Object>> searchNews(String keyword, int display, int start) {
-        return naverNewsClient.searchNews(keyword, display, start);
+    public Mono<List<Map<String, Object>>> searchNews(String keyword, int display, int start) {
+        return naverNewsClient.searchNewsAsync(keyword, display, start);
     }
 }
@@ -3,134 +3,321 @@ package com.sprout.stockproject.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sprout.stockproject.cache.StockMasterStatus;
 import com.sprout.stockproject.entity.StockInfo;
-import com.sprout.stockproject.repository.StockInfoRepository;
+import com.sprout.stockproject.repository.StockInfoJdbcRepository;
+import com.sprout.stockproject.service.market.KrxMarketHours;
+import com.sprout.stockproject.service.market.MarketSnapshot;
+import com.sprout.stockproject.service.market.MarketSnapshotStore;
+import com.sprout.stockproject.service.storage.KrxSnapshotStorage;
+import jakarta.annotation.PreDestroy;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class StockInfoFromKrx {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private final StockInfoRepository stockRepository;
+    private final StockInfoJdbcRepository bulkRepository;
+    private final KrxSnapshotStorage snapshotStorage;
+    private final StockMasterStatus status;
+    private final StockMasterPublisher masterPublisher;
+    private final MarketSnapshotStore marketStore;
 
-    public StockInfoFromKrx(StockInfoRepository stockRepository) {
-        this.restTemplate = new RestTemplate();
+    // 휴장일(빈 응답)이면 이전 평일로 거슬러 올라가는 최대 횟수 (설·추석 연휴 포함)
+    private static final int MAX_HOLIDAY_LOOKBACK = 7;
+
+    // 스케줄러·수동 호출이 겹치지 않게 직렬화. synchronized 와 달리 대기 중인 가상 스레드가 캐리어를 붙잡지 않음
+    private final ReentrantLock downloadLock = new ReentrantLock();
+
+    // 기동 스레드를 막지 않도록 KRX 적재는 전용 백그라운드 스레드에서 수행
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "krx-master-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public StockInfoFromKrx(StockInfoJdbcRepository bulkRepository,
+                            KrxSnapshotStorage snapshotStorage,
+                            StockMasterStatus status,
+                            StockMasterPublisher masterPublisher,
+                            MarketSnapshotStore marketStore) {
+        // HttpURLConnection 대신 JDK HttpClient 위에서 동작 (가상 스레드에서 블로킹해도 캐리어 고정 없음)
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build());
+        requestFactory.setReadTimeout(Duration.ofSeconds(60));
+        this.restTemplate = new RestTemplate(requestFactory);
         this.objectMapper = new ObjectMapper();
-        this.stockRepository = stockRepository;
+        this.bulkRepository = bulkRepository;
+        this.snapshotStorage = snapshotStorage;
+        this.status = status;
+        this.masterPublisher = masterPublisher;
+        this.marketStore = marketStore;
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
         System.out.println("=================================");
-        System.out.println("자동으로 KRX 데이터 다운로드를 시작합니다...");
+        System.out.println("KRX 종목 마스터 백그라운드 적재를 시작합니다...");
         System.out.println("=================================");
+        loader.submit(this::bootstrap);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
 
+    /** 1) 로컬 스냅샷 즉시 반영 → 2) KRX 최신 데이터로 증분 갱신 */
+    private void bootstrap() {
         try {
-            String result = downloadFromKrx();
-            System.out.println("자동 다운로드 결과: " + result);
+            KrxSnapshotStorage.Snapshot snapshot = snapshotStorage.load();
+            if (snapshot != null) {
+                LocalDate tradeDate = snapshot.tradeDate() != null
+                        ? snapshot.tradeDate()
+                        : KrxMarketHours.lastCompletedSession(snapshot.savedAt());
+                // 스냅샷에는 업종분류가 없으므로 저장된 업종을 유지 (industries = null)
+                StockInfoJdbcRepository.UpsertResult r = parseAndSaveData(snapshot.json(), null, tradeDate, snapshot.savedAt());
+                if (r != null && r.total() > 0) {
+                    status.loaded(StockMasterStatus.Phase.SNAPSHOT, "snapshot", r.total(), snapshot.savedAt());
+                    System.out.println("로컬 스냅샷 반영 완료: " + r.total() + "개 종목");
+                }
+            }
+            // 스냅샷이 없어도 DB 에 남은 종목으로 검색 인덱스 등을 먼저 구성
+            masterPublisher.publish("snapshot");
         } catch (Exception e) {
-            System.err.println("서버 시작 시 자동 다운로드 실패: " + e.getMessage());
+            System.err.println("로컬 스냅샷 반영 실패: " + e.getMessage());
         }
+
+        String result = downloadFromKrx();
+        System.out.println("자동 다운로드 결과: " + result);
     }
 
+    /**
+     * 마지막으로 마감된 거래일의 전 종목 데이터를 받아 종목 마스터와 시세표를 함께 갱신.
+     * 휴장일이라 응답이 비어 있으면 이전 평일로 거슬러 올라간다.
+     */
     public String downloadFromKrx() {
+        downloadLock.lock();
         try {
-            // KRX 종목정보 다운로드 URL
-            String url = "http://data.krx.co.kr/comm/bldAttendant/getJsonData.cmd";
-
-            // 현재 날짜 (YYYYMMDD 형식)
-            String searchDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-
-            // POST 요청 파라미터 설정
-            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-            params.add("bld", "dbms/MDC/STAT/standard/MDCSTAT01501");
-            params.add("locale", "ko_KR");
-            params.add("mktId", "ALL"); // 전체 시장
-            params.add("trdDd", searchDate);
-            params.add("money", "1");
-            params.add("csvxls_isNo", "false");
-
-            // 헤더 설정 - KRX 요청 시 필요한 헤더들
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.add("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            headers.add("Referer", "http://data.krx.co.kr/contents/MDC/MDI/mdiLoader/index.cmd?menuId=MDC0201");
+            Instant checkedAt = Instant.now();
+            LocalDate session = KrxMarketHours.lastCompletedSession(checkedAt);
 
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
-
-            // KRX API 호출
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+            for (int attempt = 0; attempt < MAX_HOLIDAY_LOOKBACK; attempt++) {
+                ResponseEntity<String> response = requestMarketData(session);
+                if (response.getStatusCode() != HttpStatus.OK) {
+                    status.failed("HTTP " + response.getStatusCode());
+                    return "KRX 데이터 다운로드 실패 - HTTP 상태: " + response.getStatusCode();
+                }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
                 String jsonData = response.getBody();
-                System.out.println("KRX 데이터 다운로드 성공!");
+                System.out.println("KRX 데이터 다운로드 성공! (거래일 " + session + ")");
                 System.out.println("응답 데이터 크기: " + (jsonData != null ? jsonData.length() : 0) + " 문자");
 
-                // JSON 데이터 파싱하여 데이터베이스에 저장
-                int savedCount = parseAndSaveData(jsonData);
+                // JSON 데이터 파싱하여 데이터베이스에 저장 (변경분만 반영) + 시세표 교체
+                StockInfoJdbcRepository.UpsertResult r = parseAndSaveData(jsonData, requestIndustries(session), session, checkedAt);
+                if (r == null || r.total() == 0) {
+                    // 휴장일 빈 응답은 마지막 정상 스냅샷을 덮어쓰지 않고 이전 평일로 재시도
+                    System.out.println(session + " 종목 데이터 없음 (휴장일 추정) - 이전 평일로 재시도");
+                    session = KrxMarketHours.previousWeekday(session);
+                    continue;
+                }
+
+                snapshotStorage.save(jsonData, session);
+                status.loaded(StockMasterStatus.Phase.READY, "krx", r.total(), Instant.now());
+                if (r.inserted() + r.updated() > 0) masterPublisher.publish("krx");
 
-                return String.format("KRX 데이터 다운로드 및 저장 성공 - 데이터 크기: %d 문자, 저장된 종목 수: %d개",
-                        (jsonData != null ? jsonData.length() : 0), savedCount);
-            } else {
-                return "KRX 데이터 다운로드 실패 - HTTP 상태: " + response.getStatusCode();
+                return String.format("KRX 데이터 다운로드 및 저장 성공 - 거래일: %s, 데이터 크기: %d 문자, 저장(추가+갱신)된 종목 수: %d개",
+                        session, jsonData.length(), r.inserted() + r.updated());
             }
 
+            status.failed("KRX 응답에 종목 데이터가 없습니다");
+            return "KRX 데이터 다운로드 실패 - 종목 데이터 없음";
+
         } catch (Exception e) {
             System.err.println("KRX 다운로드 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
+            status.failed(e.getMessage());
             return "KRX 다운로드 실패: " + e.getMessage();
+        } finally {
+            downloadLock.unlock();
         }
     }
 
-    private int parseAndSaveData(String jsonData) {
+    private ResponseEntity<String> requestMarketData(LocalDate tradeDate) {
+        return requestKrx("dbms/MDC/STAT/standard/MDCSTAT01501", "ALL", tradeDate); // 전체 시장
+    }
+
+    /**
+     * KRX 업종분류 현황(유가증권·코스닥)에서 종목코드 → 업종명(IDX_IND_NM).
+     * 받지 못하면 null (호출 측은 저장된 업종을 유지). KONEX 는 업종분류가 없다.
+     */
+    private Map<String, String> requestIndustries(LocalDate tradeDate) {
+        Map<String, String> out = new HashMap<>();
+        for (String mktId : List.of("STK", "KSQ")) {
+            try {
+                ResponseEntity<String> response = requestKrx("dbms/MDC/STAT/standard/MDCSTAT03901", mktId, tradeDate);
+                JsonNode outBlock = response.getStatusCode() == HttpStatus.OK && response.getBody() != null
+                        ? objectMapper.readTree(response.getBody()).get("OutBlock_1")
+                        : null;
+                if (outBlock == null || !outBlock.isArray() || outBlock.isEmpty()) {
+                    System.err.println("KRX 업종분류 응답 없음 (" + mktId + ") - 저장된 업종 유지");
+                    return null;
+                }
+                for (JsonNode node : outBlock) {
+                    String code = node.path("ISU_SRT_CD").asText("").trim();
+                    String industry = textOrNull(node, "IDX_IND_NM");
+                    if (!code.isEmpty() && industry != null) out.put(code, industry);
+                }
+            } catch (Exception e) {
+                System.err.println("KRX 업종분류 조회 실패 (" + mktId + "): " + e.getMessage() + " - 저장된 업종 유지");
+                return null;
+            }
+        }
+        return out;
+    }
+
+    private ResponseEntity<String> requestKrx(String bld, String mktId, LocalDate tradeDate) {
+        // KRX 종목정보 다운로드 URL
+        String url = "http://data.krx.co.kr/comm/bldAttendant/getJsonData.cmd";
+
+        // POST 요청 파라미터 설정
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("bld", bld);
+        params.add("locale", "ko_KR");
+        params.add("mktId", mktId);
+        params.add("trdDd", tradeDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")));
+        params.add("money", "1");
+        params.add("csvxls_isNo", "false");
+
+        // 헤더 설정 - KRX 요청 시 필요한 헤더들
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        headers.add("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+        headers.add("Referer", "http://data.krx.co.kr/contents/MDC/MDI/mdiLoader/index.cmd?menuId=MDC0201");
+
+        HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
+
+        // KRX API 호출
+        return restTemplate.postForEntity(url, request, String.class);
+    }
+
+    /**
+     * 파싱 실패 또는 OutBlock_1 이 없으면 null.
+     * industries 가 null 이거나 거기 없는 종목(KONEX 등)은 업종을 비워 두어 저장된 업종을 유지한다.
+     */
+    private StockInfoJdbcRepository.UpsertResult parseAndSaveData(String jsonData, Map<String, String> industries,
+                                                                  LocalDate tradeDate, Instant checkedAt) {
         try {
             JsonNode rootNode = objectMapper.readTree(jsonData);
             JsonNode outBlock = rootNode.get("OutBlock_1");
 
             if (outBlock != null && outBlock.isArray()) {
-                int savedCount = 0;
-                int duplicateCount = 0;
+                List<StockInfo> rows = new ArrayList<>(outBlock.size());
+                MarketSnapshot.Builder market = new MarketSnapshot.Builder(outBlock.size());
 
                 for (JsonNode stockNode : outBlock) {
-                    String stockCode = stockNode.get("ISU_SRT_CD").asText(); // 단축코드
-                    String stockName = stockNode.get("ISU_ABBRV").asText(); // 종목명 약어
+                    String stockCode = stockNode.path("ISU_SRT_CD").asText(""); // 단축코드
+                    String stockName = stockNode.path("ISU_ABBRV").asText(""); // 종목명 약어
 
                     // 종목코드가 유효한지 확인
-                    if (stockCode != null && !stockCode.trim().isEmpty() &&
-                            stockName != null && !stockName.trim().isEmpty()) {
-
-                        // 중복 체크
-                        if (!stockRepository.existsByStockCode(stockCode)) {
-                            StockInfo stockInfo = new StockInfo();
-                            stockInfo.setStockCode(stockCode);
-                            stockInfo.setStockName(stockName);
-                            stockRepository.save(stockInfo);
-                            savedCount++;
-                        } else {
-                            duplicateCount++;
-                        }
+                    if (!stockCode.isBlank() && !stockName.isBlank()) {
+                        StockInfo stock = new StockInfo(stockName.trim(), stockCode.trim());
+                        stock.setMarket(textOrNull(stockNode, "MKT_NM"));          // KOSPI/KOSDAQ/KONEX
+                        stock.setSector(textOrNull(stockNode, "SECT_TP_NM"));      // 소속부 (업종 아님)
+                        if (industries != null) stock.setIndustry(industries.get(stock.getStockCode()));
+                        stock.setListedShares(parseLong(stockNode, "LIST_SHRS"));  // 상장주식수
+                        stock.setMarketCap(parseLong(stockNode, "MKTCAP"));        // 시가총액(원)
+                        rows.add(stock);
+
+                        // 같은 행의 당일 시세는 메모리 시세표로
+                        market.add(stock.getStockCode(), stock.getStockName(), stock.getMarket(),
+                                longOrZero(stockNode, "TDD_CLSPRC"),
+                                signedChange(stockNode),
+                                parseDouble(stockNode, "FLUC_RT"),
+                                longOrZero(stockNode, "TDD_OPNPRC"),
+                                longOrZero(stockNode, "TDD_HGPRC"),
+                                longOrZero(stockNode, "TDD_LWPRC"),
+                                longOrZero(stockNode, "ACC_TRDVOL"),
+                                longOrZero(stockNode, "ACC_TRDVAL"),
+                                stock.getMarketCap() == null ? 0L : stock.getMarketCap());
                     }
                 }
 
-                System.out.println(String.format("데이터 처리 완료: %d개 저장, %d개 중복", savedCount, duplicateCount));
-                return savedCount;
+                // 기존 코드셋 1회 조회 후 batch INSERT/UPDATE (청크 단위 커밋)
+                StockInfoJdbcRepository.UpsertResult r = bulkRepository.upsert(rows);
+                System.out.println(String.format("데이터 처리 완료: %d개 추가, %d개 갱신, %d개 시총만 갱신, %d개 동일 (%d ms, %.0f rows/s)",
+                        r.inserted(), r.updated(), r.refreshed(), r.unchanged(), r.elapsedMillis(), r.rowsPerSecond()));
+                if (market.size() > 0) {
+                    marketStore.update(market.build(tradeDate, checkedAt));
+                    System.out.println("시세표 갱신 완료: " + tradeDate + " / " + market.size() + "개 종목");
+                }
+                return r;
             }
 
-            return 0;
+            return null;
         } catch (Exception e) {
             System.err.println("JSON 파싱 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
-            return 0;
+            return null;
+        }
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        String v = node.path(field).asText("").trim();
+        return v.isEmpty() || "-".equals(v) ? null : v;
+    }
+
+    private static long longOrZero(JsonNode node, String field) {
+        Long v = parseLong(node, field);
+        return v == null ? 0L : v;
+    }
+
+    private static double parseDouble(JsonNode node, String field) {
+        String v = textOrNull(node, field);
+        if (v == null) return 0.0;
+        try {
+            return Double.parseDouble(v.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    /** 전일 대비: 부호가 없으면 등락구분(FLUC_TP_CD 2 = 하락)으로 보정 */
+    private static long signedChange(JsonNode node) {
+        long v = longOrZero(node, "CMPPREVDD_PRC");
+        return v > 0 && "2".equals(node.path("FLUC_TP_CD").asText()) ? -v : v;
+    }
+
+    /** KRX 숫자 문자열("1,234,567") → Long. 비어 있거나 "-" 이면 null */
+    static Long parseLong(JsonNode node, String field) {
+        String v = textOrNull(node, field);
+        if (v == null) return null;
+        try {
+            return Long.parseLong(v.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 }
@@ -1,77 +1,81 @@
 package com.sprout.stockproject.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.sprout.stockproject.api.UnprocessableException;
 import com.sprout.stockproject.dto.StockDetailDto;
+import com.sprout.stockproject.entity.StockInfo;
 import com.sprout.stockproject.external.NaverMobileStockClient;
 import com.sprout.stockproject.external.NaverChartStockClient;
+import com.sprout.stockproject.external.StockSnapshot;
+import com.sprout.stockproject.repository.StockInfoRepository;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class StockInfoService {
 
     private final NaverMobileStockClient naverMobile;
     private final NaverChartStockClient chartClient;
+    private final StockInfoRepository stockRepository;
 
-    public StockInfoService(NaverMobileStockClient naverMobile, NaverChartStockClient chartClient) {
+    public StockInfoService(NaverMobileStockClient naverMobile, NaverChartStockClient chartClient,
+                            StockInfoRepository stockRepository) {
         this.naverMobile = naverMobile;
         this.chartClient = chartClient;
+        this.stockRepository = stockRepository;
     }
 
     public StockDetailDto fetch(String code) {
-        try {
-            // NaverMobile API로 상세 정보 가져오기 시도
-            String name = naverMobile.getStockName(code);
-            String price = naverMobile.getCurrentPrice(code);
-            String marketCap = naverMobile.getMarketValue(code);
-            String per = naverMobile.getPER(code);
-            String pbr = naverMobile.getPBR(code);
-            
-            if (name == null) {
-                throw new UnprocessableException("종목 기본 정보를 가져오지 못했습니다(잠시 후 재시도): code=" + code);
-            }
-            return new StockDetailDto(code, name, price, marketCap, per, pbr);
-        } catch (Exception e) {
-            // 폴백: 차트 API에서 최소 정보만 구성
-            JsonNode chart = chartClient.fetchDailyChart(code, 1);
-            String name = chart.path("name").asText(null);
-            String price = null;
-            JsonNode data = chart.path("data");
-            if (data != null && data.isArray() && data.size() > 0) {
-                JsonNode last = data.get(data.size() - 1);
-                price = last.path("close").asText(null);
-            }
-            if (name == null) {
-                throw new UnprocessableException("종목 기본 정보를 가져오지 못했습니다(잠시 후 재시도): code=" + code);
-            }
-            return new StockDetailDto(code, name, price, null, null, null);
-        }
+        return fetchAsync(code).block();
     }
 
-    private String text(JsonNode root, String field) {
-        JsonNode n = root.path(field);
-        return n.isMissingNode() ? null : n.asText(null);
+    /**
+     * 종목 상세. 로컬 DB 조회는 boundedElastic 에서, 네이버 통합 정보는 캐시 조회 또는 업스트림 1회로 받는다.
+     * 통합 정보를 못 받거나 종목명이 없으면 차트 API 최소 정보로 폴백.
+     */
+    public Mono<StockDetailDto> fetchAsync(String code) {
+        // 종목명·시가총액은 KRX 일괄 적재분(로컬 DB)에 있으면 그대로 사용
+        return Mono.fromCallable(() -> stockRepository.findByStockCode(code))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(found -> {
+                    StockInfo local = found.orElse(null);
+                    return naverMobile.fetchIntegrationAsync(code)
+                            .map(snap -> fromIntegration(code, snap, local))
+                            .onErrorResume(e -> fromChart(code, local));
+                });
     }
 
-    private String fromTotalInfos(JsonNode root, String code) {
-        JsonNode arr = root.path("totalInfos");
-        if (arr != null && arr.isArray()) {
-            for (JsonNode it : arr) {
-                if (code.equals(it.path("code").asText())) {
-                    return it.path("value").asText(null);
-                }
-            }
+    private StockDetailDto fromIntegration(String code, StockSnapshot snap, StockInfo local) {
+        String name = local != null ? local.getStockName() : snap.stockName();
+        if (name == null) {
+            throw new UnprocessableException("종목 기본 정보를 가져오지 못했습니다(잠시 후 재시도): code=" + code);
         }
-        return null;
+        String marketCap = local != null && local.getMarketCap() != null
+                ? formatKoreanWon(local.getMarketCap())
+                : snap.marketValue();
+        return new StockDetailDto(code, name, snap.closePrice(), marketCap, snap.per(), snap.pbr());
     }
 
-    private String fromDealTrendClose(JsonNode root) {
-        JsonNode deal = root.path("dealTrendInfos");
-        if (deal != null && deal.isArray() && deal.size() > 0) {
-            return deal.get(0).path("closePrice").asText(null);
-        }
-        return null;
+    /** 폴백: 차트 API에서 최소 정보만 구성 */
+    private Mono<StockDetailDto> fromChart(String code, StockInfo local) {
+        return chartClient.fetchSeriesAsync(code, "day", 1).map(chart -> {
+            String name = local != null ? local.getStockName() : chart.name();
+            Long close = chart.lastClose();
+            String price = close == null ? null : String.valueOf(close);
+            if (name == null) {
+                throw new UnprocessableException("종목 기본 정보를 가져오지 못했습니다(잠시 후 재시도): code=" + code);
+            }
+            String marketCap = local != null && local.getMarketCap() != null ? formatKoreanWon(local.getMarketCap()) : null;
+            return new StockDetailDto(code, name, price, marketCap, null, null);
+        });
     }
-}
-
 
+    /** 원 단위 금액 → 네이버 표기와 같은 "472조 3,455억" 형식 */
+    public static String formatKoreanWon(long won) {
+        long eok = won / 100_000_000L;
+        long jo = eok / 10_000L;
+        long rest = eok % 10_000L;
+        if (jo == 0) return String.format("%,d억", rest);
+        return rest == 0 ? String.format("%,d조", jo) : String.format("%,d조 %,d억", jo, rest);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sprout.stockproject.service;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.event.StockMasterChangedEvent;
+import com.sprout.stockproject.repository.StockInfoRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** 종목 마스터 전체를 1회 조회해 StockMasterChangedEvent 로 발행 */
+@Component
+public class StockMasterPublisher {
+
+    private final StockInfoRepository stockRepository;
+    private final ApplicationEventPublisher events;
+
+    public StockMasterPublisher(StockInfoRepository stockRepository, ApplicationEventPublisher events) {
+        this.stockRepository = stockRepository;
+        this.events = events;
+    }
+
+    public void publish(String source) {
+        List<StockInfo> all = List.copyOf(stockRepository.findAll());
+        events.publishEvent(new StockMasterChangedEvent(all, source));
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sprout.stockproject.dto.MacroQuadResponse;
 import com.sprout.stockproject.dto.StockDetailDto;
 import com.sprout.stockproject.prompt.PromptStore;
+import com.sprout.stockproject.service.valuation.ValuationService;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -22,8 +23,9 @@ public class StockOpinionLlmService {
     private final PromptStore prompts;
     private final ObjectMapper objectMapper;
     private final WebClient webClient;
+    private final ValuationService valuations;
 
-    @Value("${prompt.stock.opinion.version:stock-opinion-v1}")
+    @Value("${prompt.stock.opinion.version:stock-opinion-v2}")
     private String promptName;
 
     @Value("${openai.model:gpt-5}")
@@ -31,10 +33,12 @@ public class StockOpinionLlmService {
 
     public StockOpinionLlmService(PromptStore prompts,
                                   ObjectMapper objectMapper,
-                                  @Qualifier("openaiWebClient") WebClient openaiWebClient) {
+                                  @Qualifier("openaiWebClient") WebClient openaiWebClient,
+                                  ValuationService valuations) {
         this.prompts = prompts;
         this.objectMapper = objectMapper;
         this.webClient = openaiWebClient;
+        this.valuations = valuations;
     }
 
     public OpinionResult infer(MacroQuadResponse macro, StockDetailDto stock, String horizon, String risk) {
@@ -49,6 +53,8 @@ public class StockOpinionLlmService {
             if (stock.getPer() != null) stockMap.put("per", stock.getPer());
             if (stock.getPbr() != null) stockMap.put("pbr", stock.getPbr());
             input.put("stock", stockMap);
+            // 시장·업종 내 상대 밸류에이션 (야간 수집한 메모리 표, 업스트림 호출 없음)
+            valuations.find(stock.getCode()).ifPresent(v -> input.put("valuation", v));
             input.put("horizon", horizon);
             input.put("risk", risk);
 
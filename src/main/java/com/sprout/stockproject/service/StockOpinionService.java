@@ -6,6 +6,7 @@ import com.sprout.stockproject.dto.StockDetailDto;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
@@ -29,14 +30,15 @@ public class StockOpinionService {
         out.put("reasons", res.reasons());
         out.put("asOf", res.asOf());
         out.put("macroFacts", quad.facts());
-        out.put("stock", Map.of(
-                "code", stock.getCode(),
-                "name", stock.getName(),
-                "price", stock.getPrice(),
-                "marketCap", stock.getMarketCap(),
-                "per", stock.getPer(),
-                "pbr", stock.getPbr()
-        ));
+        // PER·PBR 이 없는 종목(적자·신규 상장 등)도 있으므로 null 을 허용하는 맵
+        Map<String, Object> stockOut = new LinkedHashMap<>();
+        stockOut.put("code", stock.getCode());
+        stockOut.put("name", stock.getName());
+        stockOut.put("price", stock.getPrice());
+        stockOut.put("marketCap", stock.getMarketCap());
+        stockOut.put("per", stock.getPer());
+        stockOut.put("pbr", stock.getPbr());
+        out.put("stock", stockOut);
         out.put("horizon", horizon);
         out.put("risk", risk);
         return out;
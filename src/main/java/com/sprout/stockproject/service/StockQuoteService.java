@@ -0,0 +1,116 @@
+package com.sprout.stockproject.service;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.external.NaverChartStockClient;
+import com.sprout.stockproject.external.chart.ChartSeries;
+import com.sprout.stockproject.service.market.MarketSnapshot;
+import com.sprout.stockproject.service.market.MarketSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * 여러 종목 현재가 일괄 조회.
+ * - 장 마감 후 메모리 시세표가 최신이면 거기서 바로, 차트 캐시에 있으면 캐시에서 바로 응답
+ * - 나머지만 업스트림으로 동시에 요청하되 동시 요청 수는 concurrency 로 제한 (논블로킹)
+ * - 종목별로 status 를 붙여 일부가 실패해도 나머지 결과는 그대로 돌려준다
+ */
+@Service
+public class StockQuoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockQuoteService.class);
+
+    private static final Pattern CODE = Pattern.compile("[A-Za-z0-9]{6}");
+
+    public enum Status { OK, NOT_FOUND, INVALID, TIMEOUT, ERROR }
+
+    /** source: snapshot(KRX 시세표) | chart(차트 마지막 봉), tradeDate: yyyy-MM-dd */
+    public record Quote(String stockCode, Status status, String stockName, Long price,
+                        String tradeDate, String source, String message) {
+
+        static Quote failed(String stockCode, Status status, String message) {
+            return new Quote(stockCode, status, null, null, null, null, message);
+        }
+    }
+
+    private final NaverChartStockClient chartClient;
+    private final MarketSnapshotStore marketStore;
+    private final int concurrency;
+    private final int maxSymbols;
+    private final Duration timeout;
+
+    public StockQuoteService(NaverChartStockClient chartClient,
+                             MarketSnapshotStore marketStore,
+                             @Value("${stock.quotes.concurrency:8}") int concurrency,
+                             @Value("${stock.quotes.max-symbols:100}") int maxSymbols,
+                             @Value("${stock.quotes.timeout-ms:3000}") long timeoutMs) {
+        this.chartClient = chartClient;
+        this.marketStore = marketStore;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxSymbols = Math.max(1, maxSymbols);
+        this.timeout = Duration.ofMillis(Math.max(1, timeoutMs));
+    }
+
+    /** 요청 순서대로 (중복 제거) 종목별 결과. 종목 수가 상한을 넘으면 422 */
+    public Mono<List<Quote>> quotes(List<String> stockCodes) {
+        Set<String> codes = new LinkedHashSet<>();
+        if (stockCodes != null) {
+            for (String c : stockCodes) {
+                if (c != null && !c.isBlank()) codes.add(c.trim());
+            }
+        }
+        if (codes.isEmpty()) throw new UnprocessableException("codes must not be empty");
+        if (codes.size() > maxSymbols) {
+            throw new UnprocessableException("too many codes: " + codes.size() + " (max " + maxSymbols + ")");
+        }
+
+        MarketSnapshot snapshot = marketStore.current();
+        boolean snapshotCurrent = snapshot.isCurrent(Instant.now());
+        return Flux.fromIterable(new ArrayList<>(codes))
+                .flatMapSequential(code -> quote(code, snapshot, snapshotCurrent), concurrency)
+                .collectList();
+    }
+
+    private Mono<Quote> quote(String code, MarketSnapshot snapshot, boolean snapshotCurrent) {
+        if (!CODE.matcher(code).matches()) {
+            return Mono.just(Quote.failed(code, Status.INVALID, "stock code must be 6 alphanumerics"));
+        }
+        int id = snapshot.indexOf(code);
+        if (id >= 0 && snapshotCurrent) {
+            return Mono.just(new Quote(code, Status.OK, snapshot.name(id), snapshot.close(id),
+                    snapshot.tradeDate().toString(), "snapshot", null));
+        }
+        return chartClient.fetchSeriesAsync(code, "day", 1)
+                .map(series -> fromChart(code, series))
+                .defaultIfEmpty(Quote.failed(code, Status.NOT_FOUND, "no chart data"))
+                .timeout(timeout)
+                .onErrorResume(TimeoutException.class,
+                        e -> Mono.just(Quote.failed(code, Status.TIMEOUT, "timed out after " + timeout.toMillis() + "ms")))
+                .onErrorResume(e -> {
+                    log.warn("[Quotes] {} failed: {}", code, e.getMessage());
+                    return Mono.just(Quote.failed(code, Status.ERROR, e.getMessage()));
+                });
+    }
+
+    private static Quote fromChart(String code, ChartSeries series) {
+        if (series.isEmpty()) return Quote.failed(code, Status.NOT_FOUND, "no chart data");
+        int last = series.size() - 1;
+        String tradeDate = LocalDate.parse(String.valueOf(series.date(last)), DateTimeFormatter.BASIC_ISO_DATE)
+                .toString();
+        return new Quote(code, Status.OK, series.name(), series.close(last), tradeDate, "chart", null);
+    }
+}
@@ -1,11 +1,18 @@
 package com.sprout.stockproject.service;
 
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.dto.StockPageResponse;
 import com.sprout.stockproject.entity.StockInfo;
 import com.sprout.stockproject.repository.StockInfoRepository;
+import com.sprout.stockproject.service.csv.StockCsvImporter;
+import com.sprout.stockproject.service.search.StockFuzzyIndex;
+import com.sprout.stockproject.service.search.StockSearchIndex;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
@@ -13,15 +20,45 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class StockService {
 
-    private final StockInfoRepository stockRepository;
+    /** 시가총액 구간 (원 단위, [min, max)) */
+    public enum CapBand {
+        MEGA(10_000_000_000_000L, null),              // 10조 이상
+        LARGE(1_000_000_000_000L, 10_000_000_000_000L), // 1조 ~ 10조
+        MID(200_000_000_000L, 1_000_000_000_000L),     // 2천억 ~ 1조
+        SMALL(null, 200_000_000_000L);                 // 2천억 미만
+
+        final Long min;
+        final Long max;
 
-    public StockService(StockInfoRepository stockRepository) {
+        CapBand(Long min, Long max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private static final Set<String> SORTABLE = Set.of("marketCap", "listedShares", "stockName", "stockCode");
+
+    private final StockInfoRepository stockRepository;
+    private final StockCsvImporter csvImporter;
+    private final StockSearchIndex searchIndex;
+    private final StockFuzzyIndex fuzzyIndex;
+    private final StockMasterPublisher masterPublisher;
+
+    public StockService(StockInfoRepository stockRepository, StockCsvImporter csvImporter,
+                        StockSearchIndex searchIndex, StockFuzzyIndex fuzzyIndex,
+                        StockMasterPublisher masterPublisher) {
         this.stockRepository = stockRepository;
+        this.csvImporter = csvImporter;
+        this.searchIndex = searchIndex;
+        this.fuzzyIndex = fuzzyIndex;
+        this.masterPublisher = masterPublisher;
     }
 
     public long getStockCount() {
@@ -32,89 +69,95 @@ public class StockService {
         return stockRepository.findAll();
     }
 
+    /** stock_code 키셋 페이지 (after 가 없으면 처음부터) */
+    public StockPageResponse getStockPage(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, 1000));
+        List<StockInfo> items = stockRepository.findByStockCodeGreaterThanOrderByStockCodeAsc(
+                after == null ? "" : after, PageRequest.of(0, pageSize));
+        String next = items.size() < pageSize ? null : items.get(items.size() - 1).getStockCode();
+        return new StockPageResponse(items, next);
+    }
+
+    /**
+     * 시장/시가총액 조건 필터 + 정렬 (DB 인덱스로 응답, 외부 호출 없음).
+     * band 와 minCap/maxCap(원)을 같이 주면 둘 다 만족하는 범위로 좁힌다.
+     */
+    public List<StockInfo> filterStocks(String market, String band, Long minCap, Long maxCap,
+                                        String sort, String order, int page, int size) {
+        Long min = minCap;
+        Long max = maxCap;
+        if (band != null && !band.isBlank()) {
+            CapBand b;
+            try {
+                b = CapBand.valueOf(band.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new UnprocessableException("지원하지 않는 시가총액 구간입니다: " + band);
+            }
+            if (b.min != null) min = min == null ? b.min : Math.max(min, b.min);
+            if (b.max != null) max = max == null ? b.max : Math.min(max, b.max);
+        }
+        if (!SORTABLE.contains(sort)) {
+            throw new UnprocessableException("지원하지 않는 정렬 기준입니다: " + sort);
+        }
+
+        Specification<StockInfo> spec = (root, query, cb) -> cb.conjunction();
+        if (market != null && !market.isBlank()) {
+            String m = market.trim().toUpperCase(Locale.ROOT);
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("market"), m));
+        }
+        if (min != null) {
+            Long lo = min;
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.<Long>get("marketCap"), lo));
+        }
+        if (max != null) {
+            Long hi = max;
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.<Long>get("marketCap"), hi));
+        }
+
+        Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        // 시총 미수집(null) 종목은 항상 뒤로, 동률은 종목코드 순
+        Sort orderBy = Sort.by(new Sort.Order(direction, sort, Sort.NullHandling.NULLS_LAST))
+                .and(Sort.by("stockCode"));
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, 500)), orderBy);
+        return stockRepository.findAll(spec, pageRequest).getContent();
+    }
+
     public Optional<StockInfo> searchByStockName(String stockName) {
         return stockRepository.findByStockName(stockName);
     }
 
     public List<StockInfo> searchByKeyword(String keyword) {
-        return stockRepository.findByStockNameContaining(keyword);
+        // 인덱스가 아직 비어 있을 때(기동 직후)만 DB LIKE 폴백
+        if (!searchIndex.isReady()) return stockRepository.findByStockNameContaining(keyword);
+        return searchIndex.search(keyword, Integer.MAX_VALUE);
     }
 
-    public String processCsvFile(MultipartFile file) throws IOException {
-        int processedCount = 0;
-        int duplicateCount = 0;
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-
-            String line;
-            boolean isFirstLine = true;
-
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue; // 헤더 스킵
-                }
-
-                String[] parts = line.split(",");
-                if (parts.length >= 2) {
-                    String stockName = parts[0].trim().replaceAll("\"", "");
-                    String stockCode = parts[1].trim().replaceAll("\"", "");
-
-                    if (!stockRepository.existsByStockCode(stockCode)) {
-                        StockInfo stockInfo = new StockInfo();
-                        stockInfo.setStockName(stockName);
-                        stockInfo.setStockCode(stockCode);
-                        stockRepository.save(stockInfo);
-                        processedCount++;
-                    } else {
-                        duplicateCount++;
-                    }
-                }
-            }
-        }
+    public List<StockInfo> autocomplete(String prefix, int limit) {
+        return searchIndex.autocomplete(prefix, Math.max(1, Math.min(limit, 50)));
+    }
+
+    /** 초성/오타 허용 검색 (점수 내림차순) */
+    public List<StockFuzzyIndex.Hit> searchFuzzy(String query, int limit) {
+        return fuzzyIndex.search(query, Math.max(1, Math.min(limit, 50)));
+    }
 
-        return String.format("처리 완료: %d개 추가, %d개 중복", processedCount, duplicateCount);
+    public StockCsvImporter.Result processCsvFile(MultipartFile file) throws IOException {
+        StockCsvImporter.Result result = csvImporter.importFrom(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8), "처리 완료");
+        if (result.inserted() > 0) masterPublisher.publish("csv");
+        return result;
     }
 
-    public String loadFromServerFile(String filename) throws IOException {
+    public StockCsvImporter.Result loadFromServerFile(String filename) throws IOException {
         Path filePath = Paths.get(filename);
 
         if (!Files.exists(filePath)) {
             throw new IOException("파일을 찾을 수 없습니다: " + filename);
         }
 
-        int processedCount = 0;
-        int duplicateCount = 0;
-
-        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
-            String line;
-            boolean isFirstLine = true;
-
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue; // 헤더 스킵
-                }
-
-                String[] parts = line.split(",");
-                if (parts.length >= 2) {
-                    String stockName = parts[0].trim().replaceAll("\"", "");
-                    String stockCode = parts[1].trim().replaceAll("\"", "");
-
-                    if (!stockRepository.existsByStockCode(stockCode)) {
-                        StockInfo stockInfo = new StockInfo();
-                        stockInfo.setStockName(stockName);
-                        stockInfo.setStockCode(stockCode);
-                        stockRepository.save(stockInfo);
-                        processedCount++;
-                    } else {
-                        duplicateCount++;
-                    }
-                }
-            }
-        }
-
-        return String.format("서버 파일 처리 완료: %d개 추가, %d개 중복", processedCount, duplicateCount);
+        StockCsvImporter.Result result =
+                csvImporter.importFrom(Files.newBufferedReader(filePath, StandardCharsets.UTF_8), "서버 파일 처리 완료");
+        if (result.inserted() > 0) masterPublisher.publish("csv");
+        return result;
     }
 }
@@ -0,0 +1,117 @@
+package com.sprout.stockproject.service.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC-4180 CSV 스트리밍 리더 (정규식/split 없이 문자 단위 1-pass).
+ * - 따옴표 필드, 필드 내 콤마/줄바꿈, "" 이스케이프 지원
+ * - CRLF / LF / CR 줄끝 모두 허용, 선행 UTF-8 BOM 제거
+ * - 고정 크기 버퍼만 사용하므로 파일 크기와 무관하게 메모리 일정
+ * 반환되는 List 는 다음 호출 때 재사용되므로 필요한 값은 즉시 꺼내 써야 한다.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean first = true;
+
+    private final StringBuilder field = new StringBuilder(64);
+    private final List<String> record = new ArrayList<>();
+    private long recordNumber;
+
+    public CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /** 읽은 레코드 수 (헤더 포함) */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    /** 다음 레코드, EOF 면 null */
+    public List<String> next() throws IOException {
+        record.clear();
+        field.setLength(0);
+
+        int c = read();
+        if (c < 0) return null;
+        if (first) {
+            first = false;
+            if (c == '\uFEFF') {
+                c = read();
+                if (c < 0) return null;
+            }
+        }
+
+        boolean quoted = false;
+        boolean afterQuote = false; // 닫는 따옴표 직후 (구분자/줄끝 대기)
+        while (true) {
+            if (c < 0) {
+                record.add(field.toString());
+                break;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') read();
+                record.add(field.toString());
+                break;
+            } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                quoted = true;
+            } else if (!afterQuote) {
+                field.append((char) c);
+            }
+            // afterQuote 상태의 잡문자("a"b)는 관대하게 무시
+            c = read();
+        }
+        recordNumber++;
+        return record;
+    }
+
+    private int read() throws IOException {
+        if (pos >= limit && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos >= limit && !fill()) return -1;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.sprout.stockproject.service.csv;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.repository.StockInfoJdbcRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 종목 CSV(종목명,종목코드) 스트리밍 적재기.
+ * - 기존 종목코드를 1회 조회해 메모리에서 중복 제거 (행별 exists 쿼리 없음)
+ * - 신규 행은 batchSize 만큼 모아 청크 트랜잭션으로 batch INSERT
+ * - 레코드 단위로 흘려보내므로 파일 크기와 무관하게 메모리는 코드셋 + 1청크
+ */
+@Component
+public class StockCsvImporter {
+
+    private final StockInfoJdbcRepository bulkRepository;
+
+    public StockCsvImporter(StockInfoJdbcRepository bulkRepository) {
+        this.bulkRepository = bulkRepository;
+    }
+
+    /** 처리 건수 + 단계별 소요 시간(ms) */
+    public record Result(int inserted, int duplicates, int skipped,
+                         long preloadMillis, long parseMillis, long writeMillis, long totalMillis,
+                         String message) {}
+
+    /** 첫 줄은 헤더로 간주하고 건너뜀. 완료 메시지 접두어는 호출 측 구분용 */
+    public Result importFrom(Reader source, String messagePrefix) throws IOException {
+        long started = System.nanoTime();
+
+        Set<String> codes = bulkRepository.loadCodes();
+        long preloadNanos = System.nanoTime() - started;
+
+        int batchSize = bulkRepository.batchSize();
+        List<StockInfo> pending = new ArrayList<>(batchSize);
+        int inserted = 0;
+        int duplicates = 0;
+        int skipped = 0;
+        long writeNanos = 0;
+
+        try (CsvRecordReader reader = new CsvRecordReader(source)) {
+            List<String> record = reader.next(); // 헤더 스킵
+            while (record != null && (record = reader.next()) != null) {
+                if (record.size() < 2) {
+                    skipped++;
+                    continue;
+                }
+                String stockName = record.get(0).trim();
+                String stockCode = record.get(1).trim();
+                if (stockName.isEmpty() || stockCode.isEmpty()) {
+                    skipped++;
+                    continue;
+                }
+                if (!codes.add(stockCode)) {
+                    duplicates++;
+                    continue;
+                }
+                pending.add(new StockInfo(stockName, stockCode));
+                if (pending.size() >= batchSize) {
+                    long w = System.nanoTime();
+                    inserted += bulkRepository.insertBatch(pending);
+                    writeNanos += System.nanoTime() - w;
+                    pending.clear();
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            long w = System.nanoTime();
+            inserted += bulkRepository.insertBatch(pending);
+            writeNanos += System.nanoTime() - w;
+        }
+
+        long totalNanos = System.nanoTime() - started;
+        long parseNanos = totalNanos - preloadNanos - writeNanos;
+        return new Result(inserted, duplicates, skipped,
+                preloadNanos / 1_000_000, parseNanos / 1_000_000, writeNanos / 1_000_000, totalNanos / 1_000_000,
+                String.format("%s: %d개 추가, %d개 중복", messagePrefix, inserted, duplicates));
+    }
+}
@@ -0,0 +1,195 @@
+package com.sprout.stockproject.service.indicator;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.external.NaverChartStockClient;
+import com.sprout.stockproject.external.chart.Bars;
+import com.sprout.stockproject.external.chart.ChartSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 차트 시계열 위 보조지표 계산 + (종목, 주기, 지표) 단위 메모.
+ * - 한 번 계산한 지표는 상태(이동합, EMA 값 등)와 출력 열을 보관해 두고,
+ *   다음 요청에서는 마지막으로 확정한 봉 이후 새 봉만 O(1)씩 반영한다.
+ * - 시계열의 마지막 봉은 장중에 값이 바뀌므로 확정하지 않고 preview 로만 계산한다
+ *   (다음 날 봉이 생기면 그때 확정).
+ * - 바탕 이력이 다시 쓰였으면(수정주가 반영 등으로 revision 변경) 보관한 상태는 버리고 새로 계산한다.
+ * - 워밍업 구간(EMA·RSI 수렴)을 위해 요청 count 보다 넉넉히 봉을 받아 처음부터 흘려 넣는다.
+ */
+@Service
+public class IndicatorService {
+
+    /** 지표 키(예: macd:12:26:9) → 열 이름 → 값 (워밍업 구간은 null), dates 와 같은 길이 */
+    public record Result(String symbol, String name, String timeframe, List<String> dates,
+                         Map<String, Map<String, Double[]>> indicators) {}
+
+    private record Key(String symbol, String timeframe, String spec) {}
+
+    /** 확정된 봉까지 반영한 지표 상태 + 최근 출력 */
+    private static final class Track {
+        final IndicatorSpec spec;
+        RollingIndicator indicator;
+        final int width;
+        int[] dates = new int[64];
+        double[][] values;
+        int n;
+        int lastDate;
+        int revision;
+
+        Track(IndicatorSpec spec) {
+            this.spec = spec;
+            this.indicator = RollingIndicator.create(spec);
+            this.width = indicator.columns().length;
+            this.values = new double[width][64];
+        }
+
+        /** 처음부터 다시 계산 */
+        void reset() {
+            indicator = RollingIndicator.create(spec);
+            n = 0;
+            lastDate = 0;
+        }
+
+        void append(int date, double[] out, int retain) {
+            if (n == dates.length) {
+                if (n >= 2 * retain) {
+                    // 오래된 출력은 버리고 최근 retain 개만 남김 (상태는 그대로)
+                    int drop = n - retain;
+                    System.arraycopy(dates, drop, dates, 0, retain);
+                    for (double[] col : values) System.arraycopy(col, drop, col, 0, retain);
+                    n = retain;
+                } else {
+                    int cap = n * 2;
+                    dates = Arrays.copyOf(dates, cap);
+                    for (int c = 0; c < width; c++) values[c] = Arrays.copyOf(values[c], cap);
+                }
+            }
+            dates[n] = date;
+            for (int c = 0; c < width; c++) values[c][n] = out[c];
+            n++;
+            lastDate = date;
+        }
+    }
+
+    private final NaverChartStockClient chartClient;
+    private final int maxCount;
+    private final int maxEntries;
+    private final Map<Key, Track> tracks;
+
+    public IndicatorService(NaverChartStockClient chartClient,
+                            @Value("${indicator.max-count:1000}") int maxCount,
+                            @Value("${indicator.cache.max-entries:5000}") int maxEntries) {
+        this.chartClient = chartClient;
+        this.maxCount = Math.max(1, maxCount);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.tracks = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Track> eldest) {
+                return size() > IndicatorService.this.maxEntries;
+            }
+        };
+    }
+
+    public Result compute(String stockCode, String timeframe, String indicators, int count) {
+        if (count < 1 || count > maxCount) throw new UnprocessableException("count must be 1~" + maxCount);
+        if (!timeframe.equals("day") && !timeframe.equals("week") && !timeframe.equals("month")) {
+            throw new UnprocessableException("timeframe must be day|week|month");
+        }
+        List<IndicatorSpec> specs = IndicatorSpec.parseList(indicators);
+        int lookback = 0;
+        for (IndicatorSpec s : specs) lookback = Math.max(lookback, s.lookback());
+        // EMA·Wilder 평균은 초기값 영향이 남으므로 lookback 의 4배 정도를 더 흘려 넣는다
+        ChartSeries series = chartClient.fetchSeries(stockCode, timeframe, count + 4 * lookback);
+        return compute(series, chartClient.historyRevision(stockCode, timeframe), specs, count);
+    }
+
+    /** revision: series 바탕 이력의 재작성 횟수 (NaverChartStockClient.historyRevision) */
+    Result compute(Bars series, int revision, List<IndicatorSpec> specs, int count) {
+        int size = series.size();
+        int outLen = Math.min(count, size);
+        List<String> dates = new ArrayList<>(outLen);
+        for (int i = size - outLen; i < size; i++) dates.add(String.valueOf(series.date(i)));
+
+        Map<String, Map<String, Double[]>> result = new LinkedHashMap<>();
+        for (IndicatorSpec spec : specs) {
+            result.put(spec.key(), evaluate(series, revision, spec, outLen));
+        }
+        return new Result(series.symbol(), series.name(), series.timeframe(), dates, result);
+    }
+
+    /** 메모된 상태를 series 마지막 직전 봉까지 맞춘 뒤(이어 붙일 수 없으면 새로 계산) 최근 outLen 개 값 */
+    private Map<String, Double[]> evaluate(Bars series, int revision, IndicatorSpec spec, int outLen) {
+        Key key = new Key(series.symbol(), series.timeframe(), spec.key());
+        Track track;
+        synchronized (tracks) {
+            track = tracks.get(key);
+            if (track == null) {
+                track = new Track(spec);
+                tracks.put(key, track);
+            }
+        }
+        synchronized (track) {
+            int start = track.revision == revision ? resumeIndex(track, series, outLen) : -1;
+            if (start < 0) {
+                track.reset();
+                track.revision = revision;
+                start = 0;
+            }
+            double[] out = new double[track.width];
+            for (int i = start; i < series.size() - 1; i++) {
+                track.indicator.push(series.close(i), out);
+                track.append(series.date(i), out, maxCount);
+            }
+            return window(track, series, outLen);
+        }
+    }
+
+    /**
+     * 이어서 넣을 첫 봉 위치. 처음이면 0, 마지막 확정 봉이 series 에 없거나
+     * 보관 중인 출력이 요청 길이보다 짧은데 series 가 더 이른 봉을 갖고 있으면 -1 (새로 계산)
+     */
+    private static int resumeIndex(Track track, Bars series, int outLen) {
+        if (track.n == 0) return 0;
+        int i = series.size() - 1;
+        while (i >= 0 && series.date(i) > track.lastDate) i--;
+        if (i < 0 || series.date(i) != track.lastDate) return -1;
+        if (track.n < outLen - 1 && series.date(0) < track.dates[0]) return -1;
+        return i + 1;
+    }
+
+    /** 확정 출력의 최근 outLen-1 개 + 마지막 봉 preview */
+    private static Map<String, Double[]> window(Track track, Bars series, int outLen) {
+        String[] columns = track.indicator.columns();
+        double[] last = new double[track.width];
+        boolean hasLast = outLen > 0;
+        if (hasLast) track.indicator.preview(series.close(series.size() - 1), last);
+
+        int committed = Math.min(track.n, outLen - 1);
+        int pad = outLen - 1 - committed;   // 메모 출력이 모자라는 앞부분 (워밍업 이전)
+        Map<String, Double[]> cols = new LinkedHashMap<>();
+        for (int c = 0; c < columns.length; c++) {
+            Double[] v = new Double[outLen];
+            for (int i = 0; i < committed; i++) v[pad + i] = round(track.values[c][track.n - committed + i]);
+            if (hasLast) v[outLen - 1] = round(last[c]);
+            cols.put(columns[c], v);
+        }
+        return cols;
+    }
+
+    private static Double round(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) return null;
+        return Math.round(v * 10000.0) / 10000.0;
+    }
+
+    public int size() {
+        synchronized (tracks) {
+            return tracks.size();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.sprout.stockproject.service.indicator;
+
+import com.sprout.stockproject.api.UnprocessableException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 지표 종류 + 파라미터. 문자열 형식: sma:20, ema:12, rsi:14, macd:12:26:9, bb:20:2
+ * key() 는 파라미터를 채운 정규형이라 메모 키와 응답 키로 같이 쓴다.
+ */
+public record IndicatorSpec(Type type, int period, int slow, int signal, double width) {
+
+    public enum Type { SMA, EMA, RSI, MACD, BB }
+
+    private static final int MAX_PERIOD = 500;
+    private static final int MAX_SPECS = 16;
+
+    public String key() {
+        String name = type.name().toLowerCase(Locale.ROOT);
+        return switch (type) {
+            case MACD -> name + ":" + period + ":" + slow + ":" + signal;
+            case BB -> name + ":" + period + ":" + formatWidth(width);
+            default -> name + ":" + period;
+        };
+    }
+
+    /** 첫 값이 나오기까지 필요한 봉 수 */
+    public int lookback() {
+        return switch (type) {
+            case MACD -> slow + signal - 1;
+            case RSI -> period + 1;
+            default -> period;
+        };
+    }
+
+    /** 쉼표 구분 목록. 중복은 한 번만, 형식이 틀리면 422 */
+    public static List<IndicatorSpec> parseList(String list) {
+        if (list == null || list.isBlank()) throw new UnprocessableException("indicators must not be empty");
+        Set<String> seen = new LinkedHashSet<>();
+        List<IndicatorSpec> specs = new ArrayList<>();
+        for (String token : list.split(",")) {
+            if (token.isBlank()) continue;
+            IndicatorSpec spec = parse(token.trim());
+            if (seen.add(spec.key())) specs.add(spec);
+        }
+        if (specs.isEmpty()) throw new UnprocessableException("indicators must not be empty");
+        if (specs.size() > MAX_SPECS) throw new UnprocessableException("too many indicators (max " + MAX_SPECS + ")");
+        return specs;
+    }
+
+    public static IndicatorSpec parse(String token) {
+        String[] p = token.toLowerCase(Locale.ROOT).split(":");
+        try {
+            return switch (p[0]) {
+                case "sma" -> new IndicatorSpec(Type.SMA, period(p, 1, 20), 0, 0, 0);
+                case "ema" -> new IndicatorSpec(Type.EMA, period(p, 1, 20), 0, 0, 0);
+                case "rsi" -> new IndicatorSpec(Type.RSI, period(p, 1, 14), 0, 0, 0);
+                case "macd" -> {
+                    int fast = period(p, 1, 12), slow = period(p, 2, 26), signal = period(p, 3, 9);
+                    if (fast >= slow) throw new UnprocessableException("macd fast must be < slow: " + token);
+                    yield new IndicatorSpec(Type.MACD, fast, slow, signal, 0);
+                }
+                case "bb" -> {
+                    double width = p.length > 2 ? Double.parseDouble(p[2]) : 2.0;
+                    if (!(width > 0 && width <= 10)) throw new UnprocessableException("bb width out of range: " + token);
+                    yield new IndicatorSpec(Type.BB, period(p, 1, 20), 0, 0, width);
+                }
+                default -> throw new UnprocessableException("unknown indicator: " + token);
+            };
+        } catch (NumberFormatException e) {
+            throw new UnprocessableException("invalid indicator: " + token);
+        }
+    }
+
+    private static int period(String[] parts, int i, int defaultValue) {
+        int v = parts.length > i ? Integer.parseInt(parts[i]) : defaultValue;
+        if (v < 1 || v > MAX_PERIOD) throw new UnprocessableException("period out of range (1~" + MAX_PERIOD + "): " + v);
+        return v;
+    }
+
+    private static String formatWidth(double w) {
+        return w == Math.rint(w) ? String.valueOf((long) w) : String.valueOf(w);
+    }
+}
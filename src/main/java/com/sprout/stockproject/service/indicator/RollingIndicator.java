@@ -0,0 +1,286 @@
+package com.sprout.stockproject.service.indicator;
+
+/**
+ * 종가를 한 개씩 받아 값을 갱신하는 보조지표 (봉 1개당 O(1), 창 전체를 다시 훑지 않음).
+ * 값이 아직 정해지지 않은 워밍업 구간은 NaN.
+ * preview() 는 상태를 바꾸지 않고 "이 종가를 넣으면 나올 값"만 계산한다
+ * (장중 형성 중인 마지막 봉을 매번 확정하지 않고 계산하기 위함).
+ */
+public interface RollingIndicator {
+
+    /** 출력 열 이름 (예: sma → value, macd → macd/signal/hist) */
+    String[] columns();
+
+    void push(double close, double[] out);
+
+    void preview(double close, double[] out);
+
+    static RollingIndicator create(IndicatorSpec spec) {
+        return switch (spec.type()) {
+            case SMA -> new Sma(spec.period());
+            case EMA -> new EmaIndicator(spec.period());
+            case RSI -> new Rsi(spec.period());
+            case MACD -> new Macd(spec.period(), spec.slow(), spec.signal());
+            case BB -> new Bollinger(spec.period(), spec.width());
+        };
+    }
+
+    /** 지수이동평균. 첫 값은 처음 period 개 종가의 단순평균 */
+    final class Ema {
+        private final int period;
+        private final double alpha;
+        private int count;
+        private double sum;
+        private double value = Double.NaN;
+
+        Ema(int period) {
+            this.period = period;
+            this.alpha = 2.0 / (period + 1);
+        }
+
+        double push(double x) {
+            if (count < period) {
+                count++;
+                sum += x;
+                if (count == period) value = sum / period;
+            } else {
+                value += alpha * (x - value);
+            }
+            return value;
+        }
+
+        double preview(double x) {
+            if (count < period - 1) return Double.NaN;
+            if (count == period - 1) return (sum + x) / period;
+            return value + alpha * (x - value);
+        }
+    }
+
+    /** 단순이동평균 (원형 버퍼 + 누적합) */
+    final class Sma implements RollingIndicator {
+        private final int period;
+        private final double[] ring;
+        private int count;
+        private int oldest;
+        private double sum;
+
+        Sma(int period) {
+            this.period = period;
+            this.ring = new double[period];
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[]{"value"};
+        }
+
+        @Override
+        public void push(double x, double[] out) {
+            if (count < period) {
+                ring[count++] = x;
+                sum += x;
+            } else {
+                sum += x - ring[oldest];
+                ring[oldest] = x;
+                oldest = (oldest + 1) % period;
+            }
+            out[0] = count == period ? sum / period : Double.NaN;
+        }
+
+        @Override
+        public void preview(double x, double[] out) {
+            if (count < period - 1) out[0] = Double.NaN;
+            else if (count == period - 1) out[0] = (sum + x) / period;
+            else out[0] = (sum - ring[oldest] + x) / period;
+        }
+    }
+
+    final class EmaIndicator implements RollingIndicator {
+        private final Ema ema;
+
+        EmaIndicator(int period) {
+            this.ema = new Ema(period);
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[]{"value"};
+        }
+
+        @Override
+        public void push(double x, double[] out) {
+            out[0] = ema.push(x);
+        }
+
+        @Override
+        public void preview(double x, double[] out) {
+            out[0] = ema.preview(x);
+        }
+    }
+
+    /** Wilder RSI. 첫 평균은 처음 period 개 등락의 단순평균, 이후 (avg*(p-1)+x)/p */
+    final class Rsi implements RollingIndicator {
+        private final int period;
+        private boolean hasPrev;
+        private double prev;
+        private int changes;
+        private double avgGain;
+        private double avgLoss;
+
+        Rsi(int period) {
+            this.period = period;
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[]{"value"};
+        }
+
+        @Override
+        public void push(double x, double[] out) {
+            if (!hasPrev) {
+                hasPrev = true;
+                prev = x;
+                out[0] = Double.NaN;
+                return;
+            }
+            double change = x - prev;
+            prev = x;
+            double gain = Math.max(change, 0), loss = Math.max(-change, 0);
+            changes++;
+            if (changes <= period) {
+                // 워밍업 동안은 합계를 쌓다가 period 번째에 평균으로 바꾼다
+                avgGain += gain;
+                avgLoss += loss;
+                if (changes == period) {
+                    avgGain /= period;
+                    avgLoss /= period;
+                }
+            } else {
+                avgGain = (avgGain * (period - 1) + gain) / period;
+                avgLoss = (avgLoss * (period - 1) + loss) / period;
+            }
+            out[0] = changes >= period ? rsi(avgGain, avgLoss) : Double.NaN;
+        }
+
+        @Override
+        public void preview(double x, double[] out) {
+            if (!hasPrev || changes + 1 < period) {
+                out[0] = Double.NaN;
+                return;
+            }
+            double change = x - prev;
+            double gain = Math.max(change, 0), loss = Math.max(-change, 0);
+            if (changes + 1 == period) {
+                out[0] = rsi((avgGain + gain) / period, (avgLoss + loss) / period);
+            } else {
+                out[0] = rsi((avgGain * (period - 1) + gain) / period, (avgLoss * (period - 1) + loss) / period);
+            }
+        }
+
+        private static double rsi(double gain, double loss) {
+            if (loss == 0) return gain == 0 ? 50.0 : 100.0;
+            return 100.0 - 100.0 / (1.0 + gain / loss);
+        }
+    }
+
+    /** MACD = EMA(fast) - EMA(slow), signal = MACD 의 EMA(signal), hist = MACD - signal */
+    final class Macd implements RollingIndicator {
+        private final Ema fast;
+        private final Ema slow;
+        private final Ema signal;
+
+        Macd(int fast, int slow, int signal) {
+            this.fast = new Ema(fast);
+            this.slow = new Ema(slow);
+            this.signal = new Ema(signal);
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[]{"macd", "signal", "hist"};
+        }
+
+        @Override
+        public void push(double x, double[] out) {
+            double f = fast.push(x), s = slow.push(x);
+            write(f, s, true, out);
+        }
+
+        @Override
+        public void preview(double x, double[] out) {
+            write(fast.preview(x), slow.preview(x), false, out);
+        }
+
+        private void write(double f, double s, boolean commit, double[] out) {
+            if (Double.isNaN(f) || Double.isNaN(s)) {
+                out[0] = out[1] = out[2] = Double.NaN;
+                return;
+            }
+            double macd = f - s;
+            double sig = commit ? signal.push(macd) : signal.preview(macd);
+            out[0] = macd;
+            out[1] = sig;
+            out[2] = Double.isNaN(sig) ? Double.NaN : macd - sig;
+        }
+    }
+
+    /** 볼린저 밴드: 중심 = SMA(period), 상·하단 = 중심 ± width × 모표준편차 */
+    final class Bollinger implements RollingIndicator {
+        private final int period;
+        private final double width;
+        private final double[] ring;
+        private int count;
+        private int oldest;
+        private double sum;
+        private double sumSq;
+
+        Bollinger(int period, double width) {
+            this.period = period;
+            this.width = width;
+            this.ring = new double[period];
+        }
+
+        @Override
+        public String[] columns() {
+            return new String[]{"upper", "middle", "lower"};
+        }
+
+        @Override
+        public void push(double x, double[] out) {
+            if (count < period) {
+                ring[count++] = x;
+                sum += x;
+                sumSq += x * x;
+            } else {
+                double old = ring[oldest];
+                sum += x - old;
+                sumSq += x * x - old * old;
+                ring[oldest] = x;
+                oldest = (oldest + 1) % period;
+            }
+            if (count == period) write(sum, sumSq, out);
+            else out[0] = out[1] = out[2] = Double.NaN;
+        }
+
+        @Override
+        public void preview(double x, double[] out) {
+            if (count < period - 1) {
+                out[0] = out[1] = out[2] = Double.NaN;
+            } else if (count == period - 1) {
+                write(sum + x, sumSq + x * x, out);
+            } else {
+                double old = ring[oldest];
+                write(sum - old + x, sumSq - old * old + x * x, out);
+            }
+        }
+
+        private void write(double s, double sq, double[] out) {
+            double mean = s / period;
+            double sd = Math.sqrt(Math.max(0, sq / period - mean * mean));
+            out[0] = mean + width * sd;
+            out[1] = mean;
+            out[2] = mean - width * sd;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sprout.stockproject.service.market;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * KRX 정규장 시간 유틸 (평일 09:00 ~ 15:30 KST).
+ * 공휴일 달력은 두지 않는다: 휴장일은 KRX 응답이 비어 오는 것으로 판별한다.
+ */
+public final class KrxMarketHours {
+
+    public static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+    public static final LocalTime OPEN = LocalTime.of(9, 0);
+    public static final LocalTime CLOSE = LocalTime.of(15, 30);
+
+    private KrxMarketHours() {}
+
+    public static boolean isWeekday(LocalDate date) {
+        DayOfWeek d = date.getDayOfWeek();
+        return d != DayOfWeek.SATURDAY && d != DayOfWeek.SUNDAY;
+    }
+
+    /** 정규장 진행 중 여부 */
+    public static boolean isOpen(Instant now) {
+        ZonedDateTime t = now.atZone(ZONE);
+        LocalTime time = t.toLocalTime();
+        return isWeekday(t.toLocalDate()) && !time.isBefore(OPEN) && time.isBefore(CLOSE);
+    }
+
+    /** now 기준 마지막으로 마감된 (평일) 거래일 */
+    public static LocalDate lastCompletedSession(Instant now) {
+        ZonedDateTime t = now.atZone(ZONE);
+        LocalDate d = t.toLocalDate();
+        if (isWeekday(d) && !t.toLocalTime().isBefore(CLOSE)) return d;
+        return previousWeekday(d);
+    }
+
+    /** now 이후 처음 오는 평일 09:00 KST (장중이면 다음 거래일 시가) */
+    public static Instant nextOpen(Instant now) {
+        ZonedDateTime t = now.atZone(ZONE);
+        LocalDate d = t.toLocalDate();
+        if (!isWeekday(d) || !t.toLocalTime().isBefore(OPEN)) {
+            d = d.plusDays(1);
+            while (!isWeekday(d)) d = d.plusDays(1);
+        }
+        return d.atTime(OPEN).atZone(ZONE).toInstant();
+    }
+
+    /**
+     * at 에 받은 시세/봉이 언제까지 그대로인지.
+     * 장중이면 at + openTtl, 장 밖이면 다음 정규장 시작까지.
+     */
+    public static Instant validUntil(Instant at, Duration openTtl) {
+        return isOpen(at) ? at.plus(openTtl) : nextOpen(at);
+    }
+
+    public static LocalDate previousWeekday(LocalDate date) {
+        LocalDate d = date.minusDays(1);
+        while (!isWeekday(d)) d = d.minusDays(1);
+        return d;
+    }
+}
@@ -0,0 +1,226 @@
+package com.sprout.stockproject.service.market;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.external.NaverChartStockClient;
+import com.sprout.stockproject.external.chart.ChartSeries;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 종목별 실시간 현재가 푸시.
+ * - 구독자가 있는 종목마다 업스트림 폴러를 정확히 하나만 돌리고, 값이 바뀐 경우에만 모든 구독자에게 보낸다
+ * - 장중에는 minInterval 부터 시작해 값이 그대로면 maxInterval 까지 간격을 늘리고, 바뀌면 다시 줄인다.
+ *   장 밖에서는 (캐시된) 마지막 값을 한 번 보내고 다음 정규장 시작까지 쉰다.
+ *   장중에 돌던 폴러는 마감 후 closeGrace 동안 더 폴링해 동시호가로 확정된 종가까지 보낸 뒤 쉰다
+ * - 새 구독자는 마지막 값을 바로 받는다. 느린 구독자에게는 최신 값만 남겨 둔다 (onBackpressureLatest)
+ * - 마지막 구독자가 떠나면 폴러를 멈추고 채널을 지운다
+ */
+@Service
+public class LivePriceHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LivePriceHub.class);
+
+    private static final Pattern CODE = Pattern.compile("[A-Za-z0-9]{6}");
+
+    /** tradeDate: yyyy-MM-dd, change·changeRate 는 전일 종가 대비 (전일 봉이 없으면 null) */
+    public record PriceTick(String stockCode, String stockName, long price, Long change, Double changeRate,
+                            long volume, String tradeDate, Instant at) {
+
+        boolean sameQuote(PriceTick o) {
+            return o != null && price == o.price && volume == o.volume && Objects.equals(tradeDate, o.tradeDate);
+        }
+    }
+
+    /** 종목 하나의 폴러 + 구독자 수. subscribers·poller 는 channels 락 안에서만 바꾼다 */
+    private static final class Channel {
+        final String code;
+        final Sinks.Many<PriceTick> sink = Sinks.many().replay().latest();
+        int subscribers;
+        Disposable poller;
+        // 아래는 폴러 스레드에서만 접근 (폴링은 순차 실행)
+        PriceTick last;
+        Duration interval;
+        // 장중에 폴링했으면 그날 마감 + closeGrace. 이 시각 전까지는 장 밖이어도 바로 받아 종가를 확정한다
+        Instant settleUntil = Instant.EPOCH;
+
+        Channel(String code) {
+            this.code = code;
+        }
+    }
+
+    private final NaverChartStockClient chartClient;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration closeGrace;
+    private final int maxSymbolsPerClient;
+    private final Map<String, Channel> channels = new HashMap<>();
+
+    public LivePriceHub(NaverChartStockClient chartClient,
+                        @Value("${live.poll.min-ms:2000}") long minIntervalMs,
+                        @Value("${live.poll.max-ms:15000}") long maxIntervalMs,
+                        @Value("${live.poll.close-grace-seconds:180}") long closeGraceSeconds,
+                        @Value("${live.max-symbols-per-client:20}") int maxSymbolsPerClient) {
+        this.chartClient = chartClient;
+        this.minInterval = Duration.ofMillis(Math.max(200, minIntervalMs));
+        this.maxInterval = Duration.ofMillis(Math.max(this.minInterval.toMillis(), maxIntervalMs));
+        this.closeGrace = Duration.ofSeconds(Math.max(0, closeGraceSeconds));
+        this.maxSymbolsPerClient = Math.max(1, maxSymbolsPerClient);
+    }
+
+    /** 쉼표 구분 종목들을 한 스트림으로. 형식이 틀리거나 종목이 너무 많으면 422 */
+    public Flux<PriceTick> subscribe(String codesCsv) {
+        Set<String> codes = new LinkedHashSet<>();
+        if (codesCsv != null) {
+            for (String c : codesCsv.split(",")) {
+                if (!c.isBlank()) codes.add(c.trim());
+            }
+        }
+        if (codes.isEmpty()) throw new UnprocessableException("codes must not be empty");
+        if (codes.size() > maxSymbolsPerClient) {
+            throw new UnprocessableException("too many codes: " + codes.size() + " (max " + maxSymbolsPerClient + ")");
+        }
+        List<Flux<PriceTick>> streams = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            if (!CODE.matcher(code).matches()) {
+                throw new UnprocessableException("stock code must be 6 alphanumerics: " + code);
+            }
+            streams.add(channelFlux(code));
+        }
+        return Flux.merge(streams);
+    }
+
+    /** 구독하는 순간 구독자 수를 올리고(필요하면 폴러 시작), 취소·종료 시 내린다 */
+    private Flux<PriceTick> channelFlux(String code) {
+        return Flux.defer(() -> {
+            Channel ch = acquire(code);
+            return ch.sink.asFlux()
+                    .onBackpressureLatest()
+                    .doFinally(signal -> release(ch));
+        });
+    }
+
+    private Channel acquire(String code) {
+        synchronized (channels) {
+            Channel ch = channels.computeIfAbsent(code, Channel::new);
+            ch.subscribers++;
+            if (ch.poller == null) {
+                ch.interval = minInterval;
+                ch.poller = startPoller(ch);
+                log.info("[LivePrice] {} poller started", code);
+            }
+            return ch;
+        }
+    }
+
+    private void release(Channel ch) {
+        synchronized (channels) {
+            if (--ch.subscribers > 0) return;
+            ch.poller.dispose();
+            channels.remove(ch.code, ch);
+            log.info("[LivePrice] {} poller stopped", ch.code);
+        }
+    }
+
+    /** 폴링 1회 → 다음 간격만큼 대기 → 반복 (실패해도 maxInterval 뒤 재시도) */
+    private Disposable startPoller(Channel ch) {
+        return Mono.defer(() -> poll(ch))
+                .onErrorResume(e -> {
+                    log.warn("[LivePrice] {} poll failed: {}", ch.code, e.getMessage());
+                    ch.interval = maxInterval;
+                    return Mono.just(maxInterval);
+                })
+                .flatMap(delay -> Mono.delay(delay))
+                .repeat()
+                .subscribe();
+    }
+
+    /** 값을 받아 바뀌었으면 내보내고, 다음 폴링까지 기다릴 시간을 돌려준다 */
+    private Mono<Duration> poll(Channel ch) {
+        Instant now = Instant.now();
+        boolean open = KrxMarketHours.isOpen(now);
+        if (open) ch.settleUntil = closeOf(now).plus(closeGrace);
+        // 장 마감 직후: 마지막 장중 틱이 그날 가격으로 남지 않도록 잠들기 전에 종가를 받아 본다
+        boolean live = open || now.isBefore(ch.settleUntil);
+        if (!live && ch.last != null) return Mono.just(untilOpen(now));
+
+        // 장중·마감 직후에는 캐시를 거치지 않고 바로, 그 밖에는 다음 장 시작까지 유효한 차트 캐시로
+        Mono<ChartSeries> latest = live
+                ? chartClient.fetchLatestAsync(ch.code, 2)
+                : chartClient.fetchSeriesAsync(ch.code, "day", 2);
+        return latest.map(series -> {
+            PriceTick tick = toTick(ch.code, series, now);
+            if (tick != null && !tick.sameQuote(ch.last)) {
+                ch.last = tick;
+                ch.sink.tryEmitNext(tick);
+                ch.interval = minInterval;
+            } else {
+                long next = Math.min(maxInterval.toMillis(), ch.interval.toMillis() * 3 / 2);
+                ch.interval = Duration.ofMillis(next);
+            }
+            return live ? ch.interval : untilOpen(now);
+        }).defaultIfEmpty(maxInterval);
+    }
+
+    private static Duration untilOpen(Instant now) {
+        return Duration.between(now, KrxMarketHours.nextOpen(now));
+    }
+
+    /** now 가 속한 날의 정규장 마감 시각 */
+    private static Instant closeOf(Instant now) {
+        return now.atZone(KrxMarketHours.ZONE).toLocalDate()
+                .atTime(KrxMarketHours.CLOSE).atZone(KrxMarketHours.ZONE).toInstant();
+    }
+
+    private static PriceTick toTick(String code, ChartSeries s, Instant at) {
+        if (s.isEmpty()) return null;
+        int last = s.size() - 1;
+        long price = s.close(last);
+        Long change = null;
+        Double changeRate = null;
+        if (last > 0 && s.close(last - 1) > 0) {
+            long prev = s.close(last - 1);
+            change = price - prev;
+            changeRate = Math.round(change * 10000.0 / prev) / 100.0;
+        }
+        String tradeDate = LocalDate.parse(String.valueOf(s.date(last)), DateTimeFormatter.BASIC_ISO_DATE).toString();
+        return new PriceTick(code, s.name(), price, change, changeRate, s.volume(last), tradeDate, at);
+    }
+
+    /** 폴러가 돌고 있는 종목 수 */
+    public int activeSymbols() {
+        synchronized (channels) {
+            return channels.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (channels) {
+            for (Channel ch : channels.values()) {
+                ch.poller.dispose();
+                ch.sink.tryEmitComplete();
+            }
+            channels.clear();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.sprout.stockproject.service.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 전 종목 일괄 작업(업스트림 호출) 실행기.
+ * - 요청 시작 간격(1 / ratePerSecond)과 동시 요청 수(concurrency) 두 가지로 업스트림 부하를 묶는다
+ * - 같은 실행기로는 동시에 한 작업만 돈다 (start/run 모두 같은 플래그를 compareAndSet 으로 잡음)
+ */
+public final class MarketBatchRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketBatchRunner.class);
+
+    private final String label;
+    private final int concurrency;
+    private final Duration spacing;
+    private final Duration timeout;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** label: 로그 머리말 (예: "Valuation") */
+    public MarketBatchRunner(String label, int concurrency, double ratePerSecond, long timeoutMinutes) {
+        this.label = label;
+        this.concurrency = Math.max(1, concurrency);
+        this.spacing = Duration.ofMillis(Math.max(1, Math.round(1000.0 / Math.max(0.01, ratePerSecond))));
+        this.timeout = Duration.ofMinutes(Math.max(1, timeoutMinutes));
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /** 백그라운드로 job 시작. 이미 돌고 있으면 false (이때 job 은 실행하지 않음) */
+    public boolean start(Supplier<String> job) {
+        if (!running.compareAndSet(false, true)) return false;
+        Mono.fromSupplier(job)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(s -> running.set(false))
+                .subscribe(r -> log.info("[{}] {}", label, r),
+                        e -> log.error("[{}] failed: {}", label, e.getMessage(), e));
+        return true;
+    }
+
+    /** 끝날 때까지 블로킹 (스케줄러 스레드용). 이미 돌고 있으면 busyMessage */
+    public String run(Supplier<String> job, String busyMessage) {
+        if (!running.compareAndSet(false, true)) return busyMessage;
+        try {
+            return job.get();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * items 를 간격·동시성 제한을 지켜 call 에 흘려 넣고 모두 끝날 때까지(최대 timeout) 기다린다.
+     * 항목별 실패는 onFailure 로 넘기고 나머지는 계속 진행한다.
+     * flatMap 의 onNext 는 직렬화되므로 onResult 에서는 잠금 없이 결과를 쌓아도 된다.
+     */
+    public <T, R> void forEach(List<T> items, Function<T, Mono<R>> call, Consumer<R> onResult,
+                               BiConsumer<T, Throwable> onFailure) {
+        Flux.fromIterable(items)
+                .delayElements(spacing)
+                .flatMap(item -> call.apply(item)
+                        .onErrorResume(e -> {
+                            onFailure.accept(item, e);
+                            return Mono.empty();
+                        }), concurrency)
+                .doOnNext(onResult)
+                .then()
+                .block(timeout);
+    }
+}
@@ -0,0 +1,203 @@
+package com.sprout.stockproject.service.market;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.event.MarketSnapshotChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 상승률/하락률/거래량/거래대금/시가총액 상위 종목 순위.
+ * 시세표가 바뀔 때만 지표×시장별 상위 depth 개를 크기 제한 힙으로 한 번에 뽑아 두고
+ * (원시 배열 1회 스캔, O(n log depth)), 조회는 미리 만든 목록의 앞부분만 잘라 반환한다.
+ */
+@Service
+public class MarketRankingService {
+
+    public enum Metric { GAINERS, LOSERS, VOLUME, VALUE, MARKET_CAP }
+
+    public record Entry(int rank, String stockCode, String stockName, String market,
+                        long close, long change, double changeRate, long volume, long value, long marketCap) {}
+
+    public record Ranking(String metric, String market, LocalDate tradeDate, List<Entry> items) {}
+
+    // 시장 버킷: MarketSnapshot.KOSPI..OTHER(0~3) + 전체(4)
+    private static final int ALL = 4;
+    private static final int BUCKETS = 5;
+
+    private final int depth;
+    private volatile Table table = Table.EMPTY;
+
+    public MarketRankingService(@Value("${market.rank.depth:100}") int depth) {
+        this.depth = Math.max(1, depth);
+    }
+
+    @EventListener
+    public void onSnapshotChanged(MarketSnapshotChangedEvent event) {
+        table = Table.build(event.snapshot(), depth);
+    }
+
+    /** metric: gainers|losers|volume|value|market_cap, market: ALL|KOSPI|KOSDAQ|KONEX */
+    public Ranking rank(String metric, String market, int limit) {
+        Metric m = parseMetric(metric);
+        int bucket = parseMarket(market);
+        Table t = table;
+        List<Entry> all = t.top[m.ordinal()][bucket];
+        int n = Math.max(0, Math.min(limit, all.size()));
+        return new Ranking(m.name().toLowerCase(Locale.ROOT),
+                bucket == ALL ? "ALL" : MarketSnapshot.marketName((byte) bucket),
+                t.tradeDate, all.subList(0, n));
+    }
+
+    private static Metric parseMetric(String metric) {
+        try {
+            return Metric.valueOf(metric.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new UnprocessableException("지원하지 않는 순위 지표입니다: " + metric);
+        }
+    }
+
+    private static int parseMarket(String market) {
+        if (market == null || market.isBlank() || "ALL".equalsIgnoreCase(market)) return ALL;
+        byte b = MarketSnapshot.marketOf(market.trim().toUpperCase(Locale.ROOT));
+        if (b == MarketSnapshot.OTHER) throw new UnprocessableException("지원하지 않는 시장입니다: " + market);
+        return b;
+    }
+
+    private static final class Table {
+        static final Table EMPTY = build(MarketSnapshot.EMPTY, 1);
+
+        final LocalDate tradeDate;
+        final List<Entry>[][] top;
+
+        private Table(LocalDate tradeDate, List<Entry>[][] top) {
+            this.tradeDate = tradeDate;
+            this.top = top;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Table build(MarketSnapshot s, int depth) {
+            Metric[] metrics = Metric.values();
+            List<Entry>[][] top = new List[metrics.length][BUCKETS];
+            TopK[] heaps = new TopK[BUCKETS];
+            for (Metric m : metrics) {
+                for (int b = 0; b < BUCKETS; b++) heaps[b] = new TopK(depth);
+                for (int id = 0; id < s.size(); id++) {
+                    if (!eligible(s, m, id)) continue;
+                    double key = key(s, m, id);
+                    heaps[s.market[id]].offer(key, id);
+                    heaps[ALL].offer(key, id);
+                }
+                for (int b = 0; b < BUCKETS; b++) top[m.ordinal()][b] = toEntries(s, heaps[b].drainDescending());
+            }
+            return new Table(s.tradeDate, top);
+        }
+
+        private static boolean eligible(MarketSnapshot s, Metric m, int id) {
+            return switch (m) {
+                case GAINERS -> s.volume[id] > 0 && s.changeRate[id] > 0;
+                case LOSERS -> s.volume[id] > 0 && s.changeRate[id] < 0;
+                case VOLUME -> s.volume[id] > 0;
+                case VALUE -> s.value[id] > 0;
+                case MARKET_CAP -> s.marketCap[id] > 0;
+            };
+        }
+
+        private static double key(MarketSnapshot s, Metric m, int id) {
+            return switch (m) {
+                case GAINERS -> s.changeRate[id];
+                case LOSERS -> -s.changeRate[id];
+                case VOLUME -> s.volume[id];
+                case VALUE -> s.value[id];
+                case MARKET_CAP -> s.marketCap[id];
+            };
+        }
+
+        private static List<Entry> toEntries(MarketSnapshot s, int[] ids) {
+            if (ids.length == 0) return Collections.emptyList();
+            List<Entry> out = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                int id = ids[i];
+                out.add(new Entry(i + 1, s.codes[id], s.names[id], MarketSnapshot.marketName(s.market[id]),
+                        s.close[id], s.change[id], s.changeRate[id], s.volume[id], s.value[id], s.marketCap[id]));
+            }
+            return Collections.unmodifiableList(out);
+        }
+    }
+
+    /**
+     * 상위 k 개만 유지하는 (key, id) 최소 힙. 루트가 현재 k 번째 값이라
+     * 그보다 작은 후보는 비교 1번으로 버린다. 동률은 id(종목코드 순)가 작은 쪽 우선.
+     */
+    public static final class TopK {
+        private final double[] keys;
+        private final int[] ids;
+        private int size;
+
+        public TopK(int k) {
+            keys = new double[k];
+            ids = new int[k];
+        }
+
+        public void offer(double key, int id) {
+            if (size < keys.length) {
+                keys[size] = key;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (better(key, id, keys[0], ids[0])) {
+                keys[0] = key;
+                ids[0] = id;
+                siftDown(0);
+            }
+        }
+
+        /** 좋은 순(내림차순) id 배열. 호출 후 힙은 비워진다 */
+        public int[] drainDescending() {
+            int[] out = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                out[i] = ids[0];
+                size--;
+                keys[0] = keys[size];
+                ids[0] = ids[size];
+                if (size > 0) siftDown(0);
+            }
+            return out;
+        }
+
+        private static boolean better(double k1, int id1, double k2, int id2) {
+            return k1 > k2 || (k1 == k2 && id1 < id2);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(keys[parent], ids[parent], keys[i], ids[i])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1;
+                if (l >= size) return;
+                int r = l + 1;
+                int worst = r < size && better(keys[l], ids[l], keys[r], ids[r]) ? r : l;
+                if (!better(keys[i], ids[i], keys[worst], ids[worst])) return;
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double k = keys[a]; keys[a] = keys[b]; keys[b] = k;
+            int t = ids[a]; ids[a] = ids[b]; ids[b] = t;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.sprout.stockproject.service.market;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 하루치 전 종목 시세표 (KRX MDCSTAT01501 1회 응답).
+ * 종목코드 오름차순으로 정렬한 위치가 곧 종목 id 이고, 모든 값은 id 로 인덱싱하는 원시 배열에 둔다.
+ * 한 번 만들면 바뀌지 않으므로 여러 스레드가 잠금 없이 읽는다.
+ */
+public final class MarketSnapshot {
+
+    public static final byte KOSPI = 0;
+    public static final byte KOSDAQ = 1;
+    public static final byte KONEX = 2;
+    public static final byte OTHER = 3;
+
+    public static final MarketSnapshot EMPTY = new Builder(0).build(null, null);
+
+    final LocalDate tradeDate;
+    final Instant checkedAt;
+
+    final String[] codes;
+    final String[] names;
+    final byte[] market;
+    final long[] close;
+    final long[] change;
+    final double[] changeRate;
+    final long[] open;
+    final long[] high;
+    final long[] low;
+    final long[] volume;
+    final long[] value;
+    final long[] marketCap;
+
+    private MarketSnapshot(LocalDate tradeDate, Instant checkedAt, String[] codes, String[] names, byte[] market,
+                           long[] close, long[] change, double[] changeRate, long[] open, long[] high, long[] low,
+                           long[] volume, long[] value, long[] marketCap) {
+        this.tradeDate = tradeDate;
+        this.checkedAt = checkedAt;
+        this.codes = codes;
+        this.names = names;
+        this.market = market;
+        this.close = close;
+        this.change = change;
+        this.changeRate = changeRate;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.volume = volume;
+        this.value = value;
+        this.marketCap = marketCap;
+    }
+
+    /** 시세 기준 거래일 (비어 있으면 null) */
+    public LocalDate tradeDate() { return tradeDate; }
+
+    /** 이 시세표가 최신임을 마지막으로 확인한 시각 (KRX 조회 시각) */
+    public Instant checkedAt() { return checkedAt; }
+
+    public int size() { return codes.length; }
+
+    public boolean isEmpty() { return codes.length == 0; }
+
+    /** 종목 id (없으면 -1) */
+    public int indexOf(String stockCode) {
+        if (stockCode == null) return -1;
+        int i = Arrays.binarySearch(codes, stockCode);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * 장 마감 후 새로 마감된 거래일이 없으면(= 조회 이후 변동 없음) true.
+     * 장중에는 실시간 가격이 필요하므로 항상 false.
+     */
+    public boolean isCurrent(Instant now) {
+        if (isEmpty() || checkedAt == null || KrxMarketHours.isOpen(now)) return false;
+        return !KrxMarketHours.lastCompletedSession(now).isAfter(KrxMarketHours.lastCompletedSession(checkedAt));
+    }
+
+    public String code(int id) { return codes[id]; }
+    public String name(int id) { return names[id]; }
+    public byte market(int id) { return market[id]; }
+    public long close(int id) { return close[id]; }
+    public long change(int id) { return change[id]; }
+    public double changeRate(int id) { return changeRate[id]; }
+    public long open(int id) { return open[id]; }
+    public long high(int id) { return high[id]; }
+    public long low(int id) { return low[id]; }
+    public long volume(int id) { return volume[id]; }
+    public long value(int id) { return value[id]; }
+    public long marketCap(int id) { return marketCap[id]; }
+
+    /** "KOSDAQ GLOBAL" 등 세부 구분은 상위 시장으로 묶음 */
+    public static byte marketOf(String marketName) {
+        if (marketName == null) return OTHER;
+        if (marketName.startsWith("KOSPI")) return KOSPI;
+        if (marketName.startsWith("KOSDAQ")) return KOSDAQ;
+        if (marketName.startsWith("KONEX")) return KONEX;
+        return OTHER;
+    }
+
+    public static String marketName(byte market) {
+        return switch (market) {
+            case KOSPI -> "KOSPI";
+            case KOSDAQ -> "KOSDAQ";
+            case KONEX -> "KONEX";
+            default -> "OTHER";
+        };
+    }
+
+    /** 응답 순서대로 쌓은 뒤 build 시 종목코드 순으로 재배치 (중복 코드는 처음 것만) */
+    public static final class Builder {
+        private int n;
+        private String[] codes;
+        private String[] names;
+        private byte[] market;
+        private long[] close, change, open, high, low, volume, value, marketCap;
+        private double[] changeRate;
+
+        public Builder(int expected) {
+            int cap = Math.max(16, expected);
+            codes = new String[cap];
+            names = new String[cap];
+            market = new byte[cap];
+            close = new long[cap];
+            change = new long[cap];
+            changeRate = new double[cap];
+            open = new long[cap];
+            high = new long[cap];
+            low = new long[cap];
+            volume = new long[cap];
+            value = new long[cap];
+            marketCap = new long[cap];
+        }
+
+        public Builder add(String code, String name, String marketName, long close, long change, double changeRate,
+                           long open, long high, long low, long volume, long value, long marketCap) {
+            if (n == codes.length) grow();
+            codes[n] = code;
+            names[n] = name;
+            market[n] = marketOf(marketName);
+            this.close[n] = close;
+            this.change[n] = change;
+            this.changeRate[n] = changeRate;
+            this.open[n] = open;
+            this.high[n] = high;
+            this.low[n] = low;
+            this.volume[n] = volume;
+            this.value[n] = value;
+            this.marketCap[n] = marketCap;
+            n++;
+            return this;
+        }
+
+        public int size() { return n; }
+
+        public MarketSnapshot build(LocalDate tradeDate, Instant checkedAt) {
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(i -> codes[i]));
+
+            int m = 0;
+            int[] keep = new int[n];
+            for (int i = 0; i < n; i++) {
+                if (m > 0 && codes[keep[m - 1]].equals(codes[order[i]])) continue;
+                keep[m++] = order[i];
+            }
+
+            MarketSnapshot s = new MarketSnapshot(tradeDate, checkedAt, new String[m], new String[m], new byte[m],
+                    new long[m], new long[m], new double[m], new long[m], new long[m], new long[m],
+                    new long[m], new long[m], new long[m]);
+            for (int id = 0; id < m; id++) {
+                int src = keep[id];
+                s.codes[id] = codes[src];
+                s.names[id] = names[src];
+                s.market[id] = market[src];
+                s.close[id] = close[src];
+                s.change[id] = change[src];
+                s.changeRate[id] = changeRate[src];
+                s.open[id] = open[src];
+                s.high[id] = high[src];
+                s.low[id] = low[src];
+                s.volume[id] = volume[src];
+                s.value[id] = value[src];
+                s.marketCap[id] = marketCap[src];
+            }
+            return s;
+        }
+
+        private void grow() {
+            int cap = codes.length * 2;
+            codes = Arrays.copyOf(codes, cap);
+            names = Arrays.copyOf(names, cap);
+            market = Arrays.copyOf(market, cap);
+            close = Arrays.copyOf(close, cap);
+            change = Arrays.copyOf(change, cap);
+            changeRate = Arrays.copyOf(changeRate, cap);
+            open = Arrays.copyOf(open, cap);
+            high = Arrays.copyOf(high, cap);
+            low = Arrays.copyOf(low, cap);
+            volume = Arrays.copyOf(volume, cap);
+            value = Arrays.copyOf(value, cap);
+            marketCap = Arrays.copyOf(marketCap, cap);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sprout.stockproject.service.market;
+
+import com.sprout.stockproject.event.MarketSnapshotChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/** 최신 전 종목 시세표 보관소. 새 시세표로 참조만 통째로 교체하고 변경 이벤트를 발행한다 */
+@Component
+public class MarketSnapshotStore {
+
+    private final ApplicationEventPublisher events;
+
+    private volatile MarketSnapshot current = MarketSnapshot.EMPTY;
+
+    public MarketSnapshotStore(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    public MarketSnapshot current() {
+        return current;
+    }
+
+    /** 이전보다 오래된 거래일 시세표는 무시 */
+    public void update(MarketSnapshot snapshot) {
+        MarketSnapshot prev = current;
+        if (snapshot == null || snapshot.isEmpty()) return;
+        if (prev.tradeDate() != null && snapshot.tradeDate().isBefore(prev.tradeDate())) return;
+        current = snapshot;
+        events.publishEvent(new MarketSnapshotChangedEvent(snapshot));
+    }
+}
@@ -0,0 +1,151 @@
+package com.sprout.stockproject.service.screener;
+
+import com.sprout.stockproject.external.chart.Bars;
+
+import java.util.List;
+
+/**
+ * 종목 하나의 최근 봉을 원시 배열로 복사해 두고 식의 함수 슬롯을 계산하는 작업 공간.
+ * fork-join 잎 작업마다 하나를 만들어 종목을 바꿔 가며 재사용한다 (종목당 할당 없음).
+ */
+final class BarWindow {
+
+    private double[] open = new double[0];
+    private double[] high = new double[0];
+    private double[] low = new double[0];
+    private double[] close = new double[0];
+    private double[] volume = new double[0];
+    private int n;
+    private final double[] slots;
+
+    BarWindow(int slotCount) {
+        this.slots = new double[slotCount];
+    }
+
+    /** bars 의 마지막 최대 need 개 봉을 싣는다 */
+    void load(Bars bars, int need) {
+        int size = bars.size();
+        int len = Math.min(size, need);
+        if (close.length < len) {
+            open = new double[len];
+            high = new double[len];
+            low = new double[len];
+            close = new double[len];
+            volume = new double[len];
+        }
+        int from = size - len;
+        for (int k = 0; k < len; k++) {
+            int i = from + k;
+            open[k] = bars.open(i);
+            high[k] = bars.high(i);
+            low[k] = bars.low(i);
+            close[k] = bars.close(i);
+            volume[k] = bars.volume(i);
+        }
+        n = len;
+    }
+
+    void compute(List<ScreenExpression.Call> calls) {
+        for (int s = 0; s < calls.size(); s++) {
+            ScreenExpression.Call c = calls.get(s);
+            int p = c.period();
+            slots[s] = switch (c.func()) {
+                case SMA -> mean(close, p);
+                case EMA -> ema(p, start(c));
+                case RSI -> rsi(p, start(c));
+                case ROC -> roc(p);
+                case HIGHEST -> highest(p);
+                case LOWEST -> lowest(p);
+                case AVGVOL -> mean(volume, p);
+            };
+        }
+    }
+
+    /**
+     * EMA·RSI 는 시작점에 따라 값이 조금씩 달라지므로, 식의 다른 항 때문에 창이 길어져도
+     * 항상 자기 lookback 만큼의 최근 봉에서 시작한다 (같은 호출은 어떤 식에서든 같은 값)
+     */
+    private int start(ScreenExpression.Call c) {
+        return Math.max(0, n - c.lookback());
+    }
+
+    double slot(int s) {
+        return slots[s];
+    }
+
+    double lastOpen() {
+        return n == 0 ? Double.NaN : open[n - 1];
+    }
+
+    double lastHigh() {
+        return n == 0 ? Double.NaN : high[n - 1];
+    }
+
+    double lastLow() {
+        return n == 0 ? Double.NaN : low[n - 1];
+    }
+
+    double lastClose() {
+        return n == 0 ? Double.NaN : close[n - 1];
+    }
+
+    double lastVolume() {
+        return n == 0 ? Double.NaN : volume[n - 1];
+    }
+
+    private double mean(double[] a, int p) {
+        if (n < p) return Double.NaN;
+        double sum = 0;
+        for (int i = n - p; i < n; i++) sum += a[i];
+        return sum / p;
+    }
+
+    /** from 부터 p 개 단순평균으로 시작하는 EMA (IndicatorService 와 같은 정의) */
+    private double ema(int p, int from) {
+        if (n - from < p) return Double.NaN;
+        double sum = 0;
+        for (int i = from; i < from + p; i++) sum += close[i];
+        double v = sum / p;
+        double alpha = 2.0 / (p + 1);
+        for (int i = from + p; i < n; i++) v += alpha * (close[i] - v);
+        return v;
+    }
+
+    /** Wilder RSI, 첫 평균은 처음 p 개 등락의 단순평균 */
+    private double rsi(int p, int from) {
+        if (n - from < p + 1) return Double.NaN;
+        double gain = 0, loss = 0;
+        for (int i = from + 1; i <= from + p; i++) {
+            double d = close[i] - close[i - 1];
+            if (d > 0) gain += d; else loss -= d;
+        }
+        gain /= p;
+        loss /= p;
+        for (int i = from + p + 1; i < n; i++) {
+            double d = close[i] - close[i - 1];
+            gain = (gain * (p - 1) + Math.max(d, 0)) / p;
+            loss = (loss * (p - 1) + Math.max(-d, 0)) / p;
+        }
+        if (loss == 0) return gain == 0 ? 50.0 : 100.0;
+        return 100.0 - 100.0 / (1.0 + gain / loss);
+    }
+
+    private double roc(int p) {
+        if (n < p + 1 || close[n - 1 - p] == 0) return Double.NaN;
+        return (close[n - 1] / close[n - 1 - p] - 1.0) * 100.0;
+    }
+
+    private double highest(int p) {
+        if (n < p) return Double.NaN;
+        double m = Double.NEGATIVE_INFINITY;
+        for (int i = n - p; i < n; i++) m = Math.max(m, high[i]);
+        return m;
+    }
+
+    private double lowest(int p) {
+        if (n < p) return Double.NaN;
+        double m = Double.POSITIVE_INFINITY;
+        for (int i = n - p; i < n; i++) m = Math.min(m, low[i]);
+        return m;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sprout.stockproject.service.screener;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.external.NaverChartStockClient;
+import com.sprout.stockproject.repository.StockInfoRepository;
+import com.sprout.stockproject.service.market.KrxMarketHours;
+import com.sprout.stockproject.service.market.MarketBatchRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 전 종목(StockInfo) 일봉 이력 일괄 동기화 (스크리너 대상 채우기).
+ * - 처음 보는 종목은 최근 bars 개를 받아 저장하고, 저장된 종목은 마지막 저장일 이후 봉만 증분으로 받는다
+ * - 요청 간격·동시 요청 수 제한과 단일 실행은 MarketBatchRunner 가 맡는다
+ */
+@Service
+public class DailyHistorySync {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyHistorySync.class);
+
+    private final StockInfoRepository stockRepository;
+    private final NaverChartStockClient chartClient;
+    private final int bars;
+    private final MarketBatchRunner batch;
+
+    public DailyHistorySync(StockInfoRepository stockRepository, NaverChartStockClient chartClient,
+                            @Value("${screener.history.bars:1000}") int bars,
+                            @Value("${screener.history.sync.concurrency:4}") int concurrency,
+                            @Value("${screener.history.sync.rate-per-second:5}") double ratePerSecond,
+                            @Value("${screener.history.sync.timeout-minutes:60}") long timeoutMinutes) {
+        this.stockRepository = stockRepository;
+        this.chartClient = chartClient;
+        this.bars = Math.max(1, bars);
+        this.batch = new MarketBatchRunner("HistorySync", concurrency, ratePerSecond, timeoutMinutes);
+    }
+
+    public boolean isRunning() {
+        return batch.isRunning();
+    }
+
+    /** 백그라운드로 동기화 시작. 이미 돌고 있으면 false */
+    public boolean start() {
+        return batch.start(this::syncAll);
+    }
+
+    /** 끝날 때까지 블로킹 (스케줄러 스레드용). 결과 요약 문자열 반환 */
+    public String sync() {
+        return batch.run(this::syncAll, "이미 동기화 중");
+    }
+
+    private String syncAll() {
+        List<String> codes = stockRepository.findAll(Sort.by("stockCode")).stream()
+                .map(StockInfo::getStockCode)
+                .toList();
+        if (codes.isEmpty()) return "동기화 대상 종목 없음 (종목 마스터 미적재)";
+
+        LocalDate session = KrxMarketHours.lastCompletedSession(Instant.now());
+        int sessionDate = Integer.parseInt(session.format(DateTimeFormatter.BASIC_ISO_DATE));
+        long started = System.nanoTime();
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger behind = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        batch.forEach(codes,
+                code -> chartClient.syncDailyHistoryAsync(code, bars),
+                last -> (last >= sessionDate ? current : behind).incrementAndGet(),
+                (code, e) -> {
+                    failed.incrementAndGet();
+                    log.debug("[HistorySync] {} skipped: {}", code, e.getMessage());
+                });
+
+        long elapsedSec = (System.nanoTime() - started) / 1_000_000_000L;
+        // 거래정지 종목이나 휴장일(기준일 봉 없음)은 '이전 봉까지' 로 센다
+        return String.format("일봉 이력 동기화 (기준 %s): 최신 %d / 이전 봉까지 %d / 실패 %d (%ds)",
+                session, current.get(), behind.get(), failed.get(), elapsedSec);
+    }
+}
@@ -0,0 +1,335 @@
+package com.sprout.stockproject.service.screener;
+
+import com.sprout.stockproject.api.UnprocessableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 스크리너 필터·정렬 식. 예: close > sma(200) and rsi(14) < 30
+ * - 논리: or, and, not / 비교: > >= < <= == != / 산술: + - * / / 괄호, 숫자
+ * - 마지막 봉 값: open high low close volume
+ * - 함수(n 은 봉 수): sma(n) ema(n) rsi(n) roc(n)=n봉 전 대비 %, highest(n) lowest(n), avgvol(n)
+ * 참·거짓은 1/0 으로 다루고, 이력이 모자라 계산할 수 없는 값은 NaN (NaN 과의 비교는 거짓).
+ * 파싱할 때 같은 함수 호출은 슬롯 하나로 합쳐 종목마다 한 번만 계산한다.
+ */
+public final class ScreenExpression {
+
+    public enum Func { SMA, EMA, RSI, ROC, HIGHEST, LOWEST, AVGVOL }
+
+    /** 함수 호출 하나 = BarWindow 슬롯 하나 */
+    record Call(Func func, int period) {
+
+        /** 값 계산에 쓰는 최근 봉 수 (EMA·RSI 는 초기값 영향이 줄도록 4배 더) */
+        int lookback() {
+            return switch (func) {
+                case EMA -> period * 5;
+                case RSI -> period * 5 + 1;
+                case ROC -> period + 1;
+                default -> period;
+            };
+        }
+    }
+
+    interface Node {
+        double eval(BarWindow w);
+    }
+
+    private static final int MAX_LENGTH = 500;
+    private static final int MAX_CALLS = 32;
+    private static final int MAX_PERIOD = 500;
+
+    private final String source;
+    private final Node root;
+    private final List<Call> calls;
+
+    private ScreenExpression(String source, Node root, List<Call> calls) {
+        this.source = source;
+        this.root = root;
+        this.calls = calls;
+    }
+
+    /** 문법 오류면 422 */
+    public static ScreenExpression parse(String source) {
+        if (source == null || source.isBlank()) throw new UnprocessableException("expression must not be empty");
+        if (source.length() > MAX_LENGTH) throw new UnprocessableException("expression too long (max " + MAX_LENGTH + ")");
+        Parser p = new Parser(source);
+        Node root = p.parseOr();
+        if (p.peek().kind != Kind.END) throw p.error("unexpected '" + p.peek().text + "'");
+        return new ScreenExpression(source.trim(), root, List.copyOf(p.calls));
+    }
+
+    public String source() {
+        return source;
+    }
+
+    List<Call> calls() {
+        return calls;
+    }
+
+    /** 식 전체를 계산하는 데 필요한 최근 봉 수 (최소 1) */
+    public int lookback() {
+        int n = 1;
+        for (Call c : calls) n = Math.max(n, c.lookback());
+        return n;
+    }
+
+    /** w 의 슬롯이 이 식의 calls 로 채워져 있어야 한다 */
+    double value(BarWindow w) {
+        return root.eval(w);
+    }
+
+    boolean matches(BarWindow w) {
+        double v = root.eval(w);
+        return v != 0 && !Double.isNaN(v);
+    }
+
+    // ---- 파서 (재귀 하강) ----
+
+    private enum Kind { NUMBER, IDENT, OP, LPAREN, RPAREN, END }
+
+    private record Token(Kind kind, String text, int pos) {}
+
+    private static final class Parser {
+        final String src;
+        final List<Token> tokens;
+        final List<Call> calls = new ArrayList<>();
+        int i;
+
+        Parser(String src) {
+            this.src = src;
+            this.tokens = tokenize(src);
+        }
+
+        Token peek() {
+            return tokens.get(i);
+        }
+
+        Token next() {
+            return tokens.get(i++);
+        }
+
+        boolean acceptIdent(String word) {
+            Token t = peek();
+            if (t.kind == Kind.IDENT && t.text.equals(word)) {
+                i++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean acceptOp(String op) {
+            Token t = peek();
+            if (t.kind == Kind.OP && t.text.equals(op)) {
+                i++;
+                return true;
+            }
+            return false;
+        }
+
+        UnprocessableException error(String message) {
+            return new UnprocessableException("invalid expression at " + peek().pos + ": " + message + " (" + src + ")");
+        }
+
+        Node parseOr() {
+            Node left = parseAnd();
+            while (acceptIdent("or")) {
+                Node l = left, r = parseAnd();
+                left = w -> truthy(l.eval(w)) || truthy(r.eval(w)) ? 1 : 0;
+            }
+            return left;
+        }
+
+        Node parseAnd() {
+            Node left = parseNot();
+            while (acceptIdent("and")) {
+                Node l = left, r = parseNot();
+                left = w -> truthy(l.eval(w)) && truthy(r.eval(w)) ? 1 : 0;
+            }
+            return left;
+        }
+
+        Node parseNot() {
+            if (acceptIdent("not")) {
+                Node inner = parseNot();
+                return w -> truthy(inner.eval(w)) ? 0 : 1;
+            }
+            return parseComparison();
+        }
+
+        Node parseComparison() {
+            Node left = parseSum();
+            Token t = peek();
+            if (t.kind != Kind.OP) return left;
+            Node l = left;
+            switch (t.text) {
+                case ">" -> { i++; Node r = parseSum(); return w -> l.eval(w) > r.eval(w) ? 1 : 0; }
+                case ">=" -> { i++; Node r = parseSum(); return w -> l.eval(w) >= r.eval(w) ? 1 : 0; }
+                case "<" -> { i++; Node r = parseSum(); return w -> l.eval(w) < r.eval(w) ? 1 : 0; }
+                case "<=" -> { i++; Node r = parseSum(); return w -> l.eval(w) <= r.eval(w) ? 1 : 0; }
+                case "==" -> { i++; Node r = parseSum(); return w -> l.eval(w) == r.eval(w) ? 1 : 0; }
+                case "!=" -> {
+                    i++;
+                    Node r = parseSum();
+                    return w -> {
+                        double a = l.eval(w), b = r.eval(w);
+                        return !Double.isNaN(a) && !Double.isNaN(b) && a != b ? 1 : 0;
+                    };
+                }
+                default -> { return left; }
+            }
+        }
+
+        Node parseSum() {
+            Node left = parseTerm();
+            while (true) {
+                Node l = left;
+                if (acceptOp("+")) {
+                    Node r = parseTerm();
+                    left = w -> l.eval(w) + r.eval(w);
+                } else if (acceptOp("-")) {
+                    Node r = parseTerm();
+                    left = w -> l.eval(w) - r.eval(w);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        Node parseTerm() {
+            Node left = parseUnary();
+            while (true) {
+                Node l = left;
+                if (acceptOp("*")) {
+                    Node r = parseUnary();
+                    left = w -> l.eval(w) * r.eval(w);
+                } else if (acceptOp("/")) {
+                    Node r = parseUnary();
+                    left = w -> {
+                        double d = r.eval(w);
+                        return d == 0 ? Double.NaN : l.eval(w) / d;
+                    };
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        Node parseUnary() {
+            if (acceptOp("-")) {
+                Node inner = parseUnary();
+                return w -> -inner.eval(w);
+            }
+            return parsePrimary();
+        }
+
+        Node parsePrimary() {
+            Token t = next();
+            switch (t.kind) {
+                case NUMBER -> {
+                    double v = Double.parseDouble(t.text);
+                    return w -> v;
+                }
+                case LPAREN -> {
+                    Node inner = parseOr();
+                    if (next().kind != Kind.RPAREN) { i--; throw error("')' expected"); }
+                    return inner;
+                }
+                case IDENT -> {
+                    if (peek().kind == Kind.LPAREN) return parseCall(t);
+                    return switch (t.text) {
+                        case "open" -> BarWindow::lastOpen;
+                        case "high" -> BarWindow::lastHigh;
+                        case "low" -> BarWindow::lastLow;
+                        case "close" -> BarWindow::lastClose;
+                        case "volume" -> BarWindow::lastVolume;
+                        default -> { i--; throw error("unknown field '" + t.text + "'"); }
+                    };
+                }
+                default -> {
+                    i--;
+                    throw error(t.kind == Kind.END ? "unexpected end" : "unexpected '" + t.text + "'");
+                }
+            }
+        }
+
+        Node parseCall(Token name) {
+            Func func;
+            try {
+                func = Func.valueOf(name.text.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                i--;
+                throw error("unknown function '" + name.text + "'");
+            }
+            next(); // (
+            Token arg = next();
+            if (arg.kind != Kind.NUMBER || arg.text.contains(".")) { i--; throw error("integer period expected"); }
+            if (next().kind != Kind.RPAREN) { i--; throw error("')' expected"); }
+            int period;
+            try {
+                period = Integer.parseInt(arg.text);
+            } catch (NumberFormatException e) {
+                period = -1;
+            }
+            if (period < 1 || period > MAX_PERIOD) {
+                throw new UnprocessableException("period out of range (1~" + MAX_PERIOD + "): " + arg.text);
+            }
+            Call call = new Call(func, period);
+            int slot = calls.indexOf(call);
+            if (slot < 0) {
+                if (calls.size() == MAX_CALLS) throw new UnprocessableException("too many functions (max " + MAX_CALLS + ")");
+                slot = calls.size();
+                calls.add(call);
+            }
+            int s = slot;
+            return w -> w.slot(s);
+        }
+
+        private static boolean truthy(double v) {
+            return v != 0 && !Double.isNaN(v);
+        }
+
+        private static List<Token> tokenize(String src) {
+            List<Token> out = new ArrayList<>();
+            int n = src.length();
+            int p = 0;
+            while (p < n) {
+                char c = src.charAt(p);
+                if (Character.isWhitespace(c)) {
+                    p++;
+                } else if (Character.isDigit(c) || (c == '.' && p + 1 < n && Character.isDigit(src.charAt(p + 1)))) {
+                    int start = p;
+                    while (p < n && (Character.isDigit(src.charAt(p)) || src.charAt(p) == '.')) p++;
+                    String text = src.substring(start, p);
+                    if (text.indexOf('.') != text.lastIndexOf('.')) {
+                        throw new UnprocessableException("invalid number at " + start + ": " + text);
+                    }
+                    out.add(new Token(Kind.NUMBER, text, start));
+                } else if (Character.isLetter(c) || c == '_') {
+                    int start = p;
+                    while (p < n && (Character.isLetterOrDigit(src.charAt(p)) || src.charAt(p) == '_')) p++;
+                    out.add(new Token(Kind.IDENT, src.substring(start, p).toLowerCase(Locale.ROOT), start));
+                } else if (c == '(') {
+                    out.add(new Token(Kind.LPAREN, "(", p++));
+                } else if (c == ')') {
+                    out.add(new Token(Kind.RPAREN, ")", p++));
+                } else if ("<>=!".indexOf(c) >= 0) {
+                    int start = p++;
+                    if (p < n && src.charAt(p) == '=') p++;
+                    String op = src.substring(start, p);
+                    if (op.equals("=") || op.equals("!")) {
+                        throw new UnprocessableException("invalid operator at " + start + ": " + op);
+                    }
+                    out.add(new Token(Kind.OP, op, start));
+                } else if ("+-*/".indexOf(c) >= 0) {
+                    out.add(new Token(Kind.OP, String.valueOf(c), p++));
+                } else {
+                    throw new UnprocessableException("invalid character at " + p + ": " + c);
+                }
+            }
+            out.add(new Token(Kind.END, "", n));
+            return out;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.sprout.stockproject.service.screener;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.external.chart.Bars;
+import com.sprout.stockproject.external.chart.ChartHistoryStore;
+import com.sprout.stockproject.service.market.KrxMarketHours;
+import com.sprout.stockproject.service.market.MarketRankingService;
+import com.sprout.stockproject.service.market.MarketSnapshot;
+import com.sprout.stockproject.service.market.MarketSnapshotStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 전 종목 기술적 스크리너. 업스트림 호출 없이 로컬에 저장된 일봉 이력만 본다.
+ * - 대상 종목은 메모리 시세표(KRX 전 종목)에서, 봉은 차트 이력 저장소(메모리 맵)에서 읽는다
+ * - 종목 구간을 fork-join 으로 나눠 병렬로 돌고, 종목마다 필요한 최근 봉만 원시 배열로 복사해 식을 계산한다
+ * - 정렬 식이 있으면 크기 제한 힙으로 상위 limit 개만 뽑는다 (없으면 종목코드 순)
+ * 로컬 이력은 장 마감 후 DailyHistorySync 가 전 종목을 채운다. 모든 종목을 기준 거래일(asOf) 봉까지만 잘라
+ * 평가하고(장중에 저장된 형성 중인 봉은 제외), asOf 봉이 없는 종목(거래정지, 동기화 실패 등)은 건너뛰고 개수만 알려 준다.
+ */
+@Service
+public class StockScreenerService {
+
+    /** tradeDate: 계산에 쓴 마지막 봉 날짜(yyyy-MM-dd, 항상 asOf), score: 정렬 식 값 (정렬 없으면 null) */
+    public record Hit(int rank, String stockCode, String stockName, String market, String tradeDate,
+                      long close, Double score) {}
+
+    /**
+     * asOf: 최신으로 보는 기준 거래일(yyyy-MM-dd), scanned: 대상 종목 수,
+     * withHistory: 그중 asOf 봉이 로컬 이력에 있어 계산한 종목 수, stale: asOf 봉이 없어 제외한 종목 수
+     */
+    public record Result(String filter, String sort, String order, String market, String asOf, int scanned,
+                         int withHistory, int stale, int matched, long elapsedMs, List<Hit> items) {}
+
+    private static final int LEAF = 64;
+
+    private final ChartHistoryStore history;
+    private final MarketSnapshotStore marketStore;
+    private final ForkJoinPool pool;
+    private final int maxLimit;
+
+    public StockScreenerService(ChartHistoryStore history, MarketSnapshotStore marketStore,
+                                @Value("${screener.parallelism:0}") int parallelism,
+                                @Value("${screener.max-limit:500}") int maxLimit) {
+        this.history = history;
+        this.marketStore = marketStore;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxLimit = Math.max(1, maxLimit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param filter 조건 식 (비우면 이력이 있는 전 종목)
+     * @param sort   정렬 식 (비우면 종목코드 순)
+     * @param order  desc|asc
+     * @param market ALL|KOSPI|KOSDAQ|KONEX
+     */
+    public Result screen(String filter, String sort, String order, String market, int limit) {
+        if (limit < 1 || limit > maxLimit) throw new UnprocessableException("limit must be 1~" + maxLimit);
+        if (order != null && !order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            throw new UnprocessableException("order must be asc|desc");
+        }
+        boolean desc = !"asc".equalsIgnoreCase(order);
+        ScreenExpression where = filter == null || filter.isBlank() ? null : ScreenExpression.parse(filter);
+        ScreenExpression rank = sort == null || sort.isBlank() ? null : ScreenExpression.parse(sort);
+        byte marketCode = parseMarket(market);
+
+        long started = System.nanoTime();
+        MarketSnapshot snapshot = marketStore.current();
+        LocalDate asOf = expectedSession(snapshot, Instant.now());
+        int minDate = Integer.parseInt(asOf.format(DateTimeFormatter.BASIC_ISO_DATE));
+        int[] ids = new int[snapshot.size()];
+        int count = 0;
+        for (int id = 0; id < snapshot.size(); id++) {
+            if (marketCode < 0 || snapshot.market(id) == marketCode) ids[count++] = id;
+        }
+        int[] targets = Arrays.copyOf(ids, count);
+
+        Matches all = pool.invoke(new ScanTask(snapshot, targets, 0, count, minDate, where, rank));
+        List<Hit> items = select(snapshot, all, rank != null, desc, limit);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        return new Result(where == null ? null : where.source(), rank == null ? null : rank.source(),
+                desc ? "desc" : "asc", marketCode < 0 ? "ALL" : MarketSnapshot.marketName(marketCode),
+                asOf.toString(), count, all.withHistory, all.stale, all.size, elapsedMs, items);
+    }
+
+    /**
+     * 스캔 기준 거래일. 이력은 이 날짜까지만 잘라 평가하고, 이 날짜 봉이 없으면 stale 로 센다.
+     * 시세표가 마지막 장 마감 이후에 적재됐으면 그 거래일(휴장일이면 KRX 가 돌려준 직전 거래일),
+     * 아니면 달력상 마지막으로 마감된 평일.
+     */
+    static LocalDate expectedSession(MarketSnapshot snapshot, Instant now) {
+        LocalDate session = KrxMarketHours.lastCompletedSession(now);
+        if (snapshot.isEmpty() || snapshot.tradeDate() == null || snapshot.checkedAt() == null) return session;
+        if (!KrxMarketHours.lastCompletedSession(snapshot.checkedAt()).equals(session)) return session;
+        return snapshot.tradeDate();
+    }
+
+    private static byte parseMarket(String market) {
+        if (market == null || market.isBlank() || "ALL".equalsIgnoreCase(market)) return -1;
+        byte b = MarketSnapshot.marketOf(market.trim().toUpperCase(Locale.ROOT));
+        if (b == MarketSnapshot.OTHER) throw new UnprocessableException("지원하지 않는 시장입니다: " + market);
+        return b;
+    }
+
+    private static List<Hit> select(MarketSnapshot s, Matches m, boolean ranked, boolean desc, int limit) {
+        int[] order;
+        if (ranked) {
+            MarketRankingService.TopK top = new MarketRankingService.TopK(limit);
+            for (int i = 0; i < m.size; i++) {
+                double score = m.scores[i];
+                if (Double.isNaN(score)) continue;   // 정렬 값을 계산할 수 없는 종목은 제외
+                top.offer(desc ? score : -score, i);
+            }
+            order = top.drainDescending();
+        } else {
+            // 잎 작업 결과를 순서대로 이어 붙였으므로 이미 시세표(종목코드) 순
+            order = new int[Math.min(limit, m.size)];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+        }
+        List<Hit> out = new ArrayList<>(order.length);
+        for (int r = 0; r < order.length; r++) {
+            int i = order[r];
+            int id = m.ids[i];
+            String tradeDate = LocalDate.parse(String.valueOf(m.dates[i]), DateTimeFormatter.BASIC_ISO_DATE).toString();
+            out.add(new Hit(r + 1, s.code(id), s.name(id), MarketSnapshot.marketName(s.market(id)), tradeDate,
+                    m.closes[i], ranked ? round(m.scores[i]) : null));
+        }
+        return out;
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10000.0) / 10000.0;
+    }
+
+    /** 조건을 통과한 종목들 (시세표 id, 정렬 값, 마지막 종가·날짜) */
+    private static final class Matches {
+        int[] ids = new int[16];
+        double[] scores = new double[16];
+        long[] closes = new long[16];
+        int[] dates = new int[16];
+        int size;
+        int withHistory;
+        int stale;
+
+        void add(int id, double score, long close, int date) {
+            if (size == ids.length) {
+                int cap = size * 2;
+                ids = Arrays.copyOf(ids, cap);
+                scores = Arrays.copyOf(scores, cap);
+                closes = Arrays.copyOf(closes, cap);
+                dates = Arrays.copyOf(dates, cap);
+            }
+            ids[size] = id;
+            scores[size] = score;
+            closes[size] = close;
+            dates[size] = date;
+            size++;
+        }
+
+        /** 뒤에 other 를 이어 붙임 (종목 순서 유지) */
+        Matches append(Matches other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.ids[i], other.scores[i], other.closes[i], other.dates[i]);
+            }
+            withHistory += other.withHistory;
+            stale += other.stale;
+            return this;
+        }
+    }
+
+    private final class ScanTask extends RecursiveTask<Matches> {
+        private final MarketSnapshot snapshot;
+        private final int[] targets;
+        private final int from;
+        private final int to;
+        private final int minDate;
+        private final ScreenExpression where;
+        private final ScreenExpression rank;
+
+        ScanTask(MarketSnapshot snapshot, int[] targets, int from, int to, int minDate,
+                 ScreenExpression where, ScreenExpression rank) {
+            this.snapshot = snapshot;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.minDate = minDate;
+            this.where = where;
+            this.rank = rank;
+        }
+
+        @Override
+        protected Matches compute() {
+            if (to - from <= LEAF) return scan();
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(snapshot, targets, from, mid, minDate, where, rank);
+            ScanTask right = new ScanTask(snapshot, targets, mid, to, minDate, where, rank);
+            left.fork();
+            Matches r = right.compute();
+            return left.join().append(r);
+        }
+
+        private Matches scan() {
+            int need = Math.max(where == null ? 1 : where.lookback(), rank == null ? 1 : rank.lookback());
+            int slots = Math.max(where == null ? 0 : where.calls().size(), rank == null ? 0 : rank.calls().size());
+            BarWindow w = new BarWindow(slots);
+            Matches out = new Matches();
+            for (int k = from; k < to; k++) {
+                int id = targets[k];
+                Bars stored = history.read(snapshot.code(id), "day");
+                if (stored == null || stored.isEmpty()) continue;
+                // 누군가 장중에 차트를 열어 저장된 형성 중인 오늘 봉은 잘라내고, 모든 종목을 기준 거래일 종가로 맞춘다
+                Bars bars = stored.range(0, minDate);
+                if (bars.isEmpty() || bars.date(bars.size() - 1) != minDate) {
+                    out.stale++;
+                    continue;
+                }
+                out.withHistory++;
+                w.load(bars, need);
+                if (where != null) {
+                    w.compute(where.calls());
+                    if (!where.matches(w)) continue;
+                }
+                double score = Double.NaN;
+                if (rank != null) {
+                    w.compute(rank.calls());
+                    score = rank.value(w);
+                }
+                int last = bars.size() - 1;
+                out.add(id, score, bars.close(last), bars.date(last));
+            }
+            return out;
+        }
+    }
+}
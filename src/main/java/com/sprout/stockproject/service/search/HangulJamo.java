@@ -0,0 +1,77 @@
+package com.sprout.stockproject.service.search;
+
+import java.util.Arrays;
+
+/**
+ * 한글 음절 ↔ 자모 분해 유틸 (호환 자모 U+3131~ 기준).
+ * 가(U+AC00) ~ 힣(U+D7A3): (초성 * 21 + 중성) * 28 + 종성
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_BASE = 0xAC00;
+    private static final char SYLLABLE_LAST = 0xD7A3;
+
+    private static final char[] CHOSEONG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+    private static final char[] JUNGSEONG = {
+            'ㅏ', 'ㅐ', 'ㅑ', 'ㅒ', 'ㅓ', 'ㅔ', 'ㅕ', 'ㅖ', 'ㅗ', 'ㅘ', 'ㅙ',
+            'ㅚ', 'ㅛ', 'ㅜ', 'ㅝ', 'ㅞ', 'ㅟ', 'ㅠ', 'ㅡ', 'ㅢ', 'ㅣ'
+    };
+    // 0 은 받침 없음
+    private static final char[] JONGSEONG = {
+            0, 'ㄱ', 'ㄲ', 'ㄳ', 'ㄴ', 'ㄵ', 'ㄶ', 'ㄷ', 'ㄹ', 'ㄺ',
+            'ㄻ', 'ㄼ', 'ㄽ', 'ㄾ', 'ㄿ', 'ㅀ', 'ㅁ', 'ㅂ', 'ㅄ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private HangulJamo() {}
+
+    public static boolean isSyllable(char c) {
+        return c >= SYLLABLE_BASE && c <= SYLLABLE_LAST;
+    }
+
+    /** 호환 자모 자음(ㄱ~ㅎ) 여부 */
+    public static boolean isConsonant(char c) {
+        return c >= 'ㄱ' && c <= 'ㅎ';
+    }
+
+    /** 전부 자음으로만 된 입력인지 (초성 검색 판단용) */
+    public static boolean isChosungQuery(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (!isConsonant(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /** 음절은 초성으로, 그 외 문자는 그대로 */
+    public static String chosung(String s) {
+        char[] out = new char[s.length()];
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            out[i] = isSyllable(c) ? CHOSEONG[(c - SYLLABLE_BASE) / (21 * 28)] : c;
+        }
+        return new String(out);
+    }
+
+    /** 음절을 초/중/종성 자모열로 펼침 (그 외 문자는 그대로) */
+    public static char[] decompose(String s) {
+        char[] buf = new char[s.length() * 3];
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isSyllable(c)) {
+                int idx = c - SYLLABLE_BASE;
+                buf[n++] = CHOSEONG[idx / (21 * 28)];
+                buf[n++] = JUNGSEONG[(idx % (21 * 28)) / 28];
+                char jong = JONGSEONG[idx % 28];
+                if (jong != 0) buf[n++] = jong;
+            } else {
+                buf[n++] = c;
+            }
+        }
+        return Arrays.copyOf(buf, n);
+    }
+}
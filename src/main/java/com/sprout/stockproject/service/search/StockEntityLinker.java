@@ -0,0 +1,269 @@
+package com.sprout.stockproject.service.search;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.event.StockMasterChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 자유 문장에서 종목 언급을 찾아내는 엔티티 링커.
+ * 전 종목의 종목명·종목코드(+ 자주 쓰는 별칭)로 Aho-Corasick 오토마톤을 만들어
+ * 질문을 한 번만 선형 스캔하고, 겹치는 후보는 가장 왼쪽·가장 긴 것을 채택한다.
+ * 마스터 변경 이벤트마다 새 오토마톤으로 통째로 교체한다.
+ */
+@Component
+public class StockEntityLinker {
+
+    /** 언급된 종목 1건. start/end 는 원문 기준 [start, end) */
+    public record Mention(String stockCode, String stockName, int start, int end, double score) {}
+
+    // 종목명과 다르게 흔히 부르는 이름 → 종목코드
+    private static final Map<String, String> ALIASES = Map.of(
+            "네이버", "035420",
+            "삼전", "005930",
+            "하이닉스", "000660",
+            "현대자동차", "005380",
+            "엘지화학", "051910",
+            "엘지전자", "066570"
+    );
+
+    private static final byte CODE = 0;
+    private static final byte NAME = 1;
+    private static final byte ALIAS = 2;
+
+    private volatile Automaton automaton = Automaton.build(List.of());
+
+    @EventListener
+    public void onMasterChanged(StockMasterChangedEvent event) {
+        automaton = Automaton.build(event.stocks());
+    }
+
+    /** 언급된 종목 목록 (점수 내림차순, 같은 종목은 1건으로 합침) */
+    public List<Mention> link(String text) {
+        if (text == null || text.isEmpty()) return Collections.emptyList();
+        return automaton.link(text);
+    }
+
+    private static final class Automaton {
+        // 노드별 전이: keys 오름차순, 이분탐색
+        final char[][] keys;
+        final int[][] next;
+        final int[] fail;
+        final int[] output;      // 이 노드에서 끝나는 패턴 id (-1 없음)
+        final int[] dictLink;    // 실패 링크를 따라 가장 가까운 출력 노드 (-1 없음)
+
+        final String[] patternCode;
+        final String[] patternName;
+        final int[] patternLength;
+        final byte[] patternType;
+
+        private Automaton(char[][] keys, int[][] next, int[] fail, int[] output, int[] dictLink,
+                          String[] patternCode, String[] patternName, int[] patternLength, byte[] patternType) {
+            this.keys = keys;
+            this.next = next;
+            this.fail = fail;
+            this.output = output;
+            this.dictLink = dictLink;
+            this.patternCode = patternCode;
+            this.patternName = patternName;
+            this.patternLength = patternLength;
+            this.patternType = patternType;
+        }
+
+        static Automaton build(List<StockInfo> stocks) {
+            Map<String, String> nameByCode = new HashMap<>();
+            List<String> words = new ArrayList<>();
+            List<String> codes = new ArrayList<>();
+            List<Byte> types = new ArrayList<>();
+            for (StockInfo s : stocks) {
+                nameByCode.put(s.getStockCode(), s.getStockName());
+                words.add(s.getStockCode());
+                codes.add(s.getStockCode());
+                types.add(CODE);
+                words.add(s.getStockName().toLowerCase(Locale.ROOT));
+                codes.add(s.getStockCode());
+                types.add(NAME);
+            }
+            for (Map.Entry<String, String> a : ALIASES.entrySet()) {
+                if (!nameByCode.containsKey(a.getValue())) continue;
+                words.add(a.getKey());
+                codes.add(a.getValue());
+                types.add(ALIAS);
+            }
+
+            // 1) 트라이
+            List<Map<Character, Integer>> trie = new ArrayList<>();
+            trie.add(new HashMap<>());
+            List<Integer> out = new ArrayList<>();
+            out.add(-1);
+            int p = words.size();
+            String[] patternCode = new String[p];
+            String[] patternName = new String[p];
+            int[] patternLength = new int[p];
+            byte[] patternType = new byte[p];
+            for (int id = 0; id < p; id++) {
+                String w = words.get(id);
+                patternCode[id] = codes.get(id);
+                patternName[id] = nameByCode.get(codes.get(id));
+                patternLength[id] = w.length();
+                patternType[id] = types.get(id);
+                if (w.isEmpty()) continue;
+                int node = 0;
+                for (int i = 0; i < w.length(); i++) {
+                    Integer child = trie.get(node).get(w.charAt(i));
+                    if (child == null) {
+                        child = trie.size();
+                        trie.add(new HashMap<>());
+                        out.add(-1);
+                        trie.get(node).put(w.charAt(i), child);
+                    }
+                    node = child;
+                }
+                // 같은 문자열이 여럿이면(예: 코드=별칭) 먼저 넣은 것(코드/정식 종목명)을 유지
+                if (out.get(node) < 0) out.set(node, id);
+            }
+
+            // 2) 전이 압축
+            int n = trie.size();
+            char[][] keys = new char[n][];
+            int[][] next = new int[n][];
+            for (int node = 0; node < n; node++) {
+                Map<Character, Integer> m = trie.get(node);
+                char[] k = new char[m.size()];
+                int i = 0;
+                for (char c : m.keySet()) k[i++] = c;
+                Arrays.sort(k);
+                int[] t = new int[k.length];
+                for (i = 0; i < k.length; i++) t[i] = m.get(k[i]);
+                keys[node] = k;
+                next[node] = t;
+            }
+
+            // 3) 실패 링크 / 출력 링크 (BFS)
+            int[] output = new int[n];
+            for (int i = 0; i < n; i++) output[i] = out.get(i);
+            int[] fail = new int[n];
+            int[] dictLink = new int[n];
+            Arrays.fill(dictLink, -1);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : next[0]) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < keys[node].length; i++) {
+                    char c = keys[node][i];
+                    int child = next[node][i];
+                    int f = fail[node];
+                    int target;
+                    while ((target = step(keys, next, f, c)) < 0 && f != 0) f = fail[f];
+                    fail[child] = target < 0 || target == child ? 0 : target;
+                    int fc = fail[child];
+                    dictLink[child] = output[fc] >= 0 ? fc : dictLink[fc];
+                    queue.add(child);
+                }
+            }
+            return new Automaton(keys, next, fail, output, dictLink,
+                    patternCode, patternName, patternLength, patternType);
+        }
+
+        private static int step(char[][] keys, int[][] next, int node, char c) {
+            int i = Arrays.binarySearch(keys[node], c);
+            return i < 0 ? -1 : next[node][i];
+        }
+
+        List<Mention> link(String text) {
+            // 1) 선형 스캔으로 모든 후보 수집 (start, patternId)
+            List<long[]> hits = new ArrayList<>();
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                int to;
+                while ((to = step(keys, next, node, c)) < 0 && node != 0) node = fail[node];
+                node = Math.max(to, 0);
+                for (int o = output[node] >= 0 ? node : dictLink[node]; o >= 0; o = dictLink[o]) {
+                    int id = output[o];
+                    int start = i + 1 - patternLength[id];
+                    if (patternType[id] == CODE && !isCodeBoundary(text, start, i + 1)) continue;
+                    hits.add(new long[]{start, id});
+                }
+            }
+            if (hits.isEmpty()) return Collections.emptyList();
+
+            // 2) 가장 왼쪽·가장 긴 후보부터 겹치지 않게 채택
+            hits.sort((a, b) -> a[0] != b[0]
+                    ? Long.compare(a[0], b[0])
+                    : Integer.compare(patternLength[(int) b[1]], patternLength[(int) a[1]]));
+            Map<String, Mention> byCode = new LinkedHashMap<>();
+            int covered = 0;
+            for (long[] h : hits) {
+                int start = (int) h[0];
+                int id = (int) h[1];
+                if (start < covered) continue;
+                int end = start + patternLength[id];
+                covered = end;
+                double score = score(text, start, end, id);
+                Mention prev = byCode.get(patternCode[id]);
+                if (prev == null) {
+                    byCode.put(patternCode[id], new Mention(patternCode[id], patternName[id], start, end, score));
+                } else {
+                    // 같은 종목이 여러 번(이름+코드 등) 언급되면 확신도 상향
+                    double merged = Math.min(1.0, Math.max(prev.score(), score) + 0.1);
+                    byCode.put(patternCode[id], new Mention(prev.stockCode(), prev.stockName(), prev.start(), prev.end(), round(merged)));
+                }
+            }
+            List<Mention> result = new ArrayList<>(byCode.values());
+            result.sort((a, b) -> a.score() != b.score()
+                    ? Double.compare(b.score(), a.score())
+                    : Integer.compare(a.start(), b.start()));
+            return result;
+        }
+
+        /**
+         * 언급 확신도 (0..1).
+         * 코드는 1.0, 이름은 길수록 높고(2자 0.7 → 5자 이상 1.0), 별칭은 0.9.
+         * 앞뒤가 다른 글자에 붙어 있으면(더 긴 단어의 일부일 가능성) 0.2 감점.
+         */
+        private double score(String text, int start, int end, int id) {
+            double base = switch (patternType[id]) {
+                case CODE -> 1.0;
+                case ALIAS -> 0.9;
+                default -> Math.min(1.0, 0.5 + 0.1 * patternLength[id]);
+            };
+            if (patternType[id] != CODE && (isWordChar(text, start - 1) || isEmbeddedSuffix(text, end))) {
+                base -= 0.2;
+            }
+            return round(base);
+        }
+
+        private static boolean isCodeBoundary(String text, int start, int end) {
+            return (start == 0 || !Character.isDigit(text.charAt(start - 1)))
+                    && (end >= text.length() || !Character.isDigit(text.charAt(end)));
+        }
+
+        private static boolean isWordChar(String text, int i) {
+            return i >= 0 && i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+        }
+
+        /** 조사(은/는/이/가/의/를/을/에/와/과/도/로)는 단어 경계로 본다 */
+        private static boolean isEmbeddedSuffix(String text, int end) {
+            if (!isWordChar(text, end)) return false;
+            return "은는이가의를을에와과도로".indexOf(text.charAt(end)) < 0;
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 100) / 100.0;
+        }
+    }
+}
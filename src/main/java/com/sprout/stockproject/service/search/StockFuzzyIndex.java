@@ -0,0 +1,181 @@
+package com.sprout.stockproject.service.search;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.event.StockMasterChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 오타/초성 허용 종목명 검색.
+ * - 자음만 입력("ㅅㅅㅈㅈ")하면 종목명 초성열과 비교
+ * - 그 외에는 자모 단위로 펼친 뒤 편집거리(Levenshtein) 비교
+ *   "삼송전자" ↔ "삼성전자" 는 모음 1개 차이 = 거리 1
+ * 종목명 자모열/초성열은 마스터 변경 시 미리 만들어 두고,
+ * 조회 시에는 DP 행 버퍼 2개만 할당해 전 종목을 한 번 훑는다
+ * (대각선 ±k 띠 안의 칸만 계산하고, 행 최솟값이 한도를 넘으면 조기 종료).
+ */
+@Component
+public class StockFuzzyIndex {
+
+    public record Hit(String stockCode, String stockName, double score, String matchType) {}
+
+    private volatile Entries entries = Entries.build(List.of());
+
+    @EventListener
+    public void onMasterChanged(StockMasterChangedEvent event) {
+        entries = Entries.build(event.stocks());
+    }
+
+    public List<Hit> search(String query, int limit) {
+        String q = StockSearchIndex.normalize(query);
+        if (q.isEmpty() || limit <= 0) return Collections.emptyList();
+        Entries e = entries;
+        return HangulJamo.isChosungQuery(q) ? e.byChosung(q, limit) : e.byEditDistance(q, limit);
+    }
+
+    /** 허용 편집거리: 자모 4개당 1, 최소 1 · 최대 3 */
+    static int maxDistance(int queryJamoLength) {
+        return Math.max(1, Math.min(3, queryJamoLength / 4));
+    }
+
+    private static final class Entries {
+        final StockInfo[] stocks;
+        final String[] chosung;
+        final char[][] jamo;
+        final int maxJamo;
+
+        private Entries(StockInfo[] stocks, String[] chosung, char[][] jamo, int maxJamo) {
+            this.stocks = stocks;
+            this.chosung = chosung;
+            this.jamo = jamo;
+            this.maxJamo = maxJamo;
+        }
+
+        static Entries build(List<StockInfo> source) {
+            StockInfo[] stocks = source.toArray(new StockInfo[0]);
+            String[] chosung = new String[stocks.length];
+            char[][] jamo = new char[stocks.length][];
+            int maxJamo = 0;
+            for (int i = 0; i < stocks.length; i++) {
+                String name = StockSearchIndex.normalize(stocks[i].getStockName());
+                chosung[i] = HangulJamo.chosung(name);
+                jamo[i] = HangulJamo.decompose(name);
+                maxJamo = Math.max(maxJamo, jamo[i].length);
+            }
+            return new Entries(stocks, chosung, jamo, maxJamo);
+        }
+
+        List<Hit> byChosung(String q, int limit) {
+            double[] scores = new double[stocks.length];
+            int[] ids = new int[stocks.length];
+            int count = 0;
+            for (int i = 0; i < stocks.length; i++) {
+                String c = chosung[i];
+                int at = c.indexOf(q);
+                if (at < 0) continue;
+                // 완전일치 1.0, 접두어는 남은 길이만큼, 중간 일치는 추가 감점
+                double coverage = (double) q.length() / c.length();
+                double score = at == 0 ? 0.5 + 0.5 * coverage : 0.4 * coverage;
+                scores[count] = score;
+                ids[count++] = i;
+            }
+            return top(ids, scores, count, limit, "chosung");
+        }
+
+        List<Hit> byEditDistance(String query, int limit) {
+            char[] q = HangulJamo.decompose(query);
+            int m = q.length;
+            int k = maxDistance(m);
+
+            int[] prev = new int[maxJamo + 1];
+            int[] cur = new int[maxJamo + 1];
+            double[] scores = new double[stocks.length];
+            int[] ids = new int[stocks.length];
+            int count = 0;
+
+            for (int id = 0; id < stocks.length; id++) {
+                char[] t = jamo[id];
+                int n = t.length;
+                // 전체 비교 거리 하한이 한도를 넘고, 접두어 비교도 불가능하면 스킵
+                if (n + k < m) continue;
+
+                // |i - j| <= k 띠 안의 칸만 계산. 띠 밖은 거리가 k 를 넘을 수밖에 없으므로 k + 1 로 둔다
+                int out = k + 1;
+                int band = Math.min(n, k);
+                for (int j = 0; j <= band; j++) prev[j] = j;
+                if (band < n) prev[band + 1] = out;
+                boolean pruned = false;
+                for (int i = 1; i <= m; i++) {
+                    int lo = Math.max(1, i - k);
+                    int hi = Math.min(n, i + k);
+                    cur[0] = i <= k ? i : out;
+                    if (lo > 1) cur[lo - 1] = out;
+                    int rowMin = cur[0];
+                    char qc = q[i - 1];
+                    for (int j = lo; j <= hi; j++) {
+                        int cost = qc == t[j - 1] ? 0 : 1;
+                        int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                        cur[j] = v;
+                        if (v < rowMin) rowMin = v;
+                    }
+                    if (hi < n) cur[hi + 1] = out;
+                    if (rowMin > k) { pruned = true; break; }
+                    int[] swap = prev; prev = cur; cur = swap;
+                }
+                if (pruned) continue;
+
+                // prev = 마지막 행: prev[n] 은 전체 거리, 띠 안 min(prev[j]) 는 이름 접두어 대비 거리
+                int lo = Math.max(0, m - k);
+                int hi = Math.min(n, m + k);
+                int full = n <= hi ? prev[n] : out;
+                int prefix = full;
+                int prefixEnd = n;
+                for (int j = lo; j <= hi && j < n; j++) {
+                    if (prev[j] < prefix) { prefix = prev[j]; prefixEnd = j; }
+                }
+                double score;
+                if (full <= k) {
+                    score = 1.0 - (double) full / Math.max(m, n);
+                } else if (prefix <= k) {
+                    score = 0.8 * (1.0 - (double) prefix / m) * ((double) prefixEnd / n);
+                } else {
+                    continue;
+                }
+                scores[count] = score;
+                ids[count++] = id;
+            }
+            return top(ids, scores, count, limit, "fuzzy");
+        }
+
+        private List<Hit> top(int[] ids, double[] scores, int count, int limit, String type) {
+            // 후보 수가 적으므로 (점수, id) 쌍을 long 으로 묶어 원시 배열 정렬
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                long s = Math.round((1.0 - scores[i]) * 1_000_000);
+                keys[i] = (s << 32) | ids[i];
+            }
+            Arrays.sort(keys);
+            int n = Math.min(count, limit);
+            List<Hit> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int idx = (int) keys[i];
+                int pos = indexOf(ids, count, idx);
+                StockInfo s = stocks[idx];
+                double score = Math.round(scores[pos] * 1000) / 1000.0;
+                out.add(new Hit(s.getStockCode(), s.getStockName(), score,
+                        score >= 1.0 && !"chosung".equals(type) ? "exact" : type));
+            }
+            return out;
+        }
+
+        private static int indexOf(int[] ids, int count, int id) {
+            // ids 는 오름차순으로 채워지므로 이분탐색
+            return Arrays.binarySearch(ids, 0, count, id);
+        }
+    }
+}
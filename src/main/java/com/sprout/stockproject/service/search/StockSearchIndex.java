@@ -0,0 +1,251 @@
+package com.sprout.stockproject.service.search;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.event.StockMasterChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 종목명/종목코드 메모리 검색 인덱스 (DB LIKE 쿼리 대체).
+ * - 문자 1-gram/2-gram 역색인으로 부분일치 후보를 교집합으로 좁힌 뒤 contains 로 확인
+ * - 정렬된 이름/코드 배열 이분탐색으로 접두어 검색
+ * - 종목 마스터 변경 이벤트마다 새로 만들어 volatile 참조를 통째로 교체 (조회는 락 없음)
+ * 한글은 음절 단위, 영문은 소문자로 정규화하고 공백은 무시한다.
+ */
+@Component
+public class StockSearchIndex {
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    @EventListener
+    public void onMasterChanged(StockMasterChangedEvent event) {
+        snapshot = Snapshot.build(event.stocks());
+    }
+
+    /** 한 번이라도 종목이 적재됐는지 (false 면 호출 측이 DB 폴백) */
+    public boolean isReady() {
+        return snapshot.size() > 0;
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    /** 종목명 또는 코드에 keyword 가 포함된 종목 (정확일치 > 접두어 > 앞쪽 일치 > 짧은 이름 순) */
+    public List<StockInfo> search(String keyword, int limit) {
+        return snapshot.search(normalize(keyword), limit);
+    }
+
+    /** 자동완성: 접두어 일치를 먼저, 모자라면 부분일치로 채움 */
+    public List<StockInfo> autocomplete(String prefix, int limit) {
+        return snapshot.autocomplete(normalize(prefix), limit);
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!Character.isWhitespace(c)) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    static final class Snapshot {
+        private static final int EXACT = 1000;
+        private static final int PREFIX = 500;
+        private static final int CONTAINS = 100;
+
+        final StockInfo[] stocks;
+        final String[] names;   // 정규화된 종목명
+        final String[] codes;   // 정규화된 종목코드
+        final int[] byName;     // names 오름차순 id
+        final int[] byCode;     // codes 오름차순 id
+        // 1-gram 키: c, 2-gram 키: (c1 << 16) | c2 (c1 은 0 이 될 수 없으므로 충돌 없음)
+        final Map<Integer, int[]> postings;
+
+        private Snapshot(StockInfo[] stocks, String[] names, String[] codes,
+                         int[] byName, int[] byCode, Map<Integer, int[]> postings) {
+            this.stocks = stocks;
+            this.names = names;
+            this.codes = codes;
+            this.byName = byName;
+            this.byCode = byCode;
+            this.postings = postings;
+        }
+
+        int size() {
+            return stocks.length;
+        }
+
+        static Snapshot build(List<StockInfo> source) {
+            int n = source.size();
+            StockInfo[] stocks = source.toArray(new StockInfo[0]);
+            String[] names = new String[n];
+            String[] codes = new String[n];
+            for (int i = 0; i < n; i++) {
+                names[i] = normalize(stocks[i].getStockName());
+                codes[i] = normalize(stocks[i].getStockCode());
+            }
+
+            Map<Integer, IntList> tmp = new HashMap<>();
+            for (int id = 0; id < n; id++) {
+                addGrams(tmp, names[id], id);
+                addGrams(tmp, codes[id], id);
+            }
+            Map<Integer, int[]> postings = new HashMap<>(tmp.size() * 2);
+            for (Map.Entry<Integer, IntList> e : tmp.entrySet()) {
+                postings.put(e.getKey(), e.getValue().toArray());
+            }
+
+            return new Snapshot(stocks, names, codes, sortedIds(names), sortedIds(codes), postings);
+        }
+
+        private static void addGrams(Map<Integer, IntList> tmp, String s, int id) {
+            for (int i = 0; i < s.length(); i++) {
+                tmp.computeIfAbsent((int) s.charAt(i), k -> new IntList()).addUnique(id);
+                if (i + 1 < s.length()) {
+                    tmp.computeIfAbsent(bigram(s.charAt(i), s.charAt(i + 1)), k -> new IntList()).addUnique(id);
+                }
+            }
+        }
+
+        private static int bigram(char a, char b) {
+            return (a << 16) | b;
+        }
+
+        private static int[] sortedIds(String[] keys) {
+            Integer[] boxed = new Integer[keys.length];
+            for (int i = 0; i < boxed.length; i++) boxed[i] = i;
+            Arrays.sort(boxed, (a, b) -> keys[a].compareTo(keys[b]));
+            int[] out = new int[boxed.length];
+            for (int i = 0; i < out.length; i++) out[i] = boxed[i];
+            return out;
+        }
+
+        List<StockInfo> search(String q, int limit) {
+            if (q.isEmpty() || limit <= 0) return Collections.emptyList();
+            int[] candidates = candidates(q);
+            if (candidates == null) return Collections.emptyList();
+
+            long[] ranked = new long[candidates.length];
+            int count = 0;
+            for (int id : candidates) {
+                int score = score(id, q);
+                if (score > 0) ranked[count++] = rankKey(score, id);
+            }
+            return toStocks(ranked, count, limit);
+        }
+
+        List<StockInfo> autocomplete(String q, int limit) {
+            if (q.isEmpty() || limit <= 0) return Collections.emptyList();
+            boolean[] seen = new boolean[stocks.length];
+            long[] ranked = new long[Math.min(stocks.length, 64)];
+            int count = 0;
+
+            for (int pass = 0; pass < 2; pass++) {
+                String[] keys = pass == 0 ? names : codes;
+                int[] order = pass == 0 ? byName : byCode;
+                for (int i = lowerBound(keys, order, q); i < order.length && keys[order[i]].startsWith(q); i++) {
+                    int id = order[i];
+                    if (seen[id]) continue;
+                    seen[id] = true;
+                    if (count == ranked.length) ranked = Arrays.copyOf(ranked, ranked.length * 2);
+                    ranked[count++] = rankKey(score(id, q), id);
+                }
+            }
+
+            List<StockInfo> out = new ArrayList<>(toStocks(ranked, count, limit));
+            if (out.size() < limit) {
+                for (StockInfo s : search(q, limit + out.size())) {
+                    if (out.size() >= limit) break;
+                    if (!out.contains(s)) out.add(s);
+                }
+            }
+            return out;
+        }
+
+        /** 쿼리의 모든 n-gram 포스팅 교집합 (가장 짧은 목록부터). 하나라도 없으면 null */
+        private int[] candidates(String q) {
+            if (q.length() == 1) return postings.get((int) q.charAt(0));
+            int[] acc = null;
+            for (int i = 0; i + 1 < q.length(); i++) {
+                int[] p = postings.get(bigram(q.charAt(i), q.charAt(i + 1)));
+                if (p == null) return null;
+                acc = acc == null ? p : intersect(acc, p);
+                if (acc.length == 0) return null;
+            }
+            return acc;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, k = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else { out[k++] = a[i]; i++; j++; }
+            }
+            return k == out.length ? out : Arrays.copyOf(out, k);
+        }
+
+        private int score(int id, String q) {
+            String name = names[id];
+            String code = codes[id];
+            if (name.equals(q) || code.equals(q)) return EXACT;
+            if (name.startsWith(q) || code.startsWith(q)) return PREFIX;
+            int at = name.indexOf(q);
+            if (at < 0) at = code.indexOf(q);
+            return at < 0 ? 0 : CONTAINS - Math.min(at, CONTAINS - 1);
+        }
+
+        /** 점수 내림차순 → 이름 길이 오름차순 → id 순으로 정렬되는 키 */
+        private long rankKey(int score, int id) {
+            long inverted = EXACT - score;
+            long len = Math.min(names[id].length(), 0xFFFF);
+            return (inverted << 48) | (len << 32) | id;
+        }
+
+        private List<StockInfo> toStocks(long[] ranked, int count, int limit) {
+            Arrays.sort(ranked, 0, count);
+            int n = Math.min(count, limit);
+            List<StockInfo> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) out.add(stocks[(int) ranked[i]]);
+            return out;
+        }
+
+        private static int lowerBound(String[] keys, int[] order, String q) {
+            int lo = 0, hi = order.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[order[mid]].compareTo(q) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** 오름차순으로만 추가되는 int 목록 (빌드 전용) */
+    private static final class IntList {
+        private int[] a = new int[4];
+        private int n;
+
+        void addUnique(int v) {
+            if (n > 0 && a[n - 1] == v) return;
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(a, n);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sprout.stockproject.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 마지막으로 성공한 KRX 종목 마스터 응답(JSON)을 로컬 디스크에 보관.
+ * 임시 파일에 쓴 뒤 rename 으로 교체하므로 중간에 죽어도 이전 스냅샷이 깨지지 않는다.
+ * 응답의 기준 거래일은 같은 파일 첫 줄(#tradeDate=2024-03-04)에 함께 써서,
+ * 스냅샷과 거래일이 항상 한 번의 rename 으로 같이 바뀌게 한다.
+ */
+@Component
+public class KrxSnapshotStorage {
+
+    private static final String FILE_NAME = "stock-master.json";
+    private static final String TRADE_DATE_HEADER = "#tradeDate=";
+    // 거래일을 옆 파일에 따로 두던 이전 형식. 새 형식으로 저장하면 지운다
+    private static final String LEGACY_DATE_FILE_NAME = "stock-master.date";
+
+    private final Path root;
+
+    public KrxSnapshotStorage(@Value("${krx.snapshot.root:data/krx}") String rootDir) {
+        this.root = Path.of(rootDir);
+    }
+
+    /** tradeDate 는 거래일 헤더가 없는 이전 형식 스냅샷이면 null */
+    public record Snapshot(String json, Instant savedAt, LocalDate tradeDate) {}
+
+    public void save(String json, LocalDate tradeDate) {
+        try {
+            Files.createDirectories(root);
+            writeAtomically(FILE_NAME, TRADE_DATE_HEADER + tradeDate + "\n" + json);
+            Files.deleteIfExists(root.resolve(LEGACY_DATE_FILE_NAME));
+        } catch (IOException e) {
+            throw new RuntimeException("KRX snapshot save failed", e);
+        }
+    }
+
+    private void writeAtomically(String fileName, String content) throws IOException {
+        Path target = root.resolve(fileName);
+        Path tmp = root.resolve(fileName + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** 저장된 스냅샷이 없으면 null */
+    public Snapshot load() {
+        try {
+            Path p = root.resolve(FILE_NAME);
+            if (!Files.exists(p)) return null;
+            String content = Files.readString(p, StandardCharsets.UTF_8);
+            Instant savedAt = Files.getLastModifiedTime(p).toInstant();
+            int lineEnd = content.indexOf('\n');
+            if (!content.startsWith(TRADE_DATE_HEADER) || lineEnd < 0) {
+                return new Snapshot(content, savedAt, null);
+            }
+            LocalDate tradeDate = LocalDate.parse(content.substring(TRADE_DATE_HEADER.length(), lineEnd).trim());
+            return new Snapshot(content.substring(lineEnd + 1), savedAt, tradeDate);
+        } catch (IOException e) {
+            throw new RuntimeException("KRX snapshot load failed", e);
+        }
+    }
+}
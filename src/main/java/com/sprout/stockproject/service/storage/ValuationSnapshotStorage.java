@@ -0,0 +1,113 @@
+package com.sprout.stockproject.service.storage;
+
+import com.sprout.stockproject.service.valuation.ValuationSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 밸류에이션 표를 거래일별 파일(valuation-yyyyMMdd.bin, 열 단위 바이너리)로 보관.
+ * 임시 파일에 쓴 뒤 rename 으로 교체하고, 최근 keep 개 거래일만 남긴다.
+ */
+@Component
+public class ValuationSnapshotStorage {
+
+    private static final String PREFIX = "valuation-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path root;
+    private final int keep;
+
+    public ValuationSnapshotStorage(@Value("${valuation.snapshot.root:data/valuation}") String rootDir,
+                                   @Value("${valuation.snapshot.keep:30}") int keep) {
+        this.root = Path.of(rootDir);
+        this.keep = Math.max(1, keep);
+    }
+
+    public Path save(ValuationSnapshot snapshot) {
+        try {
+            Files.createDirectories(root);
+            Path target = root.resolve(fileName(snapshot.tradeDate()));
+            Path tmp = root.resolve(target.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                snapshot.writeTo(out);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            prune();
+            return target;
+        } catch (IOException e) {
+            throw new RuntimeException("Valuation snapshot save failed", e);
+        }
+    }
+
+    /** 가장 최근 거래일 스냅샷 (없으면 null) */
+    public ValuationSnapshot loadLatest() {
+        List<Path> files = list();
+        return files.isEmpty() ? null : read(files.get(files.size() - 1));
+    }
+
+    /** 해당 거래일 스냅샷 (없으면 null) */
+    public ValuationSnapshot loadByDate(LocalDate tradeDate) {
+        Path p = root.resolve(fileName(tradeDate));
+        return Files.exists(p) ? read(p) : null;
+    }
+
+    /** 보관 중인 거래일 (오래된 순) */
+    public List<LocalDate> dates() {
+        return list().stream()
+                .map(p -> p.getFileName().toString())
+                .map(name -> name.substring(PREFIX.length(), name.length() - SUFFIX.length()))
+                .map(s -> LocalDate.parse(s, DateTimeFormatter.BASIC_ISO_DATE))
+                .toList();
+    }
+
+    private ValuationSnapshot read(Path p) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(p)))) {
+            return ValuationSnapshot.readFrom(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Valuation snapshot load failed: " + p.getFileName(), e);
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = list();
+        for (int i = 0; i < files.size() - keep; i++) Files.deleteIfExists(files.get(i));
+    }
+
+    /** 파일명이 날짜라 이름순 = 거래일순 */
+    private List<Path> list() {
+        if (!Files.exists(root)) return List.of();
+        try (Stream<Path> s = Files.list(root)) {
+            return s.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName))
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Valuation snapshot list failed", e);
+        }
+    }
+
+    private static String fileName(LocalDate tradeDate) {
+        return PREFIX + tradeDate.format(DateTimeFormatter.BASIC_ISO_DATE) + SUFFIX;
+    }
+}
@@ -0,0 +1,133 @@
+package com.sprout.stockproject.service.valuation;
+
+import com.sprout.stockproject.entity.StockInfo;
+import com.sprout.stockproject.external.NaverMobileStockClient;
+import com.sprout.stockproject.external.StockSnapshot;
+import com.sprout.stockproject.repository.StockInfoRepository;
+import com.sprout.stockproject.service.market.KrxMarketHours;
+import com.sprout.stockproject.service.market.MarketBatchRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 전 종목(StockInfo) PER·PBR·시가총액 일괄 수집 → 밸류에이션 표 교체.
+ * - 요청 간격·동시 요청 수 제한과 단일 실행은 MarketBatchRunner 가 맡는다.
+ *   409/429/5xx 재시도·백오프는 NaverMobileStockClient 가 그 슬롯 안에서 처리한다
+ * - 종목명·시장·업종·시가총액은 KRX 적재분(로컬 DB)을 쓰고, 시가총액이 없을 때만 네이버 값을 쓴다
+ * - 절반 넘게 실패하면(차단 등) 이전 표를 그대로 둔다
+ */
+@Service
+public class ValuationCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(ValuationCollector.class);
+
+    private static final Pattern JO = Pattern.compile("([\\d,]+)\\s*조");
+    private static final Pattern EOK = Pattern.compile("([\\d,]+)\\s*억");
+
+    private record Target(String code, String name, String market, String industry, Long marketCap) {}
+
+    private record Row(Target target, double per, double pbr, long marketCap) {}
+
+    private final StockInfoRepository stockRepository;
+    private final NaverMobileStockClient naverMobile;
+    private final ValuationService valuations;
+    private final MarketBatchRunner batch;
+
+    public ValuationCollector(StockInfoRepository stockRepository, NaverMobileStockClient naverMobile,
+                              ValuationService valuations,
+                              @Value("${valuation.collect.concurrency:4}") int concurrency,
+                              @Value("${valuation.collect.rate-per-second:5}") double ratePerSecond,
+                              @Value("${valuation.collect.timeout-minutes:60}") long timeoutMinutes) {
+        this.stockRepository = stockRepository;
+        this.naverMobile = naverMobile;
+        this.valuations = valuations;
+        this.batch = new MarketBatchRunner("Valuation", concurrency, ratePerSecond, timeoutMinutes);
+    }
+
+    public boolean isRunning() {
+        return batch.isRunning();
+    }
+
+    /** 백그라운드로 수집 시작. 이미 돌고 있으면 false */
+    public boolean start() {
+        return batch.start(this::collectAll);
+    }
+
+    /** 끝날 때까지 블로킹 (스케줄러 스레드용). 결과 요약 문자열 반환 */
+    public String collect() {
+        return batch.run(this::collectAll, "이미 수집 중");
+    }
+
+    private String collectAll() {
+        List<Target> targets = stockRepository.findAll(Sort.by("stockCode")).stream()
+                .map(ValuationCollector::toTarget)
+                .toList();
+        if (targets.isEmpty()) return "수집 대상 종목 없음 (종목 마스터 미적재)";
+
+        long started = System.nanoTime();
+        AtomicInteger failed = new AtomicInteger();
+        ValuationSnapshot.Builder builder = new ValuationSnapshot.Builder(targets.size());
+        batch.forEach(targets,
+                t -> naverMobile.fetchIntegrationAsync(t.code()).map(snap -> toRow(t, snap)),
+                r -> builder.add(r.target().code(), r.target().name(), r.target().market(),
+                        r.target().industry(), r.per(), r.pbr(), r.marketCap()),
+                (t, e) -> {
+                    failed.incrementAndGet();
+                    log.debug("[Valuation] {} skipped: {}", t.code(), e.getMessage());
+                });
+
+        long elapsedSec = (System.nanoTime() - started) / 1_000_000_000L;
+        int ok = builder.size();
+        if (ok == 0 || failed.get() > targets.size() / 2) {
+            return String.format("수집 실패: 성공 %d / 실패 %d (%ds), 이전 표 유지", ok, failed.get(), elapsedSec);
+        }
+        Instant now = Instant.now();
+        LocalDate tradeDate = KrxMarketHours.lastCompletedSession(now);
+        valuations.update(builder.build(tradeDate, now));
+        return String.format("%s 밸류에이션 표 갱신: 성공 %d / 실패 %d (%ds)", tradeDate, ok, failed.get(), elapsedSec);
+    }
+
+    private static Target toTarget(StockInfo s) {
+        return new Target(s.getStockCode(), s.getStockName(), s.getMarket(), s.getIndustry(), s.getMarketCap());
+    }
+
+    private static Row toRow(Target t, StockSnapshot snap) {
+        long cap = t.marketCap() != null && t.marketCap() > 0
+                ? t.marketCap()
+                : parseKoreanWon(snap.marketValue());
+        return new Row(t, parseRatio(snap.per()), parseRatio(snap.pbr()), cap);
+    }
+
+    /** "13.95배", "-4.21배", "1,234.5배" → 숫자, "N/A"·"-" 등은 NaN */
+    static double parseRatio(String text) {
+        if (text == null) return Double.NaN;
+        String s = text.replace("배", "").replace(",", "").trim();
+        if (s.isEmpty()) return Double.NaN;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** "472조 3,455억" → 원 단위, 읽을 수 없으면 0 */
+    static long parseKoreanWon(String text) {
+        if (text == null) return 0;
+        long won = 0;
+        Matcher jo = JO.matcher(text);
+        if (jo.find()) won += Long.parseLong(jo.group(1).replace(",", "")) * 1_000_000_000_000L;
+        Matcher eok = EOK.matcher(text);
+        if (eok.find()) won += Long.parseLong(eok.group(1).replace(",", "")) * 100_000_000L;
+        return won;
+    }
+}
@@ -0,0 +1,224 @@
+package com.sprout.stockproject.service.valuation;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.dto.StockDetailDto;
+import com.sprout.stockproject.service.StockInfoService;
+import com.sprout.stockproject.service.market.MarketRankingService;
+import com.sprout.stockproject.service.market.MarketSnapshot;
+import com.sprout.stockproject.service.market.MarketSnapshotStore;
+import com.sprout.stockproject.service.storage.ValuationSnapshotStorage;
+import com.sprout.stockproject.service.valuation.ValuationSnapshot.Metric;
+import com.sprout.stockproject.service.valuation.ValuationSnapshot.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 최신 밸류에이션 표 보관 + 조회. 업스트림 호출 없이 메모리 표만 읽는다.
+ * - 종목별 PER·PBR·시가총액과 전체·시장·업종 내 백분위, 시장·업종 중앙값
+ * - "PBR 낮은 순 N개" 같은 순위는 조건에 맞는 종목을 1회 스캔하며 크기 제한 힙(TopK)으로 뽑는다
+ * 새 표는 디스크에 저장한 뒤 참조만 통째로 교체하고, 기동 시에는 마지막 저장본을 읽어 둔다.
+ */
+@Service
+public class ValuationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValuationService.class);
+
+    /**
+     * value: 원래 값 (적자 PER 등 음수도 그대로, 시가총액은 원 단위 정수)
+     * all·market·industry: 그 안에서의 백분위 0~100 (낮을수록 싸다/작다), 비교 대상이 아니면 null
+     */
+    public record Relative(Number value, Double all, Double market, Double industry,
+                           Number marketMedian, Number industryMedian, int industryPeers) {}
+
+    public record Valuation(String stockCode, String stockName, String market, String industry, LocalDate tradeDate,
+                            Relative per, Relative pbr, Relative marketCap) {}
+
+    public record Entry(int rank, String stockCode, String stockName, String market, String industry,
+                        Double per, Double pbr, Long marketCap, Double percentile) {}
+
+    /** percentile 은 scope(업종 지정 시 업종, 시장 지정 시 시장, 아니면 전체) 안에서의 값 */
+    public record Ranking(String metric, String order, String market, String industry, LocalDate tradeDate,
+                          int candidates, List<Entry> items) {}
+
+    public record Status(LocalDate tradeDate, Instant collectedAt, int stockCount, int industryCount,
+                         List<LocalDate> storedDates) {}
+
+    private final ValuationSnapshotStorage storage;
+    private final MarketSnapshotStore marketStore;
+    private final int maxLimit;
+
+    private volatile ValuationSnapshot current = ValuationSnapshot.EMPTY;
+
+    public ValuationService(ValuationSnapshotStorage storage, MarketSnapshotStore marketStore,
+                            @Value("${valuation.rank.max-limit:500}") int maxLimit) {
+        this.storage = storage;
+        this.marketStore = marketStore;
+        this.maxLimit = Math.max(1, maxLimit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLatest() {
+        try {
+            ValuationSnapshot s = storage.loadLatest();
+            if (s != null) {
+                current = s;
+                log.info("[Valuation] snapshot {} loaded: {} stocks", s.tradeDate(), s.size());
+            }
+        } catch (Exception e) {
+            log.warn("[Valuation] snapshot load failed: {}", e.getMessage());
+        }
+    }
+
+    public ValuationSnapshot current() {
+        return current;
+    }
+
+    /** 디스크에 저장 후 교체. 지금 것보다 오래된 거래일 표는 저장만 하고 교체하지 않는다 */
+    public void update(ValuationSnapshot snapshot) {
+        if (snapshot == null || snapshot.isEmpty()) return;
+        storage.save(snapshot);
+        ValuationSnapshot prev = current;
+        if (prev.tradeDate() != null && snapshot.tradeDate().isBefore(prev.tradeDate())) return;
+        current = snapshot;
+    }
+
+    public Status status() {
+        ValuationSnapshot s = current;
+        return new Status(s.tradeDate(), s.collectedAt(), s.size(), s.industryCount(), storage.dates());
+    }
+
+    /** 표에 없는 종목이면 empty */
+    public Optional<Valuation> find(String stockCode) {
+        ValuationSnapshot s = current;
+        int id = s.indexOf(stockCode);
+        if (id < 0) return Optional.empty();
+        return Optional.of(new Valuation(s.code(id), s.name(id), MarketSnapshot.marketName(s.market(id)),
+                s.industry(id), s.tradeDate(),
+                relative(s, Metric.PER, id), relative(s, Metric.PBR, id), relative(s, Metric.MARKET_CAP, id)));
+    }
+
+    /**
+     * 업스트림 호출 없이 만든 종목 상세 (가격은 메모리 시세표 종가).
+     * 밸류에이션 표나 시세표에 없는 종목이거나, 시세표 종가가 지금 가격이 아니면(장중, 마감 후 미적재) empty
+     */
+    public Optional<StockDetailDto> detail(String stockCode) {
+        ValuationSnapshot s = current;
+        int id = s.indexOf(stockCode);
+        if (id < 0) return Optional.empty();
+        MarketSnapshot market = marketStore.current();
+        if (!market.isCurrent(Instant.now())) return Optional.empty();
+        int mid = market.indexOf(stockCode);
+        if (mid < 0 || market.close(mid) <= 0) return Optional.empty();
+        long cap = s.marketCap(id) > 0 ? s.marketCap(id) : market.marketCap(mid);
+        return Optional.of(new StockDetailDto(s.code(id), s.name(id), String.format("%,d", market.close(mid)),
+                cap > 0 ? StockInfoService.formatKoreanWon(cap) : null,
+                ratio(s.per(id)), ratio(s.pbr(id))));
+    }
+
+    /**
+     * @param metric per|pbr|market_cap
+     * @param order  asc(낮은 순, 기본)|desc
+     * @param market ALL|KOSPI|KOSDAQ|KONEX
+     * @param industry 업종명 (비우면 전체)
+     */
+    public Ranking rank(String metric, String order, String market, String industry, int limit) {
+        if (limit < 1 || limit > maxLimit) throw new UnprocessableException("limit must be 1~" + maxLimit);
+        if (order != null && !order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            throw new UnprocessableException("order must be asc|desc");
+        }
+        Metric m = parseMetric(metric);
+        boolean desc = "desc".equalsIgnoreCase(order);
+        byte marketCode = parseMarket(market);
+        ValuationSnapshot s = current;
+        int industryId = -1;
+        if (industry != null && !industry.isBlank()) {
+            industryId = s.industryIdOf(industry.trim());
+            if (industryId < 0) throw new UnprocessableException("밸류에이션 표에 없는 업종입니다: " + industry);
+        }
+        Scope scope = industryId >= 0 ? Scope.INDUSTRY : marketCode >= 0 ? Scope.MARKET : Scope.ALL;
+
+        MarketRankingService.TopK top = new MarketRankingService.TopK(limit);
+        int candidates = 0;
+        for (int id = 0; id < s.size(); id++) {
+            if (marketCode >= 0 && s.market(id) != marketCode) continue;
+            if (industryId >= 0 && s.industryId(id) != industryId) continue;
+            double v = s.value(m, id);
+            if (Double.isNaN(v)) continue;
+            candidates++;
+            top.offer(desc ? v : -v, id);
+        }
+        int[] ids = top.drainDescending();
+        List<Entry> items = new ArrayList<>(ids.length);
+        for (int r = 0; r < ids.length; r++) {
+            int id = ids[r];
+            // 업종 + 시장을 함께 지정하면 업종 백분위 (업종 안에서 시장이 섞여 있어도 같은 기준으로 비교)
+            items.add(new Entry(r + 1, s.code(id), s.name(id), MarketSnapshot.marketName(s.market(id)), s.industry(id),
+                    nullable(s.per(id)), nullable(s.pbr(id)), s.marketCap(id) > 0 ? s.marketCap(id) : null,
+                    percent(s.percentile(m, scope, id))));
+        }
+        return new Ranking(m.name().toLowerCase(Locale.ROOT), desc ? "desc" : "asc",
+                marketCode < 0 ? "ALL" : MarketSnapshot.marketName(marketCode),
+                industryId < 0 ? null : s.industryName(industryId), s.tradeDate(), candidates, items);
+    }
+
+    private static Relative relative(ValuationSnapshot s, Metric m, int id) {
+        double raw = switch (m) {
+            case PER -> s.per(id);
+            case PBR -> s.pbr(id);
+            case MARKET_CAP -> s.marketCap(id) > 0 ? s.marketCap(id) : Double.NaN;
+        };
+        return new Relative(number(m, raw),
+                percent(s.percentile(m, Scope.ALL, id)),
+                percent(s.percentile(m, Scope.MARKET, id)),
+                percent(s.percentile(m, Scope.INDUSTRY, id)),
+                number(m, s.marketMedian(m, s.market(id))),
+                number(m, s.industryMedian(m, s.industryId(id))),
+                s.peers(m, Scope.INDUSTRY, id));
+    }
+
+    /** 시가총액은 원 단위 정수, 배수는 소수 둘째 자리 */
+    private static Number number(Metric m, double v) {
+        if (Double.isNaN(v)) return null;
+        if (m == Metric.MARKET_CAP) return Math.round(v);
+        return nullable(v);
+    }
+
+    private static Metric parseMetric(String metric) {
+        try {
+            return Metric.valueOf(metric.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new UnprocessableException("지원하지 않는 밸류에이션 지표입니다: " + metric);
+        }
+    }
+
+    private static byte parseMarket(String market) {
+        if (market == null || market.isBlank() || "ALL".equalsIgnoreCase(market)) return -1;
+        byte b = MarketSnapshot.marketOf(market.trim().toUpperCase(Locale.ROOT));
+        if (b == MarketSnapshot.OTHER) throw new UnprocessableException("지원하지 않는 시장입니다: " + market);
+        return b;
+    }
+
+    private static Double percent(double p) {
+        return Double.isNaN(p) ? null : Math.round(p * 10.0) / 10.0;
+    }
+
+    private static Double nullable(double v) {
+        return Double.isNaN(v) ? null : Math.round(v * 100.0) / 100.0;
+    }
+
+    /** 네이버 표기와 같은 "12.34배" (값이 없으면 null) */
+    private static String ratio(double v) {
+        return Double.isNaN(v) ? null : String.format("%.2f배", v);
+    }
+}
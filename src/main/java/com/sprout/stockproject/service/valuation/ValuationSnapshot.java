@@ -0,0 +1,348 @@
+package com.sprout.stockproject.service.valuation;
+
+import com.sprout.stockproject.service.market.MarketSnapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 하루치 전 종목 밸류에이션 표 (PER·PBR·시가총액).
+ * MarketSnapshot 과 같이 종목코드 오름차순 위치가 종목 id 이고 값은 id 로 인덱싱하는 원시 배열(열)에 둔다.
+ * 업종(KRX 업종분류)은 사전(industries) + id 배열로 저장한다. 값이 없으면 PER·PBR 은 NaN, 시가총액은 0.
+ * 만들 때 지표별로 전체·시장·업종 안에서의 백분위와 시장·업종 중앙값을 미리 계산해 두므로 조회는 배열 읽기뿐이다.
+ */
+public final class ValuationSnapshot {
+
+    public enum Metric { PER, PBR, MARKET_CAP }
+
+    public enum Scope { ALL, MARKET, INDUSTRY }
+
+    public static final ValuationSnapshot EMPTY = new Builder(0).build(null, null);
+
+    // 2: 업종을 KRX 업종분류(IDX_IND_NM)로 교체. 1 은 소속부로 묶은 표라 읽지 않는다
+    private static final int FORMAT = 2;
+    private static final int MARKETS = 4;
+
+    final LocalDate tradeDate;
+    final Instant collectedAt;
+
+    final String[] codes;
+    final String[] names;
+    final byte[] market;
+    final String[] industries;
+    final int[] industry;
+    final double[] per;
+    final double[] pbr;
+    final long[] marketCap;
+
+    // 파생 값 (저장하지 않고 만들 때 계산): [metric][scope][id], [metric][market], [metric][industry]
+    private final float[][][] percentile;
+    private final int[][][] peers;
+    private final double[][] marketMedian;
+    private final double[][] industryMedian;
+
+    private ValuationSnapshot(LocalDate tradeDate, Instant collectedAt, String[] codes, String[] names, byte[] market,
+                              String[] industries, int[] industry, double[] per, double[] pbr, long[] marketCap) {
+        this.tradeDate = tradeDate;
+        this.collectedAt = collectedAt;
+        this.codes = codes;
+        this.names = names;
+        this.market = market;
+        this.industries = industries;
+        this.industry = industry;
+        this.per = per;
+        this.pbr = pbr;
+        this.marketCap = marketCap;
+
+        int metrics = Metric.values().length;
+        int scopes = Scope.values().length;
+        this.percentile = new float[metrics][scopes][codes.length];
+        this.peers = new int[metrics][scopes][codes.length];
+        this.marketMedian = new double[metrics][MARKETS];
+        this.industryMedian = new double[metrics][industries.length];
+        for (Metric m : Metric.values()) {
+            for (Scope s : Scope.values()) rankWithinGroups(m, s);
+        }
+    }
+
+    /** 수집 기준 거래일 (비어 있으면 null) */
+    public LocalDate tradeDate() { return tradeDate; }
+
+    /** 수집을 마친 시각 */
+    public Instant collectedAt() { return collectedAt; }
+
+    public int size() { return codes.length; }
+
+    public boolean isEmpty() { return codes.length == 0; }
+
+    /** 종목 id (없으면 -1) */
+    public int indexOf(String stockCode) {
+        if (stockCode == null) return -1;
+        int i = Arrays.binarySearch(codes, stockCode);
+        return i < 0 ? -1 : i;
+    }
+
+    public String code(int id) { return codes[id]; }
+    public String name(int id) { return names[id]; }
+    public byte market(int id) { return market[id]; }
+    public double per(int id) { return per[id]; }
+    public double pbr(int id) { return pbr[id]; }
+    public long marketCap(int id) { return marketCap[id]; }
+
+    /** 업종명 (없으면 null) */
+    public String industry(int id) {
+        return industry[id] < 0 ? null : industries[industry[id]];
+    }
+
+    /** 업종 사전 id (없으면 -1, 사전에 없는 이름도 -1) */
+    public int industryIdOf(String industryName) {
+        if (industryName == null) return -1;
+        int i = Arrays.binarySearch(industries, industryName);
+        return i < 0 ? -1 : i;
+    }
+
+    public int industryId(int id) { return industry[id]; }
+
+    public int industryCount() { return industries.length; }
+
+    public String industryName(int industryId) { return industries[industryId]; }
+
+    /**
+     * 순위·백분위에 쓰는 값. 적자(PER ≤ 0)·자본잠식(PBR ≤ 0)·값 없음은 비교 대상이 아니므로 NaN
+     */
+    public double value(Metric metric, int id) {
+        double v = switch (metric) {
+            case PER -> per[id];
+            case PBR -> pbr[id];
+            case MARKET_CAP -> marketCap[id];
+        };
+        return v > 0 ? v : Double.NaN;
+    }
+
+    /** scope 안에서의 백분위 0~100 (가장 낮은 값이 0). 값이 없거나 업종이 없으면 NaN */
+    public double percentile(Metric metric, Scope scope, int id) {
+        return percentile[metric.ordinal()][scope.ordinal()][id];
+    }
+
+    /** 백분위 계산에 함께 쓰인 종목 수 (자기 포함, 값이 없으면 0) */
+    public int peers(Metric metric, Scope scope, int id) {
+        return peers[metric.ordinal()][scope.ordinal()][id];
+    }
+
+    public double marketMedian(Metric metric, byte market) {
+        return marketMedian[metric.ordinal()][market];
+    }
+
+    public double industryMedian(Metric metric, int industryId) {
+        return industryId < 0 ? Double.NaN : industryMedian[metric.ordinal()][industryId];
+    }
+
+    /**
+     * 값이 있는 종목을 (그룹, 값) 순으로 정렬한 뒤 그룹마다 백분위 = 자기보다 작은 종목 수 / (그룹 크기 - 1).
+     * 같은 값은 같은 백분위, 그룹에 혼자면 50.
+     */
+    private void rankWithinGroups(Metric metric, Scope scope) {
+        float[] pct = percentile[metric.ordinal()][scope.ordinal()];
+        int[] count = peers[metric.ordinal()][scope.ordinal()];
+        Arrays.fill(pct, Float.NaN);
+
+        int n = 0;
+        Integer[] ids = new Integer[codes.length];
+        for (int id = 0; id < codes.length; id++) {
+            if (!Double.isNaN(value(metric, id)) && group(scope, id) >= 0) ids[n++] = id;
+        }
+        Arrays.sort(ids, 0, n, Comparator.<Integer>comparingInt(id -> group(scope, id))
+                .thenComparingDouble(id -> value(metric, id)));
+
+        for (int from = 0; from < n; ) {
+            int g = group(scope, ids[from]);
+            int to = from;
+            while (to < n && group(scope, ids[to]) == g) to++;
+            int size = to - from;
+            int less = 0;
+            for (int k = from; k < to; k++) {
+                int id = ids[k];
+                if (k > from && value(metric, ids[k - 1]) < value(metric, id)) less = k - from;
+                pct[id] = size == 1 ? 50f : (float) (100.0 * less / (size - 1));
+                count[id] = size;
+            }
+            double median = median(metric, ids, from, to);
+            if (scope == Scope.MARKET) marketMedian[metric.ordinal()][g] = median;
+            if (scope == Scope.INDUSTRY) industryMedian[metric.ordinal()][g] = median;
+            from = to;
+        }
+        if (scope == Scope.MARKET) fillMissing(marketMedian[metric.ordinal()], metric, Scope.MARKET);
+        if (scope == Scope.INDUSTRY) fillMissing(industryMedian[metric.ordinal()], metric, Scope.INDUSTRY);
+    }
+
+    /** 값이 있는 종목이 하나도 없는 그룹의 중앙값은 NaN */
+    private void fillMissing(double[] medians, Metric metric, Scope scope) {
+        boolean[] seen = new boolean[medians.length];
+        for (int id = 0; id < codes.length; id++) {
+            int g = group(scope, id);
+            if (g >= 0 && !Double.isNaN(value(metric, id))) seen[g] = true;
+        }
+        for (int g = 0; g < medians.length; g++) {
+            if (!seen[g]) medians[g] = Double.NaN;
+        }
+    }
+
+    private double median(Metric metric, Integer[] sorted, int from, int to) {
+        int size = to - from;
+        int mid = from + size / 2;
+        return size % 2 == 1
+                ? value(metric, sorted[mid])
+                : (value(metric, sorted[mid - 1]) + value(metric, sorted[mid])) / 2.0;
+    }
+
+    private int group(Scope scope, int id) {
+        return switch (scope) {
+            case ALL -> 0;
+            case MARKET -> market[id];
+            case INDUSTRY -> industry[id];
+        };
+    }
+
+    // ---- 저장 형식: 헤더 뒤에 열(column) 단위로 이어 쓴다. 파생 값은 읽을 때 다시 계산 ----
+
+    public void writeTo(DataOutput out) throws IOException {
+        int n = codes.length;
+        out.writeInt(FORMAT);
+        out.writeLong(tradeDate == null ? Long.MIN_VALUE : tradeDate.toEpochDay());
+        out.writeLong(collectedAt == null ? Long.MIN_VALUE : collectedAt.toEpochMilli());
+        out.writeInt(n);
+        out.writeInt(industries.length);
+        for (String s : industries) out.writeUTF(s);
+        for (int id = 0; id < n; id++) out.writeUTF(codes[id]);
+        for (int id = 0; id < n; id++) out.writeUTF(names[id] == null ? "" : names[id]);
+        for (int id = 0; id < n; id++) out.writeByte(market[id]);
+        for (int id = 0; id < n; id++) out.writeInt(industry[id]);
+        for (int id = 0; id < n; id++) out.writeDouble(per[id]);
+        for (int id = 0; id < n; id++) out.writeDouble(pbr[id]);
+        for (int id = 0; id < n; id++) out.writeLong(marketCap[id]);
+    }
+
+    public static ValuationSnapshot readFrom(DataInput in) throws IOException {
+        int format = in.readInt();
+        if (format != FORMAT) throw new IOException("unsupported valuation snapshot format: " + format);
+        long day = in.readLong();
+        long millis = in.readLong();
+        int n = in.readInt();
+        String[] industries = new String[in.readInt()];
+        for (int g = 0; g < industries.length; g++) industries[g] = in.readUTF();
+        String[] codes = new String[n];
+        String[] names = new String[n];
+        byte[] market = new byte[n];
+        int[] industry = new int[n];
+        double[] per = new double[n];
+        double[] pbr = new double[n];
+        long[] marketCap = new long[n];
+        for (int id = 0; id < n; id++) codes[id] = in.readUTF();
+        for (int id = 0; id < n; id++) names[id] = in.readUTF();
+        for (int id = 0; id < n; id++) market[id] = in.readByte();
+        for (int id = 0; id < n; id++) industry[id] = in.readInt();
+        for (int id = 0; id < n; id++) per[id] = in.readDouble();
+        for (int id = 0; id < n; id++) pbr[id] = in.readDouble();
+        for (int id = 0; id < n; id++) marketCap[id] = in.readLong();
+        return new ValuationSnapshot(day == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(day),
+                millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis),
+                codes, names, market, industries, industry, per, pbr, marketCap);
+    }
+
+    /** 수집 순서대로 쌓은 뒤 build 시 종목코드 순으로 재배치하고 업종 사전을 만든다 (중복 코드는 처음 것만) */
+    public static final class Builder {
+        private int n;
+        private String[] codes;
+        private String[] names;
+        private byte[] market;
+        private String[] industryNames;
+        private double[] per, pbr;
+        private long[] marketCap;
+
+        public Builder(int expected) {
+            int cap = Math.max(16, expected);
+            codes = new String[cap];
+            names = new String[cap];
+            market = new byte[cap];
+            industryNames = new String[cap];
+            per = new double[cap];
+            pbr = new double[cap];
+            marketCap = new long[cap];
+        }
+
+        /** per·pbr 은 없으면 NaN, marketCap 은 원 단위 (없으면 0) */
+        public Builder add(String code, String name, String marketName, String industryName,
+                           double per, double pbr, long marketCap) {
+            if (n == codes.length) grow();
+            codes[n] = code;
+            names[n] = name;
+            market[n] = MarketSnapshot.marketOf(marketName);
+            industryNames[n] = industryName == null || industryName.isBlank() ? null : industryName.trim();
+            this.per[n] = per;
+            this.pbr[n] = pbr;
+            this.marketCap[n] = marketCap;
+            n++;
+            return this;
+        }
+
+        public int size() { return n; }
+
+        public ValuationSnapshot build(LocalDate tradeDate, Instant collectedAt) {
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(i -> codes[i]));
+
+            int m = 0;
+            int[] keep = new int[n];
+            for (int i = 0; i < n; i++) {
+                if (m > 0 && codes[keep[m - 1]].equals(codes[order[i]])) continue;
+                keep[m++] = order[i];
+            }
+
+            String[] dictionary = Arrays.stream(industryNames, 0, n)
+                    .filter(s -> s != null)
+                    .distinct()
+                    .sorted()
+                    .toArray(String[]::new);
+            Map<String, Integer> industryIds = new HashMap<>();
+            for (int g = 0; g < dictionary.length; g++) industryIds.put(dictionary[g], g);
+
+            String[] c = new String[m];
+            String[] nm = new String[m];
+            byte[] mk = new byte[m];
+            int[] sc = new int[m];
+            double[] pe = new double[m];
+            double[] pb = new double[m];
+            long[] cap = new long[m];
+            for (int id = 0; id < m; id++) {
+                int src = keep[id];
+                c[id] = codes[src];
+                nm[id] = names[src];
+                mk[id] = market[src];
+                sc[id] = industryNames[src] == null ? -1 : industryIds.get(industryNames[src]);
+                pe[id] = per[src];
+                pb[id] = pbr[src];
+                cap[id] = marketCap[src];
+            }
+            return new ValuationSnapshot(tradeDate, collectedAt, c, nm, mk, dictionary, sc, pe, pb, cap);
+        }
+
+        private void grow() {
+            int cap = codes.length * 2;
+            codes = Arrays.copyOf(codes, cap);
+            names = Arrays.copyOf(names, cap);
+            market = Arrays.copyOf(market, cap);
+            industryNames = Arrays.copyOf(industryNames, cap);
+            per = Arrays.copyOf(per, cap);
+            pbr = Arrays.copyOf(pbr, cap);
+            marketCap = Arrays.copyOf(marketCap, cap);
+        }
+    }
+}
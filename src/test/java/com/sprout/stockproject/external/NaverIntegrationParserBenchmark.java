@@ -0,0 +1,151 @@
+package com.sprout.stockproject.external;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * 네이버 통합 정보 응답 처리 비교 (JUnit 테스트 아님, main 으로 직접 실행).
+ * - tree  : 기존 방식 (String 디코딩 → readTree → 필드마다 트리 탐색, fetch 한 번에 5개 필드)
+ * - stream: NaverIntegrationParser (바이트 1회 스트리밍 → StockSnapshot)
+ * 실행: ./gradlew testClasses 후 test 런타임 클래스패스로
+ *       java com.sprout.stockproject.external.NaverIntegrationParserBenchmark [seconds]
+ */
+public class NaverIntegrationParserBenchmark {
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        byte[] body = sampleIntegration();
+        JsonFactory factory = OM.getFactory();
+        System.out.printf("payload: %,d bytes%n", body.length);
+
+        // 두 방식 결과가 같은지 먼저 확인
+        StockSnapshot streamed = NaverIntegrationParser.parse(factory, body);
+        StockSnapshot tree = parseWithTree(body);
+        if (!streamed.equals(tree)) throw new IllegalStateException("parser mismatch: " + streamed + " vs " + tree);
+        System.out.println(streamed);
+
+        double treeOps = run("tree  ", () -> parseWithTree(body), seconds);
+        double streamOps = run("stream", () -> NaverIntegrationParser.parse(factory, body), seconds);
+        System.out.printf("speedup: %.1fx%n", streamOps / treeOps);
+    }
+
+    private interface Task {
+        Object call() throws Exception;
+    }
+
+    private static double run(String label, Task task, int seconds) throws Exception {
+        long warmupEnd = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < warmupEnd) task.call();
+
+        long sink = 0;
+        int ops = 0;
+        long started = System.nanoTime();
+        long deadline = started + seconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            sink += task.call().hashCode();
+            ops++;
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        double perSec = ops / elapsed;
+        System.out.printf("%s: %,10.0f ops/s  %8.1f us/op  (sink %d)%n", label, perSec, 1e6 / perSec, sink & 1);
+        return perSec;
+    }
+
+    /** 변경 전 NaverMobileStockClient 의 readTree + getStockName/getCurrentPrice/findValueByCode 와 같은 처리 */
+    private static StockSnapshot parseWithTree(byte[] body) throws Exception {
+        JsonNode data = OM.readTree(new String(body, StandardCharsets.UTF_8));
+        String close = null;
+        JsonNode deal = data.get("dealTrendInfos");
+        if (deal != null && deal.isArray() && deal.size() > 0) close = deal.get(0).get("closePrice").asText();
+        return new StockSnapshot(data.get("stockName").asText(), close,
+                findValueByCode(data, "marketValue"), findValueByCode(data, "per"), findValueByCode(data, "pbr"));
+    }
+
+    private static String findValueByCode(JsonNode data, String targetCode) {
+        JsonNode totalInfos = data.get("totalInfos");
+        if (totalInfos != null && totalInfos.isArray()) {
+            for (JsonNode info : totalInfos) {
+                if (targetCode.equals(info.get("code").asText())) return info.get("value").asText();
+            }
+        }
+        return null;
+    }
+
+    /** 실제 응답과 비슷한 구성·크기 (필요한 필드는 일부, 나머지는 설명·컨센서스·업종 비교·리서치 등) */
+    private static byte[] sampleIntegration() throws Exception {
+        Random rnd = new Random(42);
+        ObjectNode root = OM.createObjectNode();
+        root.put("itemCode", "005930");
+        root.put("reutersCode", "005930");
+        root.put("stockName", "삼성전자");
+        root.put("stockEndType", "stock");
+        root.put("description", "한국 및 DX부문 해외 9개 지역총괄과 DS부문 해외 5개 지역총괄, SDC, Harman 등 "
+                .repeat(8));
+        ObjectNode consensus = root.putObject("consensusInfo");
+        consensus.put("recommMean", "4.00");
+        consensus.put("priceTargetMean", "95,000");
+        consensus.put("createDate", "2024.01.05.");
+
+        ArrayNode infos = root.putArray("totalInfos");
+        String[][] total = {
+                {"lastClosePrice", "전일", "71,000"}, {"openPrice", "시가", "71,200"}, {"highPrice", "고가", "72,000"},
+                {"lowPrice", "저가", "70,500"}, {"accumulatedTradingVolume", "거래량", "12,345,678"},
+                {"accumulatedTradingValue", "대금", "8,812억"}, {"marketValue", "시총", "472조 3,455억"},
+                {"foreignRate", "외인소진율", "53.24%"}, {"highPriceOf52Weeks", "52주 최고", "79,800"},
+                {"lowPriceOf52Weeks", "52주 최저", "54,500"}, {"per", "PER", "13.95배"}, {"eps", "EPS", "5,091원"},
+                {"cnsPer", "추정PER", "12.40배"}, {"cnsEps", "추정EPS", "5,728원"}, {"pbr", "PBR", "1.39배"},
+                {"bps", "BPS", "51,199원"}, {"dividendYieldRatio", "배당수익률", "2.03%"}, {"dividend", "주당배당금", "1,444원"}
+        };
+        for (String[] t : total) {
+            ObjectNode n = infos.addObject();
+            n.put("code", t[0]);
+            n.put("key", t[1]);
+            n.put("value", t[2]);
+            n.putObject("valueDesc").put("text", t[1] + " 설명");
+        }
+
+        ArrayNode deals = root.putArray("dealTrendInfos");
+        for (int i = 0; i < 5; i++) {
+            ObjectNode d = deals.addObject();
+            d.put("bizdate", String.valueOf(20240105 - i));
+            d.put("foreignerPureBuyQuant", String.format("%,d", rnd.nextInt(2_000_000) - 1_000_000));
+            d.put("foreignerHoldRatio", "53.24%");
+            d.put("organPureBuyQuant", String.format("%,d", rnd.nextInt(2_000_000) - 1_000_000));
+            d.put("individualPureBuyQuant", String.format("%,d", rnd.nextInt(2_000_000) - 1_000_000));
+            d.put("closePrice", String.format("%,d", 71_000 - i * 300));
+            d.put("compareToPreviousClosePrice", "300");
+            d.putObject("compareToPreviousPrice").put("code", "2").put("text", "상승").put("name", "RISING");
+            d.put("accumulatedTradingVolume", String.format("%,d", 10_000_000 + rnd.nextInt(5_000_000)));
+        }
+
+        ArrayNode industry = root.putArray("industryCompareInfo");
+        for (int i = 0; i < 6; i++) {
+            ObjectNode c = industry.addObject();
+            c.put("itemCode", String.format("%06d", 100_000 + i));
+            c.put("stockName", "동종업종 " + i);
+            c.put("closePrice", String.format("%,d", 10_000 + rnd.nextInt(90_000)));
+            c.put("fluctuationsRatio", String.format("%.2f", rnd.nextGaussian()));
+            c.put("marketValue", String.format("%,d억", 1_000 + rnd.nextInt(100_000)));
+            c.putObject("stockExchangeType").put("code", "KS").put("nameKor", "코스피");
+        }
+
+        ArrayNode researches = root.putArray("researches");
+        for (int i = 0; i < 10; i++) {
+            ObjectNode r = researches.addObject();
+            r.put("id", 70_000 + i);
+            r.put("bnm", "증권사 " + i);
+            r.put("tit", "반도체 업황 회복과 메모리 가격 반등에 따른 실적 개선 전망 " + i);
+            r.put("wdt", "2024.01.0" + (i % 9 + 1));
+            r.put("rcnt", rnd.nextInt(5000));
+        }
+        return OM.writeValueAsBytes(root);
+    }
+}
@@ -0,0 +1,187 @@
+package com.sprout.stockproject.external.chart;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BarResamplerTest {
+
+    @Test
+    void weekSpanningNewYearIsOneBar() {
+        // 2024-12-30(월)~2025-01-03(금) 은 한 주, 2025-01-01 은 휴장
+        ChartSeries daily = days("20241226", "20241227", "20241230", "20241231", "20250102", "20250103", "20250106");
+        ChartSeries weeks = resample(daily, BarResampler.Period.WEEK, 10);
+
+        assertEquals(3, weeks.size());
+        assertEquals(20241226, weeks.date(0));
+        assertEquals(20241230, weeks.date(1));
+        assertEquals(20250106, weeks.date(2));
+        assertBar(weeks, 1, daily, 2, 5);
+    }
+
+    @Test
+    void monthsSplitAtNewYear() {
+        ChartSeries daily = days("20241230", "20241231", "20250102", "20250103");
+        ChartSeries months = resample(daily, BarResampler.Period.MONTH, 10);
+
+        assertEquals(2, months.size());
+        assertEquals(20241230, months.date(0));
+        assertEquals(20250102, months.date(1));
+        assertBar(months, 0, daily, 0, 1);
+        assertBar(months, 1, daily, 2, 3);
+    }
+
+    @Test
+    void matchesCalendarGroupingOverSeveralYears() {
+        ChartSeries daily = tradingDays(LocalDate.of(2019, 12, 20), 1200, 1);
+        for (BarResampler.Period period : BarResampler.Period.values()) {
+            ChartSeries expected = naive(daily, period);
+            assertSeries(expected, resample(daily, period, Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void replacingTheFormingDayRebuildsOnlyTheLastBar() {
+        ChartSeries closing = tradingDays(LocalDate.of(2024, 12, 2), 25, 2);
+        for (BarResampler.Period period : BarResampler.Period.values()) {
+            BarResampler r = new BarResampler(period, "000000", "test");
+            r.acceptAll(closing.range(closing.date(0), closing.date(closing.size() - 2)));
+            // 장중 값 여러 번 → 마감 값 (같은 날짜로 다시 들어옴)
+            int last = closing.size() - 1;
+            r.accept(closing.date(last), 1, 999_999, 1, 1, 1);
+            r.accept(closing.date(last), 2, 2, 2, 2, 2);
+            r.accept(closing.date(last), closing.open(last), closing.high(last), closing.low(last),
+                    closing.close(last), closing.volume(last));
+
+            assertSeries(naive(closing, period), r.snapshot(Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void replacingTheFirstDayOfANewBucket() {
+        ChartSeries daily = days("20250103", "20250106");
+        BarResampler r = new BarResampler(BarResampler.Period.WEEK, "000000", "test");
+        r.accept(daily.date(0), daily.open(0), daily.high(0), daily.low(0), daily.close(0), daily.volume(0));
+        r.accept(daily.date(1), 5, 5, 5, 5, 5);
+        r.accept(daily.date(1), daily.open(1), daily.high(1), daily.low(1), daily.close(1), daily.volume(1));
+
+        ChartSeries weeks = r.snapshot(10);
+        assertEquals(2, weeks.size());
+        assertBar(weeks, 0, daily, 0, 0);
+        assertBar(weeks, 1, daily, 1, 1);
+    }
+
+    @Test
+    void resumingFromTheLastDailyDateMatchesOneShot() {
+        ChartSeries daily = tradingDays(LocalDate.of(2023, 11, 1), 300, 3);
+        BarResampler r = new BarResampler(BarResampler.Period.WEEK, "000000", "test");
+        r.acceptAll(daily.range(daily.date(0), daily.date(149)));
+        // 캐시 재사용 흉내: 마지막으로 넣은 일봉부터 다시
+        r.acceptAll(daily.range(r.lastDailyDate(), Integer.MAX_VALUE));
+
+        assertSeries(resample(daily, BarResampler.Period.WEEK, Integer.MAX_VALUE), r.snapshot(Integer.MAX_VALUE));
+        assertEquals(daily.date(0), r.firstDailyDate());
+    }
+
+    @Test
+    void snapshotReturnsTheMostRecentBars() {
+        ChartSeries daily = tradingDays(LocalDate.of(2024, 1, 2), 120, 4);
+        ChartSeries all = resample(daily, BarResampler.Period.WEEK, Integer.MAX_VALUE);
+        ChartSeries last3 = resample(daily, BarResampler.Period.WEEK, 3);
+
+        assertSeries(all.tail(3), last3);
+    }
+
+    private static ChartSeries resample(ChartSeries daily, BarResampler.Period period, int count) {
+        BarResampler r = new BarResampler(period, daily.symbol(), daily.name());
+        r.acceptAll(daily);
+        return r.snapshot(count);
+    }
+
+    /** LocalDate 로 주(월요일 시작)·달을 묶은 기준 결과 */
+    private static ChartSeries naive(ChartSeries daily, BarResampler.Period period) {
+        List<int[]> buckets = new ArrayList<>();
+        Object prevKey = null;
+        for (int i = 0; i < daily.size(); i++) {
+            LocalDate d = LocalDate.parse(String.valueOf(daily.date(i)), DateTimeFormatter.BASIC_ISO_DATE);
+            Object key = period == BarResampler.Period.WEEK ? d.with(DayOfWeek.MONDAY) : d.withDayOfMonth(1);
+            if (!key.equals(prevKey)) buckets.add(new int[]{i, i});
+            buckets.get(buckets.size() - 1)[1] = i;
+            prevKey = key;
+        }
+        ChartSeries.Builder b = new ChartSeries.Builder(buckets.size()).symbol(daily.symbol()).name(daily.name())
+                .timeframe(period.timeframe());
+        for (int[] k : buckets) {
+            long high = Long.MIN_VALUE, low = Long.MAX_VALUE, volume = 0;
+            for (int i = k[0]; i <= k[1]; i++) {
+                high = Math.max(high, daily.high(i));
+                low = Math.min(low, daily.low(i));
+                volume += daily.volume(i);
+            }
+            b.add(daily.date(k[0]), daily.open(k[0]), high, low, daily.close(k[1]), volume);
+        }
+        return b.build();
+    }
+
+    private static void assertBar(ChartSeries bars, int k, ChartSeries daily, int from, int to) {
+        long high = Long.MIN_VALUE, low = Long.MAX_VALUE, volume = 0;
+        for (int i = from; i <= to; i++) {
+            high = Math.max(high, daily.high(i));
+            low = Math.min(low, daily.low(i));
+            volume += daily.volume(i);
+        }
+        assertEquals(daily.date(from), bars.date(k), "date " + k);
+        assertEquals(daily.open(from), bars.open(k), "open " + k);
+        assertEquals(high, bars.high(k), "high " + k);
+        assertEquals(low, bars.low(k), "low " + k);
+        assertEquals(daily.close(to), bars.close(k), "close " + k);
+        assertEquals(volume, bars.volume(k), "volume " + k);
+    }
+
+    private static void assertSeries(ChartSeries expected, ChartSeries actual) {
+        assertEquals(expected.size(), actual.size(), "bar count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.date(i), actual.date(i), "date " + i);
+            assertEquals(expected.open(i), actual.open(i), "open " + i);
+            assertEquals(expected.high(i), actual.high(i), "high " + i);
+            assertEquals(expected.low(i), actual.low(i), "low " + i);
+            assertEquals(expected.close(i), actual.close(i), "close " + i);
+            assertEquals(expected.volume(i), actual.volume(i), "volume " + i);
+        }
+    }
+
+    private static ChartSeries days(String... dates) {
+        ChartSeries.Builder b = new ChartSeries.Builder(dates.length).symbol("000000").name("test").timeframe("day");
+        for (int i = 0; i < dates.length; i++) {
+            long c = 10_000 + i * 100L;
+            b.add(Integer.parseInt(dates[i]), c - 50, c + 200 + i, c - 300 - i, c, 1_000L + i);
+        }
+        return b.build();
+    }
+
+    /** start 부터 평일 n개 일봉 (가끔 하루씩 휴장) */
+    private static ChartSeries tradingDays(LocalDate start, int n, long seed) {
+        Random rnd = new Random(seed);
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol("000000").name("test").timeframe("day");
+        LocalDate d = start;
+        long close = 50_000;
+        for (int i = 0; i < n; i++) {
+            while (d.getDayOfWeek().getValue() > 5 || rnd.nextInt(20) == 0) d = d.plusDays(1);
+            long open = close;
+            close = Math.max(100, close + Math.round(rnd.nextGaussian() * 800));
+            long high = Math.max(open, close) + rnd.nextInt(500);
+            long low = Math.max(1, Math.min(open, close) - rnd.nextInt(500));
+            b.add(Integer.parseInt(d.format(DateTimeFormatter.BASIC_ISO_DATE)), open, high, low, close,
+                    100_000L + rnd.nextInt(1_000_000));
+            d = d.plusDays(1);
+        }
+        return b.build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.sprout.stockproject.external.chart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChartDownsamplerTest {
+
+    @Test
+    void lttbKeepsFirstAndLastBarAndReturnsExactlyMaxPoints() {
+        ChartSeries s = randomWalk(1000, 1);
+        for (int m : new int[]{3, 4, 50, 333, 999}) {
+            Bars out = ChartDownsampler.downsample(s, m, ChartDownsampler.Mode.LTTB);
+            assertEquals(m, out.size(), "maxPoints " + m);
+            assertEquals(s.date(0), out.date(0), "first " + m);
+            assertEquals(s.date(s.size() - 1), out.date(m - 1), "last " + m);
+            assertEquals(s.close(s.size() - 1), out.close(m - 1), "last close " + m);
+        }
+    }
+
+    @Test
+    void lttbPicksOriginalBarsInOrder() {
+        ChartSeries s = randomWalk(500, 2);
+        Bars out = ChartDownsampler.downsample(s, 60, ChartDownsampler.Mode.LTTB);
+        int j = 0;
+        for (int k = 0; k < out.size(); k++) {
+            while (j < s.size() && s.date(j) != out.date(k)) j++;
+            assertTrue(j < s.size(), "bar " + k + " not from the input or out of order");
+            assertEquals(s.open(j), out.open(k));
+            assertEquals(s.high(j), out.high(k));
+            assertEquals(s.low(j), out.low(k));
+            assertEquals(s.close(j), out.close(k));
+            assertEquals(s.volume(j), out.volume(k));
+            j++;
+        }
+    }
+
+    @Test
+    void lttbKeepsASingleSpike() {
+        ChartSeries.Builder b = new ChartSeries.Builder(300).symbol("000000").name("test").timeframe("day");
+        for (int i = 0; i < 300; i++) {
+            long close = i == 137 ? 90_000 : 10_000;
+            b.add(20000101 + i, close, close, close, close, 1_000);
+        }
+        Bars out = ChartDownsampler.downsample(b.build(), 20, ChartDownsampler.Mode.LTTB);
+        boolean spike = false;
+        for (int k = 0; k < out.size(); k++) spike |= out.close(k) == 90_000;
+        assertTrue(spike);
+    }
+
+    @Test
+    void seriesWithinMaxPointsIsReturnedAsIs() {
+        ChartSeries s = randomWalk(40, 3);
+        assertSame(s, ChartDownsampler.downsample(s, 40, "lttb"));
+        assertSame(s, ChartDownsampler.downsample(s, 100, "ohlc"));
+    }
+
+    private static ChartSeries randomWalk(int n, long seed) {
+        Random rnd = new Random(seed);
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol("000000").name("test").timeframe("day");
+        long close = 50_000;
+        for (int i = 0; i < n; i++) {
+            long open = close;
+            close = Math.max(100, close + Math.round(rnd.nextGaussian() * 800));
+            long high = Math.max(open, close) + rnd.nextInt(500);
+            long low = Math.max(1, Math.min(open, close) - rnd.nextInt(500));
+            b.add(20000101 + i, open, high, low, close, 100_000L + rnd.nextInt(1_000_000));
+        }
+        return b.build();
+    }
+}
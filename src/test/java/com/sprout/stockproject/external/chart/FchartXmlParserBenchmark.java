@@ -0,0 +1,128 @@
+package com.sprout.stockproject.external.chart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * fchart XML 파싱 처리량 비교 (JUnit 테스트 아님, main 으로 직접 실행).
+ * - dom  : 기존 방식 (String 디코딩 → BOM 제거 → EUC-KR 재인코딩 → DOM → split → ObjectNode)
+ * - bytes: FchartXmlParser (바이트 1회 스캔 → 원시 배열)
+ * - dbuf : 다이렉트 ByteBuffer 를 넘김 (일괄 복사 후 배열 스캔, Netty 응답 버퍼와 같은 경로)
+ * 실행: ./gradlew testClasses 후 test 런타임 클래스패스로
+ *       java com.sprout.stockproject.external.chart.FchartXmlParserBenchmark [bars] [seconds]
+ */
+public class FchartXmlParserBenchmark {
+
+    private static final Charset EUC_KR = Charset.forName("EUC-KR");
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int bars = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        byte[] xml = sampleXml(bars);
+        System.out.printf("payload: %d bars, %,d bytes%n", bars, xml.length);
+
+        // 두 방식 결과가 같은지 먼저 확인
+        ByteBuffer direct = ByteBuffer.allocateDirect(xml.length).put(xml).flip();
+        ChartSeries s = FchartXmlParser.parse(xml);
+        ObjectNode dom = parseWithDom(xml);
+        if (!s.toJson(OM).equals(dom)) throw new IllegalStateException("parser mismatch");
+        if (!FchartXmlParser.parse(direct).toJson(OM).equals(dom)) throw new IllegalStateException("direct mismatch");
+
+        double domOps = run("dom  ", () -> parseWithDom(xml), seconds);
+        double byteOps = run("bytes", () -> FchartXmlParser.parse(xml), seconds);
+        run("dbuf ", () -> FchartXmlParser.parse(direct), seconds);
+        System.out.printf("speedup: %.1fx%n", byteOps / domOps);
+    }
+
+    private interface Task {
+        Object call() throws Exception;
+    }
+
+    private static double run(String label, Task task, int seconds) throws Exception {
+        long warmupEnd = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < warmupEnd) task.call();
+
+        long sink = 0;
+        int ops = 0;
+        long started = System.nanoTime();
+        long deadline = started + seconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            sink += task.call().hashCode();
+            ops++;
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        double perSec = ops / elapsed;
+        System.out.printf("%s: %,10.0f ops/s  %8.1f us/op  (sink %d)%n", label, perSec, 1e6 / perSec, sink & 1);
+        return perSec;
+    }
+
+    /** 변경 전 NaverChartStockClient.parseXmlToJson 과 같은 처리 */
+    private static ObjectNode parseWithDom(byte[] body) throws Exception {
+        String raw = new String(body, EUC_KR);
+        String cleaned = raw.replace("\uFEFF", "");
+        int idx = cleaned.indexOf('<');
+        if (idx > 0) cleaned = cleaned.substring(idx);
+        cleaned = cleaned.trim();
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(cleaned.getBytes(EUC_KR)));
+        Element chartData = (Element) doc.getElementsByTagName("chartdata").item(0);
+        ObjectNode result = OM.createObjectNode();
+        result.put("symbol", chartData.getAttribute("symbol"));
+        result.put("name", chartData.getAttribute("name"));
+        result.put("timeframe", chartData.getAttribute("timeframe"));
+        ArrayNode data = OM.createArrayNode();
+        NodeList items = chartData.getElementsByTagName("item");
+        for (int i = 0; i < items.getLength(); i++) {
+            String[] parts = ((Element) items.item(i)).getAttribute("data").split("\\|");
+            if (parts.length >= 6) {
+                ObjectNode n = OM.createObjectNode();
+                n.put("date", parts[0]);
+                n.put("open", parts[1]);
+                n.put("high", parts[2]);
+                n.put("low", parts[3]);
+                n.put("close", parts[4]);
+                n.put("volume", parts[5]);
+                data.add(n);
+            }
+        }
+        result.set("data", data);
+        return result;
+    }
+
+    private static byte[] sampleXml(int bars) {
+        Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder(bars * 64);
+        sb.append("<?xml version=\"1.0\" encoding=\"EUC-KR\" ?>\n<protocol>\n")
+          .append("\t<chartdata symbol=\"005930\" name=\"삼성전자\" count=\"").append(bars)
+          .append("\" timeframe=\"day\" precision=\"0\" origintime=\"19900103\">\n");
+        long price = 50_000;
+        LocalDate d = LocalDate.of(2000, 1, 3);
+        for (int i = 0; i < bars; i++) {
+            long open = price;
+            long close = Math.max(100, open + (rnd.nextInt(2001) - 1000));
+            long high = Math.max(open, close) + rnd.nextInt(500);
+            long low = Math.min(open, close) - rnd.nextInt(500);
+            sb.append("\t\t<item data=\"").append(d.format(DateTimeFormatter.BASIC_ISO_DATE))
+              .append('|').append(open).append('|').append(high).append('|').append(low)
+              .append('|').append(close).append('|').append(1_000_000 + rnd.nextInt(20_000_000))
+              .append("\" />\n");
+            price = close;
+            d = d.plusDays(1);
+        }
+        sb.append("\t</chartdata>\n</protocol>\n");
+        return sb.toString().getBytes(EUC_KR);
+    }
+}
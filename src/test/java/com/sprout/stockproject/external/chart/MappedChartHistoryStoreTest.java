@@ -0,0 +1,218 @@
+package com.sprout.stockproject.external.chart;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedChartHistoryStoreTest {
+
+    private static final String SYMBOL = "005930";
+    private static final String TIMEFRAME = "day";
+    private static final Instant SYNCED = Instant.parse("2024-03-04T07:00:00Z");
+
+    @TempDir
+    Path root;
+
+    @Test
+    void savedHistoryReadsBackAfterReopen() {
+        ChartSeries bars = series(50, 0);
+        store().save(new ChartHistoryStore.StoredHistory(bars, SYNCED, true));
+
+        ChartHistoryStore.StoredHistory loaded = store().load(SYMBOL, TIMEFRAME);
+        assertNotNull(loaded);
+        assertBars(bars, loaded.series(), 50);
+        assertEquals(SYNCED, loaded.syncedAt());
+        assertTrue(loaded.complete());
+        assertEquals("삼성전자", loaded.series().name());
+    }
+
+    @Test
+    void fileTruncatedMidRecordRecoversWholeRecordsBeforeTheCut() throws IOException {
+        ChartSeries bars = series(10, 0);
+        store().save(new ChartHistoryStore.StoredHistory(bars, SYNCED, false));
+
+        // 헤더는 10봉을 가리키지만 데이터는 7봉 반만 남은 상태 (헤더 쓰기 후 데이터 유실)
+        truncate(MappedChartHistoryStore.HEADER_SIZE + 7L * MappedChartHistoryStore.RECORD_SIZE
+                + MappedChartHistoryStore.RECORD_SIZE / 2);
+
+        Bars recovered = store().read(SYMBOL, TIMEFRAME);
+        assertNotNull(recovered);
+        assertBars(bars, recovered, 7);
+    }
+
+    @Test
+    void headerCountAheadOfZeroFilledDataStopsAtLastValidRecord() throws IOException {
+        ChartSeries bars = series(10, 0);
+        store().save(new ChartHistoryStore.StoredHistory(bars, SYNCED, false));
+
+        // 파일은 늘어났지만 내용이 내려가지 않은 구간 (0 으로 채워진 봉 11개) + 헤더 봉 수 20
+        long end = MappedChartHistoryStore.HEADER_SIZE + 20L * MappedChartHistoryStore.RECORD_SIZE;
+        try (FileChannel ch = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(1), end - 1);
+            ch.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 20), 8);
+        }
+
+        // 확정 봉 9개까지만 유효, 형성 중 봉은 바로 앞 봉을 알 수 없으므로 버림
+        Bars recovered = store().read(SYMBOL, TIMEFRAME);
+        assertNotNull(recovered);
+        assertBars(bars, recovered, 9);
+    }
+
+    @Test
+    void uncommittedTailIsIgnoredAndDroppedByTheNextAppend() throws IOException {
+        ChartSeries bars = series(10, 0);
+        store().save(new ChartHistoryStore.StoredHistory(bars, SYNCED, false));
+
+        // 헤더를 올리기 전에 죽은 이어 쓰기 (반쯤 쓴 봉). 마지막 봉은 헤더에 있으므로 확정 봉은 9개
+        long committedEnd = MappedChartHistoryStore.HEADER_SIZE + 9L * MappedChartHistoryStore.RECORD_SIZE;
+        try (FileChannel ch = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(MappedChartHistoryStore.RECORD_SIZE / 2).putInt(0, 99991231), committedEnd);
+        }
+        assertBars(bars, store().read(SYMBOL, TIMEFRAME), 10);
+
+        ChartSeries longer = series(12, 0);
+        MappedChartHistoryStore store = store();
+        store.save(new ChartHistoryStore.StoredHistory(longer, SYNCED, false));
+        assertBars(longer, store().read(SYMBOL, TIMEFRAME), 12);
+        assertEquals(MappedChartHistoryStore.HEADER_SIZE + 11L * MappedChartHistoryStore.RECORD_SIZE, size());
+    }
+
+    @Test
+    void changedLastBarOnlyRewritesTheHeaderWithoutTouchingOpenViews() throws IOException {
+        MappedChartHistoryStore store = store();
+        ChartSeries before = series(10, 0);
+        store.save(new ChartHistoryStore.StoredHistory(before, SYNCED, false));
+        Object fileKey = fileKey();
+        Bars view = store.read(SYMBOL, TIMEFRAME);
+
+        // 형성 중이던 마지막 봉만 바뀜 (장중 갱신)
+        ChartSeries after = series(10, 500);
+        store.save(new ChartHistoryStore.StoredHistory(after, SYNCED.plusSeconds(60), false));
+
+        assertBars(before, view, 10);
+        assertBars(after, store.read(SYMBOL, TIMEFRAME), 10);
+        assertEquals(fileKey, fileKey());
+        assertEquals(MappedChartHistoryStore.HEADER_SIZE + 9L * MappedChartHistoryStore.RECORD_SIZE, size());
+        assertEquals(SYNCED.plusSeconds(60), store().load(SYMBOL, TIMEFRAME).syncedAt());
+    }
+
+    @Test
+    void nextSessionCommitsTheFormingBarByAppending() throws IOException {
+        MappedChartHistoryStore store = store();
+        store.save(new ChartHistoryStore.StoredHistory(series(10, 0), SYNCED, false));
+        Object fileKey = fileKey();
+
+        // 다음 날: 전날 봉은 확정(값은 마감 기준으로 바뀔 수 있음)되고 새 봉이 형성 중
+        ChartSeries next = series(11, 300);
+        store.save(new ChartHistoryStore.StoredHistory(next, SYNCED.plusSeconds(86_400), false));
+
+        Bars reopened = store().read(SYMBOL, TIMEFRAME);
+        assertBars(next, reopened, 11);
+        assertEquals(fileKey, fileKey());
+        // 구간 조회는 확정 구간 끝의 형성 중 봉까지 이어진다
+        Bars lastTwo = reopened.range(next.date(9), Integer.MAX_VALUE);
+        assertEquals(2, lastTwo.size());
+        assertEquals(next.close(10), lastTwo.close(1));
+        assertEquals(0, reopened.range(next.date(10) + 1, Integer.MAX_VALUE).size());
+        assertEquals(MappedChartHistoryStore.HEADER_SIZE + 10L * MappedChartHistoryStore.RECORD_SIZE, size());
+    }
+
+    @Test
+    void changedCommittedBarReplacesTheFile() throws IOException {
+        MappedChartHistoryStore store = store();
+        ChartSeries before = series(10, 0);
+        store.save(new ChartHistoryStore.StoredHistory(before, SYNCED, false));
+        Bars view = store.read(SYMBOL, TIMEFRAME);
+
+        // 수정주가 반영으로 확정 봉이 바뀐 이력 (마지막 두 봉이 바뀜)
+        ChartSeries adjusted = series(9, 700);
+        ChartSeries.Builder b = new ChartSeries.Builder(10).symbol(SYMBOL).name("삼성전자").timeframe(TIMEFRAME);
+        for (int i = 0; i < 9; i++) {
+            b.add(adjusted.date(i), adjusted.open(i), adjusted.high(i), adjusted.low(i), adjusted.close(i),
+                    adjusted.volume(i));
+        }
+        b.add(before.date(9), 1, 2, 1, 2, 3);
+        ChartSeries after = b.build();
+        store.save(new ChartHistoryStore.StoredHistory(after, SYNCED.plusSeconds(60), false));
+
+        assertBars(before, view, 10);
+        assertBars(after, store.read(SYMBOL, TIMEFRAME), 10);
+    }
+
+    @Test
+    void missingOrForeignFileReadsAsAbsent() throws IOException {
+        assertNull(store().load(SYMBOL, TIMEFRAME));
+
+        store().save(new ChartHistoryStore.StoredHistory(series(3, 0), SYNCED, false));
+        try (FileChannel ch = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 0x12345678), 0);
+        }
+        assertNull(store().load(SYMBOL, TIMEFRAME));
+    }
+
+    private MappedChartHistoryStore store() {
+        return new MappedChartHistoryStore(root.toString(), 16);
+    }
+
+    private Path file() {
+        return root.resolve(TIMEFRAME).resolve(SYMBOL + ".ohlcv");
+    }
+
+    private long size() throws IOException {
+        try (FileChannel ch = FileChannel.open(file(), StandardOpenOption.READ)) {
+            return ch.size();
+        }
+    }
+
+    private Object fileKey() throws IOException {
+        return Files.readAttributes(file(), BasicFileAttributes.class).fileKey();
+    }
+
+    private void truncate(long length) throws IOException {
+        try (FileChannel ch = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            ch.truncate(length);
+        }
+    }
+
+    /** 평일 n개 일봉. lastBump 만큼 마지막 봉 종가·거래량을 바꾼다 (장중 갱신 흉내) */
+    private static ChartSeries series(int n, long lastBump) {
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol(SYMBOL).name("삼성전자").timeframe(TIMEFRAME);
+        LocalDate d = LocalDate.of(2024, 1, 2);
+        for (int i = 0; i < n; i++) {
+            while (d.getDayOfWeek().getValue() > 5) d = d.plusDays(1);
+            long close = 70_000 + i * 100L + (i == n - 1 ? lastBump : 0);
+            b.add(Integer.parseInt(d.format(DateTimeFormatter.BASIC_ISO_DATE)),
+                    close - 50, close + 200, close - 300, close, 1_000_000L + i + (i == n - 1 ? lastBump : 0));
+            d = d.plusDays(1);
+        }
+        return b.build();
+    }
+
+    private static void assertBars(Bars expected, Bars actual, int n) {
+        assertNotNull(actual);
+        assertEquals(n, actual.size(), "bar count");
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected.date(i), actual.date(i), "date " + i);
+            assertEquals(expected.open(i), actual.open(i), "open " + i);
+            assertEquals(expected.high(i), actual.high(i), "high " + i);
+            assertEquals(expected.low(i), actual.low(i), "low " + i);
+            assertEquals(expected.close(i), actual.close(i), "close " + i);
+            assertEquals(expected.volume(i), actual.volume(i), "volume " + i);
+        }
+    }
+}
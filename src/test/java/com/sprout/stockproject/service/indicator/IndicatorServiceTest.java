@@ -0,0 +1,127 @@
+package com.sprout.stockproject.service.indicator;
+
+import com.sprout.stockproject.external.chart.Bars;
+import com.sprout.stockproject.external.chart.ChartSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IndicatorServiceTest {
+
+    private static final List<IndicatorSpec> SPECS =
+            IndicatorSpec.parseList("sma:20,ema:20,rsi:14,macd:12:26:9,bb:20:2");
+
+    @Test
+    void oneNewBarContinuesTheMemoExactlyLikeAFreshComputation() {
+        ChartSeries s = randomWalk(400, 1, 0);
+        IndicatorService memo = service();
+        memo.compute(prefix(s, 399), 0, SPECS, 120);
+        IndicatorService.Result incremental = memo.compute(prefix(s, 400), 0, SPECS, 120);
+
+        IndicatorService.Result fresh = service().compute(prefix(s, 400), 0, SPECS, 120);
+        assertSameResult(fresh, incremental);
+    }
+
+    @Test
+    void changedFormingBarIsOnlyPreviewed() {
+        ChartSeries s = randomWalk(300, 2, 0);
+        ChartSeries intraday = randomWalk(300, 2, 1_500);   // 마지막 봉만 다름
+        IndicatorService memo = service();
+        memo.compute(intraday, 0, SPECS, 60);
+        IndicatorService.Result afterClose = memo.compute(s, 0, SPECS, 60);
+
+        assertSameResult(service().compute(s, 0, SPECS, 60), afterClose);
+    }
+
+    @Test
+    void rewrittenHistoryDiscardsTheMemo() {
+        ChartSeries original = randomWalk(300, 3, 0);
+        ChartSeries adjusted = scaled(original, 2);   // 같은 날짜, 수정주가로 모든 값이 바뀜
+        IndicatorService memo = service();
+        memo.compute(prefix(original, 299), 0, SPECS, 60);
+        IndicatorService.Result result = memo.compute(adjusted, 1, SPECS, 60);
+
+        assertSameResult(service().compute(adjusted, 1, SPECS, 60), result);
+    }
+
+    @Test
+    void warmUpValuesAreNullAtTheFront() {
+        ChartSeries s = randomWalk(40, 4, 0);
+        IndicatorService.Result r = service().compute(s, 0, SPECS, 40);
+
+        assertEquals(40, r.dates().size());
+        assertFirstValueAt(19, r.indicators().get("sma:20").get("value"));
+        assertFirstValueAt(19, r.indicators().get("ema:20").get("value"));
+        assertFirstValueAt(14, r.indicators().get("rsi:14").get("value"));
+        assertFirstValueAt(25, r.indicators().get("macd:12:26:9").get("macd"));
+        assertFirstValueAt(33, r.indicators().get("macd:12:26:9").get("signal"));
+        assertFirstValueAt(33, r.indicators().get("macd:12:26:9").get("hist"));
+        assertFirstValueAt(19, r.indicators().get("bb:20:2").get("upper"));
+    }
+
+    @Test
+    void requestLongerThanTheMemoPadsWithNullsOnlyBeforeTheData() {
+        ChartSeries s = randomWalk(100, 5, 0);
+        IndicatorService memo = service();
+        memo.compute(s.tail(30), 0, SPECS, 30);
+        IndicatorService.Result longer = memo.compute(s, 0, SPECS, 100);
+
+        assertSameResult(service().compute(s, 0, SPECS, 100), longer);
+    }
+
+    private static IndicatorService service() {
+        return new IndicatorService(null, 1000, 100);
+    }
+
+    private static void assertFirstValueAt(int index, Double[] values) {
+        for (int i = 0; i < index; i++) assertNull(values[i], "warm-up " + i);
+        for (int i = index; i < values.length; i++) assertNotNull(values[i], "value " + i);
+    }
+
+    private static void assertSameResult(IndicatorService.Result expected, IndicatorService.Result actual) {
+        assertEquals(expected.dates(), actual.dates());
+        assertEquals(expected.indicators().keySet(), actual.indicators().keySet());
+        for (Map.Entry<String, Map<String, Double[]>> e : expected.indicators().entrySet()) {
+            Map<String, Double[]> actualColumns = actual.indicators().get(e.getKey());
+            for (Map.Entry<String, Double[]> col : e.getValue().entrySet()) {
+                assertArrayEquals(col.getValue(), actualColumns.get(col.getKey()), e.getKey() + "/" + col.getKey());
+            }
+        }
+    }
+
+    private static Bars prefix(ChartSeries s, int n) {
+        return s.range(s.date(0), s.date(n - 1));
+    }
+
+    private static ChartSeries scaled(ChartSeries s, long divisor) {
+        ChartSeries.Builder b = new ChartSeries.Builder(s.size()).symbol(s.symbol()).name(s.name()).timeframe(s.timeframe());
+        for (int i = 0; i < s.size(); i++) {
+            b.add(s.date(i), s.open(i) / divisor, s.high(i) / divisor, s.low(i) / divisor, s.close(i) / divisor,
+                    s.volume(i) * divisor);
+        }
+        return b.build();
+    }
+
+    /** lastBump 만큼 마지막 봉 종가를 바꾼다 (장중 갱신 흉내) */
+    private static ChartSeries randomWalk(int n, long seed, long lastBump) {
+        Random rnd = new Random(seed);
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol("000000").name("test").timeframe("day");
+        long close = 50_000;
+        for (int i = 0; i < n; i++) {
+            long open = close;
+            close = Math.max(100, close + Math.round(rnd.nextGaussian() * 800));
+            long c = close + (i == n - 1 ? lastBump : 0);
+            long high = Math.max(open, c) + rnd.nextInt(500);
+            long low = Math.max(1, Math.min(open, c) - rnd.nextInt(500));
+            b.add(20000101 + i, open, high, low, c, 100_000L + rnd.nextInt(1_000_000));
+        }
+        return b.build();
+    }
+}
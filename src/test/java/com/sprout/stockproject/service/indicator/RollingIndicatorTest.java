@@ -0,0 +1,79 @@
+package com.sprout.stockproject.service.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingIndicatorTest {
+
+    private static final String[] SPECS = {"sma:20", "ema:20", "rsi:14", "macd:12:26:9", "bb:20:2"};
+
+    @Test
+    void previewEqualsTheValuePushWouldProduce() {
+        for (String token : SPECS) {
+            RollingIndicator indicator = RollingIndicator.create(IndicatorSpec.parse(token));
+            int width = indicator.columns().length;
+            double[] previewed = new double[width];
+            double[] pushed = new double[width];
+            double[] closes = randomCloses(300, 7);
+            for (int i = 0; i < closes.length; i++) {
+                indicator.preview(closes[i], previewed);
+                indicator.push(closes[i], pushed);
+                assertArrayEquals(pushed, previewed, 1e-6, token + " bar " + i);
+            }
+        }
+    }
+
+    @Test
+    void previewDoesNotChangeState() {
+        for (String token : SPECS) {
+            RollingIndicator a = RollingIndicator.create(IndicatorSpec.parse(token));
+            RollingIndicator b = RollingIndicator.create(IndicatorSpec.parse(token));
+            int width = a.columns().length;
+            double[] outA = new double[width];
+            double[] outB = new double[width];
+            double[] scratch = new double[width];
+            double[] closes = randomCloses(200, 8);
+            for (int i = 0; i < closes.length; i++) {
+                // 장중 갱신 흉내: 같은 봉을 여러 값으로 미리 본 뒤 확정
+                a.preview(closes[i] * 1.05, scratch);
+                a.preview(closes[i] * 0.95, scratch);
+                a.push(closes[i], outA);
+                b.push(closes[i], outB);
+                assertArrayEquals(outB, outA, 0.0, token + " bar " + i);
+            }
+        }
+    }
+
+    @Test
+    void warmUpIsNaNUntilLookbackIsFilled() {
+        for (String token : SPECS) {
+            IndicatorSpec spec = IndicatorSpec.parse(token);
+            RollingIndicator indicator = RollingIndicator.create(spec);
+            double[] out = new double[indicator.columns().length];
+            double[] closes = randomCloses(spec.lookback() + 5, 9);
+            for (int i = 0; i < closes.length; i++) {
+                indicator.push(closes[i], out);
+                // 마지막 열(macd hist·signal, bb lower)이 가장 늦게 채워진다
+                double last = out[out.length - 1];
+                assertEquals(i < spec.lookback() - 1, Double.isNaN(last), token + " bar " + i);
+            }
+            for (double v : out) assertTrue(!Double.isNaN(v), token);
+        }
+    }
+
+    private static double[] randomCloses(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[] closes = new double[n];
+        double close = 50_000;
+        for (int i = 0; i < n; i++) {
+            close = Math.max(100, close + Math.round(rnd.nextGaussian() * 800));
+            closes[i] = close;
+        }
+        return closes;
+    }
+}
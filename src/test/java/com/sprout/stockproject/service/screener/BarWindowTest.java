@@ -0,0 +1,194 @@
+package com.sprout.stockproject.service.screener;
+
+import com.sprout.stockproject.external.chart.ChartSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarWindowTest {
+
+    private static final double EPS = 1e-9;
+    private static final int[] PERIODS = {1, 2, 5, 14, 20, 60, 120};
+
+    @Test
+    void smaMatchesNaiveMean() {
+        ChartSeries s = randomWalk(600, 1);
+        for (int p : PERIODS) {
+            assertEquals(naiveSma(s, p), value(s, "sma(" + p + ")"), relative(naiveSma(s, p)), "sma(" + p + ")");
+        }
+    }
+
+    @Test
+    void emaMatchesNaiveRecomputationOverItsLookback() {
+        ChartSeries s = randomWalk(800, 2);
+        for (int p : PERIODS) {
+            double expected = naiveEma(s, p, s.size() - p * 5);
+            assertEquals(expected, value(s, "ema(" + p + ")"), relative(expected), "ema(" + p + ")");
+        }
+    }
+
+    @Test
+    void emaIsCloseToFullHistoryEma() {
+        // 5배 구간에서 시작해도 상장 이후 전체로 계산한 값과 거의 같다 (초기값 영향 (1-α)^(4p) 이하)
+        ChartSeries s = randomWalk(1500, 3);
+        for (int p : new int[]{10, 20, 60}) {
+            double full = naiveEma(s, p, 0);
+            assertEquals(full, value(s, "ema(" + p + ")"), Math.abs(full) * 1e-3, "ema(" + p + ")");
+        }
+    }
+
+    @Test
+    void rsiMatchesNaiveWilder() {
+        ChartSeries s = randomWalk(800, 4);
+        for (int p : PERIODS) {
+            if (p < 2) continue;
+            double expected = naiveRsi(s, p, s.size() - (p * 5 + 1));
+            assertEquals(expected, value(s, "rsi(" + p + ")"), 1e-7, "rsi(" + p + ")");
+        }
+    }
+
+    @Test
+    void rsiEdgeCases() {
+        assertEquals(100.0, value(linear(100, 10), "rsi(14)"), EPS);
+        assertEquals(0.0, value(linear(100, -10), "rsi(14)"), EPS);
+        assertEquals(50.0, value(linear(100, 0), "rsi(14)"), EPS);
+    }
+
+    @Test
+    void rocHighestLowestAvgvolMatchNaive() {
+        ChartSeries s = randomWalk(300, 5);
+        int n = s.size();
+        for (int p : PERIODS) {
+            double roc = ((double) s.close(n - 1) / s.close(n - 1 - p) - 1.0) * 100.0;
+            assertEquals(roc, value(s, "roc(" + p + ")"), relative(roc), "roc(" + p + ")");
+
+            long hi = Long.MIN_VALUE, lo = Long.MAX_VALUE;
+            double vol = 0;
+            for (int i = n - p; i < n; i++) {
+                hi = Math.max(hi, s.high(i));
+                lo = Math.min(lo, s.low(i));
+                vol += s.volume(i);
+            }
+            assertEquals(hi, value(s, "highest(" + p + ")"), EPS, "highest(" + p + ")");
+            assertEquals(lo, value(s, "lowest(" + p + ")"), EPS, "lowest(" + p + ")");
+            assertEquals(vol / p, value(s, "avgvol(" + p + ")"), relative(vol / p), "avgvol(" + p + ")");
+        }
+    }
+
+    @Test
+    void valueDoesNotDependOnOtherTermsInTheExpression() {
+        // sma(300) 때문에 창이 길어져도 ema/rsi 는 자기 lookback 구간에서 시작한다
+        ChartSeries s = randomWalk(600, 6);
+        ScreenExpression alone = ScreenExpression.parse("ema(20) + rsi(14)");
+        ScreenExpression wider = ScreenExpression.parse("sma(300) * 0 + ema(20) + rsi(14)");
+        assertEquals(evaluate(s, alone), evaluate(s, wider), EPS);
+    }
+
+    @Test
+    void tooFewBarsGiveNaN() {
+        ChartSeries s = randomWalk(30, 7);
+        assertTrue(Double.isNaN(value(s, "sma(31)")));
+        assertTrue(Double.isNaN(value(s, "ema(31)")));
+        assertTrue(Double.isNaN(value(s, "rsi(30)")));
+        assertTrue(Double.isNaN(value(s, "roc(30)")));
+        assertTrue(Double.isNaN(value(s, "highest(31)")));
+        assertEquals(naiveSma(s, 30), value(s, "sma(30)"), relative(naiveSma(s, 30)));
+    }
+
+    @Test
+    void windowIsReusedAcrossSymbols() {
+        // 잎 작업처럼 한 창에 긴 종목 → 짧은 종목 순으로 실어도 앞 종목 값이 섞이지 않는다
+        ScreenExpression e = ScreenExpression.parse("sma(20) + highest(20)");
+        BarWindow w = new BarWindow(e.calls().size());
+        ChartSeries longer = randomWalk(200, 8);
+        ChartSeries shorter = randomWalk(10, 9);
+        w.load(longer, e.lookback());
+        w.compute(e.calls());
+        assertEquals(evaluate(longer, e), e.value(w), EPS);
+        w.load(shorter, e.lookback());
+        w.compute(e.calls());
+        assertTrue(Double.isNaN(e.value(w)));
+        assertEquals(shorter.close(9), w.lastClose(), EPS);
+    }
+
+    private static double value(ChartSeries s, String source) {
+        return evaluate(s, ScreenExpression.parse(source));
+    }
+
+    private static double evaluate(ChartSeries s, ScreenExpression e) {
+        BarWindow w = new BarWindow(e.calls().size());
+        w.load(s, e.lookback());
+        w.compute(e.calls());
+        return e.value(w);
+    }
+
+    private static double relative(double expected) {
+        return Math.max(EPS, Math.abs(expected) * 1e-12);
+    }
+
+    private static double naiveSma(ChartSeries s, int p) {
+        double sum = 0;
+        for (int i = s.size() - p; i < s.size(); i++) sum += s.close(i);
+        return sum / p;
+    }
+
+    /** from 에서 p 개 단순평균으로 시작해 끝까지 EMA */
+    private static double naiveEma(ChartSeries s, int p, int from) {
+        double v = 0;
+        for (int i = from; i < from + p; i++) v += s.close(i);
+        v /= p;
+        double alpha = 2.0 / (p + 1);
+        for (int i = from + p; i < s.size(); i++) v = alpha * s.close(i) + (1 - alpha) * v;
+        return v;
+    }
+
+    /** from 부터 등락을 모아 Wilder 평활 RSI */
+    private static double naiveRsi(ChartSeries s, int p, int from) {
+        int n = s.size() - from - 1;
+        double[] up = new double[n];
+        double[] down = new double[n];
+        for (int k = 0; k < n; k++) {
+            double d = s.close(from + k + 1) - s.close(from + k);
+            up[k] = d > 0 ? d : 0;
+            down[k] = d < 0 ? -d : 0;
+        }
+        double avgUp = 0, avgDown = 0;
+        for (int k = 0; k < p; k++) {
+            avgUp += up[k] / p;
+            avgDown += down[k] / p;
+        }
+        for (int k = p; k < n; k++) {
+            avgUp = (avgUp * (p - 1) + up[k]) / p;
+            avgDown = (avgDown * (p - 1) + down[k]) / p;
+        }
+        if (avgDown == 0) return avgUp == 0 ? 50.0 : 100.0;
+        double rs = avgUp / avgDown;
+        return 100.0 * rs / (1.0 + rs);
+    }
+
+    private static ChartSeries randomWalk(int n, long seed) {
+        Random rnd = new Random(seed);
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol("000000").name("test").timeframe("day");
+        long close = 50_000;
+        for (int i = 0; i < n; i++) {
+            long open = close;
+            close = Math.max(100, close + Math.round(rnd.nextGaussian() * 800));
+            long high = Math.max(open, close) + rnd.nextInt(500);
+            long low = Math.max(1, Math.min(open, close) - rnd.nextInt(500));
+            b.add(20000101 + i, open, high, low, close, 100_000L + rnd.nextInt(1_000_000));
+        }
+        return b.build();
+    }
+
+    private static ChartSeries linear(int n, long step) {
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol("000000").name("test").timeframe("day");
+        for (int i = 0; i < n; i++) {
+            long close = 10_000 + step * i;
+            b.add(20000101 + i, close, close, close, close, 1_000);
+        }
+        return b.build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.sprout.stockproject.service.screener;
+
+import com.sprout.stockproject.api.UnprocessableException;
+import com.sprout.stockproject.external.chart.ChartSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreenExpressionTest {
+
+    /** 종가 10, 11, ..., 19 (10봉). sma(200) 같은 긴 함수는 NaN */
+    private static final ChartSeries TEN_BARS = rising(10);
+
+    @Test
+    void arithmeticPrecedenceAndAssociativity() {
+        assertEquals(7.0, eval("1 + 2 * 3"), 0);
+        assertEquals(9.0, eval("(1 + 2) * 3"), 0);
+        assertEquals(3.0, eval("10 - 4 - 3"), 0);
+        assertEquals(1.0, eval("8 / 4 / 2"), 0);
+        assertEquals(-6.0, eval("-2 * 3"), 0);
+        assertEquals(5.0, eval("2 - -3"), 0);
+        assertEquals(1.0, eval("1 + 2 * 3 > 6"), 0);
+    }
+
+    @Test
+    void logicalPrecedenceIsNotThenAndThenOr() {
+        // not 이 and 보다 먼저: (not 0) and 0
+        assertEquals(0.0, eval("not 0 and 0"), 0);
+        // and 가 or 보다 먼저: 1 or (0 and 0)
+        assertEquals(1.0, eval("1 or 0 and 0"), 0);
+        assertEquals(1.0, eval("not 1 or 1"), 0);
+        assertEquals(0.0, eval("not (1 or 1)"), 0);
+        assertEquals(1.0, eval("not not 1"), 0);
+        // 비교가 논리보다 먼저
+        assertEquals(1.0, eval("close > 18 and close < 20"), 0);
+        assertEquals(0.0, eval("close > 19 or close < 19"), 0);
+    }
+
+    @Test
+    void lastBarFieldsAndKeywordsAreCaseInsensitive() {
+        assertEquals(19.0, eval("CLOSE"), 0);
+        assertEquals(1.0, eval("High > Close AND low < close"), 0);
+        assertEquals(1.0, eval("close > SMA(5)"), 0);
+    }
+
+    @Test
+    void comparisonsWithNaNAreFalse() {
+        assertTrue(Double.isNaN(eval("sma(200)")));
+        assertFalse(matches("close > sma(200)"));
+        assertFalse(matches("close < sma(200)"));
+        assertFalse(matches("close >= sma(200)"));
+        assertFalse(matches("close <= sma(200)"));
+        assertFalse(matches("sma(200) == sma(200)"));
+        assertFalse(matches("sma(200) != close"));
+        // 비교 결과는 0 이므로 not 을 붙이면 참
+        assertTrue(matches("not (close > sma(200))"));
+        // NaN 자체는 거짓 취급
+        assertFalse(matches("sma(200)"));
+        assertTrue(matches("not sma(200)"));
+        assertFalse(matches("sma(200) and 1"));
+        assertTrue(matches("sma(200) or 1"));
+    }
+
+    @Test
+    void divisionByZeroIsNaN() {
+        assertTrue(Double.isNaN(eval("close / 0")));
+        assertFalse(matches("close / 0 > 0"));
+        assertFalse(matches("close / 0 < 0"));
+        assertFalse(matches("close / (close - close) != 1"));
+    }
+
+    @Test
+    void errorsReportPosition() {
+        assertError("close > ", "at 8: unexpected end");
+        assertError("close >> 1", "at 7: unexpected '>'");
+        assertError("foo > 1", "at 0: unknown field 'foo'");
+        assertError("bogus(3) > 1", "at 0: unknown function 'bogus'");
+        assertError("sma(20.5) > 1", "at 4: integer period expected");
+        assertError("sma(20 > 1", "at 7: ')' expected");
+        assertError("(close > 1", "at 10: ')' expected");
+        assertError("close > 1 1", "at 10: unexpected '1'");
+        assertError("close $ 1", "invalid character at 6");
+        assertError("close = 1", "invalid operator at 6");
+        assertError("close > 1.2.3", "invalid number at 8");
+        assertError("rsi(0) < 30", "period out of range");
+        assertError("sma(501) > 0", "period out of range");
+        assertError(" ", "must not be empty");
+        assertError("close".repeat(101), "too long");
+    }
+
+    @Test
+    void repeatedCallsShareOneSlot() {
+        ScreenExpression e = ScreenExpression.parse("sma(20) > sma(50) and close > sma(20) and SMA(20) > 0 or ema(20) > 0");
+        List<ScreenExpression.Call> calls = e.calls();
+        assertEquals(3, calls.size());
+        assertEquals(new ScreenExpression.Call(ScreenExpression.Func.SMA, 20), calls.get(0));
+        assertEquals(new ScreenExpression.Call(ScreenExpression.Func.SMA, 50), calls.get(1));
+        assertEquals(new ScreenExpression.Call(ScreenExpression.Func.EMA, 20), calls.get(2));
+    }
+
+    @Test
+    void tooManyDistinctCallsAreRejected() {
+        StringBuilder ok = new StringBuilder("0");
+        for (int p = 1; p <= 32; p++) ok.append(" + sma(").append(p).append(")");
+        assertEquals(32, ScreenExpression.parse(ok.toString()).calls().size());
+        // 같은 호출을 반복해도 슬롯은 늘지 않는다
+        assertEquals(32, ScreenExpression.parse(ok + " + sma(1)").calls().size());
+        assertError(ok + " + sma(33)", "too many functions");
+    }
+
+    @Test
+    void lookbackCoversTheLongestCall() {
+        assertEquals(1, ScreenExpression.parse("close > 0").lookback());
+        assertEquals(200, ScreenExpression.parse("close > sma(200)").lookback());
+        assertEquals(50, ScreenExpression.parse("ema(10) > sma(30)").lookback());
+        assertEquals(71, ScreenExpression.parse("rsi(14) < 30").lookback());
+        assertEquals(21, ScreenExpression.parse("roc(20) > 0").lookback());
+    }
+
+    @Test
+    void sourceIsTrimmed() {
+        assertEquals("close > 1", ScreenExpression.parse("  close > 1 ").source());
+    }
+
+    private static double eval(String source) {
+        ScreenExpression e = ScreenExpression.parse(source);
+        return e.value(window(e));
+    }
+
+    private static boolean matches(String source) {
+        ScreenExpression e = ScreenExpression.parse(source);
+        return e.matches(window(e));
+    }
+
+    private static BarWindow window(ScreenExpression e) {
+        BarWindow w = new BarWindow(e.calls().size());
+        w.load(TEN_BARS, e.lookback());
+        w.compute(e.calls());
+        return w;
+    }
+
+    private static void assertError(String source, String fragment) {
+        UnprocessableException e = assertThrows(UnprocessableException.class, () -> ScreenExpression.parse(source));
+        assertTrue(e.getMessage().contains(fragment), "'" + e.getMessage() + "' should contain '" + fragment + "'");
+    }
+
+    private static ChartSeries rising(int n) {
+        ChartSeries.Builder b = new ChartSeries.Builder(n).symbol("000000").name("test").timeframe("day");
+        for (int i = 0; i < n; i++) {
+            long close = 10 + i;
+            b.add(20240101 + i, close, close + 1, close - 1, close, 100L * (i + 1));
+        }
+        return b.build();
+    }
+}